@@ -0,0 +1,424 @@
+package io.github.pangju666.utils.codec;
+
+import javax.crypto.Cipher;
+import javax.crypto.NoSuchPaddingException;
+import javax.crypto.SecretKey;
+import javax.crypto.spec.IvParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.GeneralSecurityException;
+import java.security.NoSuchAlgorithmException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * AES/CTR并行批量加密器
+ * <p>
+ * 将数据按固定大小切分为相互独立的分段，每个分段的计数器可直接由分段序号计算，
+ * 因此加密和解密都可以在{@link ForkJoinPool}上并行执行，也可以只解密其中某一个分段。
+ * 并行结果与整体串行CTR加密结果完全一致，密文长度等于明文长度加头部长度
+ * <p>
+ * 数据格式：
+ * <pre>
+ * 头部：版本(1字节) | 分段大小(4字节) | 明文长度(8字节) | 初始计数器(16字节)
+ * 密文：与明文等长，第i个分段位于头部之后 i * 分段大小 处
+ * </pre>
+ * 注意：CTR模式只保证机密性，不提供完整性校验，需要防篡改时请配合摘要或签名使用
+ *
+ * @author 胖橘
+ * @version 1.0
+ * @since 1.0
+ */
+public class AesBulkCipher {
+    /** 默认分段大小 */
+    public static final int DEFAULT_SEGMENT_SIZE = 1024 * 1024;
+    /** 头部长度 */
+    public static final int HEADER_LENGTH = 1 + 4 + 8 + 16;
+
+    protected static final String TRANSFORMATION = "AES/CTR/NoPadding";
+    protected static final int VERSION = 1;
+    protected static final int BLOCK_SIZE = 16;
+
+    /** 并行执行使用的线程池 */
+    private final ForkJoinPool pool;
+    /** 分段大小，必须为16的整数倍 */
+    private final int segmentSize;
+    /** 线程本地加密器 */
+    private final ThreadLocal<Cipher> localCipher = ThreadLocal.withInitial(AesBulkCipher::createCipher);
+
+    /**
+     * 构造方法，使用公共线程池和默认分段大小
+     */
+    public AesBulkCipher() {
+        this(ForkJoinPool.commonPool(), DEFAULT_SEGMENT_SIZE);
+    }
+
+    /**
+     * 构造方法
+     *
+     * @param pool        并行执行使用的线程池
+     * @param segmentSize 分段大小，单位为字节，必须为16的整数倍
+     */
+    public AesBulkCipher(ForkJoinPool pool, int segmentSize) {
+        if (segmentSize <= 0 || segmentSize % BLOCK_SIZE != 0) {
+            throw new IllegalArgumentException("分段大小必须为16的正整数倍");
+        }
+        this.pool = pool;
+        this.segmentSize = segmentSize;
+    }
+
+    public ForkJoinPool getPool() {
+        return pool;
+    }
+
+    public int getSegmentSize() {
+        return segmentSize;
+    }
+
+    /**
+     * 加密
+     *
+     * @param source    源数据
+     * @param secretKey 密钥
+     * @return 头部和密文
+     */
+    public byte[] encrypt(byte[] source, byte[] secretKey) {
+        byte[] header = newHeader(source.length);
+        byte[] result = new byte[HEADER_LENGTH + source.length];
+        System.arraycopy(header, 0, result, 0, HEADER_LENGTH);
+        Header parsed = Header.parse(header);
+        SecretKey key = new SecretKeySpec(secretKey, AesUtils.ALGORITHM_NAME);
+        pool.invoke(new ArrayTask(Cipher.ENCRYPT_MODE, key, parsed, source, 0, result, HEADER_LENGTH,
+                0, parsed.getSegmentCount()));
+        return result;
+    }
+
+    /**
+     * 解密
+     *
+     * @param source    头部和密文
+     * @param secretKey 密钥
+     * @return 解密后的数据
+     */
+    public byte[] decrypt(byte[] source, byte[] secretKey) {
+        Header header = Header.parse(source, source.length);
+        byte[] result = new byte[(int) header.length];
+        SecretKey key = new SecretKeySpec(secretKey, AesUtils.ALGORITHM_NAME);
+        pool.invoke(new ArrayTask(Cipher.DECRYPT_MODE, key, header, source, HEADER_LENGTH, result, 0,
+                0, header.getSegmentCount()));
+        return result;
+    }
+
+    /**
+     * 只解密单个分段
+     *
+     * @param source       头部和密文
+     * @param segmentIndex 分段序号，从0开始
+     * @param secretKey    密钥
+     * @return 该分段的明文
+     */
+    public byte[] decryptSegment(byte[] source, int segmentIndex, byte[] secretKey) {
+        Header header = Header.parse(source, source.length);
+        checkSegmentIndex(header, segmentIndex);
+        long offset = (long) segmentIndex * header.segmentSize;
+        byte[] result = new byte[header.getSegmentLength(segmentIndex)];
+        crypt(Cipher.DECRYPT_MODE, new SecretKeySpec(secretKey, AesUtils.ALGORITHM_NAME), header, offset,
+                ByteBuffer.wrap(source, HEADER_LENGTH + (int) offset, result.length), ByteBuffer.wrap(result));
+        return result;
+    }
+
+    /**
+     * 加密文件，源文件和目标文件均使用内存映射按分段并行处理，返回前已将加密文件的内容同步至存储设备
+     *
+     * @param source    源文件
+     * @param target    加密文件，已存在时覆盖
+     * @param secretKey 密钥
+     * @throws IOException 读写文件失败时抛出
+     */
+    public void encrypt(Path source, Path target, byte[] secretKey) throws IOException {
+        try (FileChannel sourceChannel = FileChannel.open(source, StandardOpenOption.READ);
+             FileChannel targetChannel = FileChannel.open(target, StandardOpenOption.CREATE,
+                     StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            byte[] header = newHeader(sourceChannel.size());
+            targetChannel.write(ByteBuffer.wrap(header), 0);
+            allocate(targetChannel, HEADER_LENGTH + sourceChannel.size());
+            Header parsed = Header.parse(header);
+            SecretKey key = new SecretKeySpec(secretKey, AesUtils.ALGORITHM_NAME);
+            invoke(new FileTask(Cipher.ENCRYPT_MODE, key, parsed, sourceChannel, 0, targetChannel, HEADER_LENGTH,
+                    0, parsed.getSegmentCount()));
+            targetChannel.force(true);
+        }
+    }
+
+    /**
+     * 解密文件，源文件和目标文件均使用内存映射按分段并行处理，返回前已将解密文件的内容同步至存储设备
+     *
+     * @param source    加密文件
+     * @param target    解密文件，已存在时覆盖
+     * @param secretKey 密钥
+     * @throws IOException 读写文件失败时抛出
+     */
+    public void decrypt(Path source, Path target, byte[] secretKey) throws IOException {
+        try (FileChannel sourceChannel = FileChannel.open(source, StandardOpenOption.READ);
+             FileChannel targetChannel = FileChannel.open(target, StandardOpenOption.CREATE,
+                     StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            Header header = readHeader(sourceChannel);
+            allocate(targetChannel, header.length);
+            SecretKey key = new SecretKeySpec(secretKey, AesUtils.ALGORITHM_NAME);
+            invoke(new FileTask(Cipher.DECRYPT_MODE, key, header, sourceChannel, HEADER_LENGTH, targetChannel, 0,
+                    0, header.getSegmentCount()));
+            targetChannel.force(true);
+        }
+    }
+
+    /**
+     * 只解密加密文件中的单个分段
+     *
+     * @param source       加密文件
+     * @param segmentIndex 分段序号，从0开始
+     * @param secretKey    密钥
+     * @return 该分段的明文
+     * @throws IOException 读取文件失败时抛出
+     */
+    public byte[] decryptSegment(Path source, long segmentIndex, byte[] secretKey) throws IOException {
+        try (FileChannel channel = FileChannel.open(source, StandardOpenOption.READ)) {
+            Header header = readHeader(channel);
+            checkSegmentIndex(header, segmentIndex);
+            long offset = segmentIndex * header.segmentSize;
+            int length = header.getSegmentLength(segmentIndex);
+            ByteBuffer input = channel.map(FileChannel.MapMode.READ_ONLY, HEADER_LENGTH + offset, length);
+            byte[] result = new byte[length];
+            crypt(Cipher.DECRYPT_MODE, new SecretKeySpec(secretKey, AesUtils.ALGORITHM_NAME), header, offset,
+                    input, ByteBuffer.wrap(result));
+            return result;
+        }
+    }
+
+    private byte[] newHeader(long length) {
+        byte[] header = new byte[HEADER_LENGTH];
+        header[0] = VERSION;
+        AesUtils.writeInt(header, 1, segmentSize);
+        AesUtils.writeInt(header, 5, (int) (length >>> 32));
+        AesUtils.writeInt(header, 9, (int) length);
+        byte[] counter = new byte[BLOCK_SIZE];
+        AesUtils.SECURE_RANDOM.nextBytes(counter);
+        System.arraycopy(counter, 0, header, 13, BLOCK_SIZE);
+        return header;
+    }
+
+    private void invoke(RecursiveAction task) throws IOException {
+        try {
+            pool.invoke(task);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * 预先扩展目标文件长度，避免各分段映射时并发扩展文件
+     */
+    private static void allocate(FileChannel channel, long size) throws IOException {
+        if (size > channel.size()) {
+            channel.write(ByteBuffer.wrap(new byte[1]), size - 1);
+        }
+    }
+
+    private static Header readHeader(FileChannel channel) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_LENGTH);
+        while (buffer.hasRemaining() && channel.read(buffer, buffer.position()) >= 0) {
+            // 读满头部
+        }
+        return Header.parse(buffer.array(), channel.size());
+    }
+
+    private static void checkSegmentIndex(Header header, long segmentIndex) {
+        if (segmentIndex < 0 || segmentIndex >= header.getSegmentCount()) {
+            throw new IndexOutOfBoundsException("分段序号超出范围：" + segmentIndex);
+        }
+    }
+
+    private static Cipher createCipher() {
+        try {
+            return CipherProviderSelector.getDefault().getCipher(TRANSFORMATION);
+        } catch (NoSuchAlgorithmException | NoSuchPaddingException e) {
+            throw new RuntimeException("AES加密算法在当前环境下不可用", e);
+        }
+    }
+
+    /**
+     * 加密或解密从明文偏移量offset处开始的一段数据
+     */
+    private void crypt(int mode, SecretKey key, Header header, long offset, ByteBuffer input, ByteBuffer output) {
+        Cipher cipher = localCipher.get();
+        try {
+            cipher.init(mode, key, new IvParameterSpec(header.counterAt(offset / BLOCK_SIZE)));
+            cipher.doFinal(input, output);
+        } catch (GeneralSecurityException e) {
+            throw new RuntimeException(mode == Cipher.ENCRYPT_MODE ? "AES加密失败" : "AES解密失败", e);
+        }
+    }
+
+    private static final class Header {
+        private final int segmentSize;
+        private final long length;
+        private final byte[] counter;
+
+        private Header(int segmentSize, long length, byte[] counter) {
+            this.segmentSize = segmentSize;
+            this.length = length;
+            this.counter = counter;
+        }
+
+        static Header parse(byte[] header) {
+            return parse(header, HEADER_LENGTH + (((long) AesUtils.readInt(header, 5)) << 32
+                    | (AesUtils.readInt(header, 9) & 0xFFFFFFFFL)));
+        }
+
+        /**
+         * 解析并校验头部
+         *
+         * @param totalLength 头部与密文的总长度
+         */
+        static Header parse(byte[] header, long totalLength) {
+            if (header.length < HEADER_LENGTH || header[0] != VERSION) {
+                throw new RuntimeException("AES解密失败，数据格式错误");
+            }
+            int segmentSize = AesUtils.readInt(header, 1);
+            long length = ((long) AesUtils.readInt(header, 5)) << 32 | (AesUtils.readInt(header, 9) & 0xFFFFFFFFL);
+            if (segmentSize <= 0 || segmentSize % BLOCK_SIZE != 0 || length != totalLength - HEADER_LENGTH) {
+                throw new RuntimeException("AES解密失败，数据格式错误");
+            }
+            byte[] counter = new byte[BLOCK_SIZE];
+            System.arraycopy(header, 13, counter, 0, BLOCK_SIZE);
+            return new Header(segmentSize, length, counter);
+        }
+
+        long getSegmentCount() {
+            return (length + segmentSize - 1) / segmentSize;
+        }
+
+        int getSegmentLength(long segmentIndex) {
+            return (int) Math.min(segmentSize, length - segmentIndex * segmentSize);
+        }
+
+        /**
+         * 计算第blockIndex个分组的计数器，即初始计数器按128位无符号整数加上blockIndex
+         */
+        byte[] counterAt(long blockIndex) {
+            byte[] result = counter.clone();
+            long carry = blockIndex;
+            for (int i = BLOCK_SIZE - 1; i >= 0 && carry != 0; i--) {
+                long sum = (result[i] & 0xFF) + (carry & 0xFF);
+                result[i] = (byte) sum;
+                carry = (carry >>> 8) + (sum >>> 8);
+            }
+            return result;
+        }
+    }
+
+    /**
+     * 字节数组分段任务，将[from, to)范围内的分段二分后并行处理
+     */
+    private final class ArrayTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final int mode;
+        private final SecretKey key;
+        private final Header header;
+        private final byte[] input;
+        private final int inputOffset;
+        private final byte[] output;
+        private final int outputOffset;
+        private final long from;
+        private final long to;
+
+        ArrayTask(int mode, SecretKey key, Header header, byte[] input, int inputOffset,
+                  byte[] output, int outputOffset, long from, long to) {
+            this.mode = mode;
+            this.key = key;
+            this.header = header;
+            this.input = input;
+            this.inputOffset = inputOffset;
+            this.output = output;
+            this.outputOffset = outputOffset;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > 1) {
+                long middle = (from + to) >>> 1;
+                invokeAll(new ArrayTask(mode, key, header, input, inputOffset, output, outputOffset, from, middle),
+                        new ArrayTask(mode, key, header, input, inputOffset, output, outputOffset, middle, to));
+                return;
+            }
+            if (from == to) {
+                return;
+            }
+            int offset = (int) (from * header.segmentSize);
+            int length = header.getSegmentLength(from);
+            crypt(mode, key, header, offset, ByteBuffer.wrap(input, inputOffset + offset, length),
+                    ByteBuffer.wrap(output, outputOffset + offset, length));
+        }
+    }
+
+    /**
+     * 文件分段任务，每个分段单独映射源文件和目标文件的对应区域
+     */
+    private final class FileTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final int mode;
+        private final SecretKey key;
+        private final Header header;
+        private final FileChannel input;
+        private final long inputOffset;
+        private final FileChannel output;
+        private final long outputOffset;
+        private final long from;
+        private final long to;
+
+        FileTask(int mode, SecretKey key, Header header, FileChannel input, long inputOffset,
+                 FileChannel output, long outputOffset, long from, long to) {
+            this.mode = mode;
+            this.key = key;
+            this.header = header;
+            this.input = input;
+            this.inputOffset = inputOffset;
+            this.output = output;
+            this.outputOffset = outputOffset;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > 1) {
+                long middle = (from + to) >>> 1;
+                invokeAll(new FileTask(mode, key, header, input, inputOffset, output, outputOffset, from, middle),
+                        new FileTask(mode, key, header, input, inputOffset, output, outputOffset, middle, to));
+                return;
+            }
+            if (from == to) {
+                return;
+            }
+            long offset = from * header.segmentSize;
+            int length = header.getSegmentLength(from);
+            try {
+                MappedByteBuffer source = input.map(FileChannel.MapMode.READ_ONLY, inputOffset + offset, length);
+                MappedByteBuffer target = output.map(FileChannel.MapMode.READ_WRITE, outputOffset + offset, length);
+                crypt(mode, key, header, offset, source, target);
+                target.force();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+}
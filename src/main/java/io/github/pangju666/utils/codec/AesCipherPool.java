@@ -0,0 +1,217 @@
+package io.github.pangju666.utils.codec;
+
+import javax.crypto.*;
+import javax.crypto.spec.SecretKeySpec;
+import java.security.InvalidKeyException;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * AES加密器池
+ * <p>
+ * 每个线程持有独立的{@link Cipher}缓存，按密钥和加密模式缓存已初始化的加密器，
+ * 稳定状态下加解密不再执行提供者查找，也不再重复创建{@link SecretKeySpec}。
+ * 适用于不需要初始向量的转换(如默认的{@code AES}，即{@code AES/ECB/PKCS5Padding})
+ * <pre>
+ * 如：
+ * AesCipherPool pool = AesCipherPool.getDefault();
+ * byte[] encrypted = pool.encrypt(source, secretKey);
+ * byte[] decrypted = pool.decrypt(encrypted, secretKey);
+ * </pre>
+ *
+ * @author 胖橘
+ * @version 1.0
+ * @since 1.0
+ */
+public class AesCipherPool {
+    /** 默认转换 */
+    public static final String DEFAULT_TRANSFORMATION = AesUtils.ALGORITHM_NAME;
+    /** 每个线程默认缓存的密钥数量 */
+    public static final int DEFAULT_MAX_KEYS_PER_THREAD = 16;
+
+    private static final AesCipherPool DEFAULT_POOL = new AesCipherPool(DEFAULT_TRANSFORMATION);
+
+    /** 加密转换，如：AES/ECB/PKCS5Padding */
+    private final String transformation;
+    /** 每个线程缓存的密钥数量上限 */
+    private final int maxKeysPerThread;
+    /** 线程本地加密器缓存 */
+    private final ThreadLocal<CipherCache> localCache;
+
+    /**
+     * 构造方法
+     *
+     * @param transformation 加密转换，如：AES/ECB/PKCS5Padding
+     */
+    public AesCipherPool(String transformation) {
+        this(transformation, DEFAULT_MAX_KEYS_PER_THREAD);
+    }
+
+    /**
+     * 构造方法
+     *
+     * @param transformation   加密转换，如：AES/ECB/PKCS5Padding
+     * @param maxKeysPerThread 每个线程缓存的密钥数量上限
+     */
+    public AesCipherPool(String transformation, int maxKeysPerThread) {
+        if (maxKeysPerThread < 1) {
+            throw new IllegalArgumentException("每个线程缓存的密钥数量必须大于0");
+        }
+        this.transformation = transformation;
+        this.maxKeysPerThread = maxKeysPerThread;
+        this.localCache = ThreadLocal.withInitial(CipherCache::new);
+    }
+
+    /**
+     * 获取默认加密器池，{@link AesUtils}内部使用该池
+     *
+     * @return 默认加密器池
+     */
+    public static AesCipherPool getDefault() {
+        return DEFAULT_POOL;
+    }
+
+    public String getTransformation() {
+        return transformation;
+    }
+
+    public int getMaxKeysPerThread() {
+        return maxKeysPerThread;
+    }
+
+    /**
+     * 加密
+     *
+     * @param source    源数据
+     * @param secretKey 密钥
+     * @return 加密后的数据
+     */
+    public byte[] encrypt(byte[] source, byte[] secretKey) {
+        return doFinal(Cipher.ENCRYPT_MODE, source, secretKey, "AES加密失败");
+    }
+
+    /**
+     * 解密
+     *
+     * @param source    源数据
+     * @param secretKey 密钥
+     * @return 解密后的数据
+     */
+    public byte[] decrypt(byte[] source, byte[] secretKey) {
+        return doFinal(Cipher.DECRYPT_MODE, source, secretKey, "AES解密失败");
+    }
+
+    /**
+     * 获取当前线程绑定的已初始化加密器
+     * <p>
+     * 返回的加密器只能在当前线程内使用，且每次使用都必须以{@code doFinal}结束，以便恢复到初始化后的状态
+     *
+     * @param mode      加密模式，如：{@link Cipher#ENCRYPT_MODE}
+     * @param secretKey 密钥
+     * @return 已初始化的加密器
+     */
+    public Cipher getCipher(int mode, byte[] secretKey) {
+        return localCache.get().get(mode, secretKey);
+    }
+
+    /**
+     * 清空当前线程的加密器缓存
+     */
+    public void clear() {
+        localCache.remove();
+    }
+
+    private byte[] doFinal(int mode, byte[] source, byte[] secretKey, String errorMessage) {
+        CipherCache cache = localCache.get();
+        Cipher cipher = cache.get(mode, secretKey);
+        try {
+            return cipher.doFinal(source);
+        } catch (IllegalBlockSizeException | BadPaddingException e) {
+            // 加密器状态不确定，移出缓存
+            cache.evict(mode, secretKey);
+            throw new RuntimeException(errorMessage, e);
+        }
+    }
+
+    private Cipher createCipher(int mode, byte[] secretKey) {
+        try {
+            Cipher cipher = CipherProviderSelector.getDefault().getCipher(transformation);
+            cipher.init(mode, new SecretKeySpec(secretKey, AesUtils.ALGORITHM_NAME));
+            return cipher;
+        } catch (NoSuchAlgorithmException | NoSuchPaddingException e) {
+            throw new RuntimeException("AES加密算法在当前环境下不可用", e);
+        } catch (InvalidKeyException e) {
+            throw new RuntimeException(mode == Cipher.DECRYPT_MODE ? "AES解密失败" : "AES加密失败", e);
+        }
+    }
+
+    /**
+     * 单个线程的加密器缓存，最近使用的条目按模式单独保存，命中时不产生任何对象分配
+     */
+    private class CipherCache {
+        /** 按模式保存的最近使用条目，下标为模式值减一 */
+        private final CacheEntry[] lastEntries = new CacheEntry[4];
+        private final Map<CacheEntry, CacheEntry> entries = new LinkedHashMap<CacheEntry, CacheEntry>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<CacheEntry, CacheEntry> eldest) {
+                return size() > maxKeysPerThread;
+            }
+        };
+
+        Cipher get(int mode, byte[] secretKey) {
+            if (mode < Cipher.ENCRYPT_MODE || mode > Cipher.UNWRAP_MODE) {
+                throw new IllegalArgumentException("不支持的加密模式：" + mode);
+            }
+            CacheEntry last = lastEntries[mode - 1];
+            if (last != null && Arrays.equals(last.secretKey, secretKey)) {
+                return last.cipher;
+            }
+            CacheEntry probe = new CacheEntry(mode, secretKey, null);
+            CacheEntry entry = entries.get(probe);
+            if (entry == null) {
+                entry = new CacheEntry(mode, secretKey.clone(), createCipher(mode, secretKey));
+                entries.put(entry, entry);
+            }
+            lastEntries[mode - 1] = entry;
+            return entry.cipher;
+        }
+
+        void evict(int mode, byte[] secretKey) {
+            lastEntries[mode - 1] = null;
+            entries.remove(new CacheEntry(mode, secretKey, null));
+        }
+    }
+
+    private static final class CacheEntry {
+        private final int mode;
+        private final byte[] secretKey;
+        private final Cipher cipher;
+        private final int hash;
+
+        CacheEntry(int mode, byte[] secretKey, Cipher cipher) {
+            this.mode = mode;
+            this.secretKey = secretKey;
+            this.cipher = cipher;
+            this.hash = 31 * mode + Arrays.hashCode(secretKey);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof CacheEntry)) {
+                return false;
+            }
+            CacheEntry that = (CacheEntry) o;
+            return mode == that.mode && Arrays.equals(secretKey, that.secretKey);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
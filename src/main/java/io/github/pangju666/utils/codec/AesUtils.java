@@ -1,14 +1,34 @@
 package io.github.pangju666.utils.codec;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
 import java.nio.charset.StandardCharsets;
-import java.security.InvalidKeyException;
+import java.security.GeneralSecurityException;
 import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.util.Arrays;
 
 import javax.crypto.*;
+import javax.crypto.spec.GCMParameterSpec;
 import javax.crypto.spec.SecretKeySpec;
 
 /**
  * AES加密工具类
+ * <p>
+ * 字节数组加解密使用{@link AesCipherPool#getDefault()}缓存的加密器；
+ * 流加解密使用AES/GCM分块加密，内存占用只与分块大小有关，与数据大小无关
+ * <p>
+ * 流加密数据格式：
+ * <pre>
+ * 头部：版本(1字节) | 分块大小(4字节) | 随机盐(16字节) | 随机初始向量前缀(7字节)
+ * 分块：密文(不超过分块大小) | 认证标签(16字节)
+ * </pre>
+ * 每个数据流使用HKDF-SHA256从密钥和随机盐派生独立的子密钥，同一密钥可以加密的数据流数量不受96位初始向量的碰撞概率限制。
+ * 每个分块的初始向量由前缀、分块序号(4字节)和末尾块标识(1字节)组成，头部作为附加认证数据，
+ * 因此分块被篡改、重排或截断时都会解密失败
  *
  * @author 胖橘
  * @version 1.0
@@ -16,6 +36,21 @@ import javax.crypto.spec.SecretKeySpec;
  */
 public class AesUtils {
     protected static final String ALGORITHM_NAME = "AES";
+    protected static final String STREAM_TRANSFORMATION = "AES/GCM/NoPadding";
+    protected static final int STREAM_VERSION = 2;
+    protected static final int STREAM_TAG_LENGTH = 16;
+    protected static final int STREAM_SALT_LENGTH = 16;
+    protected static final int STREAM_NONCE_PREFIX_LENGTH = 7;
+    protected static final int STREAM_SALT_OFFSET = 1 + 4;
+    protected static final int STREAM_NONCE_PREFIX_OFFSET = STREAM_SALT_OFFSET + STREAM_SALT_LENGTH;
+    protected static final int STREAM_HEADER_LENGTH = STREAM_NONCE_PREFIX_OFFSET + STREAM_NONCE_PREFIX_LENGTH;
+    protected static final int STREAM_MAX_CHUNK_SIZE = 64 * 1024 * 1024;
+    protected static final String STREAM_KDF_ALGORITHM = "HmacSHA256";
+    protected static final byte[] STREAM_KDF_INFO = "pangju666-aes-gcm-stream".getBytes(StandardCharsets.US_ASCII);
+    protected static final SecureRandom SECURE_RANDOM = new SecureRandom();
+
+    /** 流加密默认分块大小 */
+    public static final int DEFAULT_STREAM_CHUNK_SIZE = 64 * 1024;
 
     protected AesUtils() {
     }
@@ -54,16 +89,7 @@ public class AesUtils {
      * @return 加密后的数据
      */
     public static byte[] encrypt(byte[] source, byte[] secretKey) {
-        try {
-            SecretKey key = new SecretKeySpec(secretKey, ALGORITHM_NAME);
-            Cipher cipher = Cipher.getInstance(ALGORITHM_NAME);
-            cipher.init(Cipher.ENCRYPT_MODE, key);
-            return cipher.doFinal(source);
-        } catch (NoSuchAlgorithmException | NoSuchPaddingException e) {
-            throw new RuntimeException("AES加密算法在当前环境下不可用", e);
-        } catch (InvalidKeyException | IllegalBlockSizeException | BadPaddingException e) {
-            throw new RuntimeException("AES加密失败", e);
-        }
+        return AesCipherPool.getDefault().encrypt(source, secretKey);
     }
 
     /**
@@ -85,16 +111,7 @@ public class AesUtils {
      * @return 解密后的数据
      */
     public static byte[] decrypt(byte[] source, byte[] secretKey) {
-        try {
-            SecretKey key = new SecretKeySpec(secretKey, ALGORITHM_NAME);
-            Cipher cipher = Cipher.getInstance(ALGORITHM_NAME);
-            cipher.init(Cipher.DECRYPT_MODE, key);
-            return cipher.doFinal(source);
-        } catch (NoSuchAlgorithmException | NoSuchPaddingException e) {
-            throw new RuntimeException("AES加密算法在当前环境下不可用", e);
-        } catch (InvalidKeyException | IllegalBlockSizeException | BadPaddingException e) {
-            throw new RuntimeException("AES解密失败", e);
-        }
+        return AesCipherPool.getDefault().decrypt(source, secretKey);
     }
 
     /**
@@ -107,4 +124,280 @@ public class AesUtils {
     public static byte[] decrypt(String source, byte[] secretKey) {
         return decrypt(source.getBytes(), secretKey);
     }
+
+    /**
+     * 流加密，使用默认分块大小
+     * <p>
+     * 不会关闭输入流和输出流
+     *
+     * @param inputStream 源数据输入流
+     * @param outputStream 加密数据输出流
+     * @param secretKey 密钥
+     * @throws IOException 读写流失败时抛出
+     */
+    public static void encrypt(InputStream inputStream, OutputStream outputStream, byte[] secretKey)
+            throws IOException {
+        encrypt(inputStream, outputStream, secretKey, DEFAULT_STREAM_CHUNK_SIZE);
+    }
+
+    /**
+     * 流加密
+     * <p>
+     * 不会关闭输入流和输出流
+     *
+     * @param inputStream 源数据输入流
+     * @param outputStream 加密数据输出流
+     * @param secretKey 密钥
+     * @param chunkSize 分块大小，单位为字节
+     * @throws IOException 读写流失败时抛出
+     */
+    public static void encrypt(InputStream inputStream, OutputStream outputStream, byte[] secretKey,
+                               int chunkSize) throws IOException {
+        if (chunkSize <= 0 || chunkSize > STREAM_MAX_CHUNK_SIZE) {
+            throw new IllegalArgumentException("分块大小必须在1至" + STREAM_MAX_CHUNK_SIZE + "之间");
+        }
+        byte[] header = new byte[STREAM_HEADER_LENGTH];
+        header[0] = STREAM_VERSION;
+        writeInt(header, 1, chunkSize);
+        byte[] random = new byte[STREAM_SALT_LENGTH + STREAM_NONCE_PREFIX_LENGTH];
+        SECURE_RANDOM.nextBytes(random);
+        System.arraycopy(random, 0, header, STREAM_SALT_OFFSET, random.length);
+        outputStream.write(header);
+
+        Cipher cipher = getStreamCipher();
+        SecretKey key = deriveStreamKey(secretKey, header);
+        byte[] current = new byte[chunkSize];
+        byte[] next = new byte[chunkSize];
+        byte[] output = new byte[chunkSize + STREAM_TAG_LENGTH];
+        int currentLength = readFully(inputStream, current);
+        int index = 0;
+        while (true) {
+            // 预读下一块，以确定当前块是否为末尾块
+            int nextLength = currentLength < chunkSize ? 0 : readFully(inputStream, next);
+            boolean last = nextLength == 0;
+            int length = cryptChunk(cipher, Cipher.ENCRYPT_MODE, key, header, index, last,
+                    current, currentLength, output, "AES加密失败");
+            outputStream.write(output, 0, length);
+            if (last) {
+                break;
+            }
+            byte[] temp = current;
+            current = next;
+            next = temp;
+            currentLength = nextLength;
+            if (++index == 0) {
+                throw new RuntimeException("AES加密失败，数据分块数量超出上限");
+            }
+        }
+        outputStream.flush();
+    }
+
+    /**
+     * 文件通道加密，从源通道当前位置读取至末尾，写入目标通道当前位置
+     * <p>
+     * 不会关闭文件通道
+     *
+     * @param source 源文件通道
+     * @param target 加密数据目标文件通道
+     * @param secretKey 密钥
+     * @throws IOException 读写文件失败时抛出
+     */
+    public static void encrypt(FileChannel source, FileChannel target, byte[] secretKey) throws IOException {
+        encrypt(Channels.newInputStream(source), Channels.newOutputStream(target), secretKey);
+    }
+
+    /**
+     * 流解密，数据须由{@link #encrypt(InputStream, OutputStream, byte[], int)}加密
+     * <p>
+     * 分块解密后立即写出，若中途认证失败则抛出异常，此时已写出的数据应当丢弃。不会关闭输入流和输出流
+     *
+     * @param inputStream 加密数据输入流
+     * @param outputStream 解密数据输出流
+     * @param secretKey 密钥
+     * @throws IOException 读写流失败时抛出
+     */
+    public static void decrypt(InputStream inputStream, OutputStream outputStream, byte[] secretKey)
+            throws IOException {
+        decrypt(inputStream, outputStream, secretKey, STREAM_MAX_CHUNK_SIZE);
+    }
+
+    /**
+     * 流解密，数据须由{@link #encrypt(InputStream, OutputStream, byte[], int)}加密
+     * <p>
+     * 头部中的分块大小在认证前无法校验，因此缓冲区按实际读取的数据逐步扩大，不会按头部声明的大小直接分配；
+     * 已知加密时使用的分块大小时可以通过maxChunkSize拒绝更大的声明值。
+     * 分块解密后立即写出，若中途认证失败则抛出异常，此时已写出的数据应当丢弃。不会关闭输入流和输出流
+     *
+     * @param inputStream 加密数据输入流
+     * @param outputStream 解密数据输出流
+     * @param secretKey 密钥
+     * @param maxChunkSize 允许的最大分块大小，单位为字节
+     * @throws IOException 读写流失败时抛出
+     */
+    public static void decrypt(InputStream inputStream, OutputStream outputStream, byte[] secretKey,
+                               int maxChunkSize) throws IOException {
+        byte[] header = new byte[STREAM_HEADER_LENGTH];
+        if (readFully(inputStream, header) != STREAM_HEADER_LENGTH || header[0] != STREAM_VERSION) {
+            throw new RuntimeException("AES解密失败，数据格式错误");
+        }
+        int chunkSize = readInt(header, 1);
+        if (chunkSize <= 0 || chunkSize > Math.min(maxChunkSize, STREAM_MAX_CHUNK_SIZE)) {
+            throw new RuntimeException("AES解密失败，数据格式错误");
+        }
+
+        Cipher cipher = getStreamCipher();
+        SecretKey key = deriveStreamKey(secretKey, header);
+        int frameSize = chunkSize + STREAM_TAG_LENGTH;
+        int initialSize = Math.min(frameSize, DEFAULT_STREAM_CHUNK_SIZE + STREAM_TAG_LENGTH);
+        FrameBuffer current = new FrameBuffer(initialSize);
+        FrameBuffer next = new FrameBuffer(initialSize);
+        byte[] output = new byte[initialSize];
+        current.read(inputStream, frameSize);
+        int index = 0;
+        while (true) {
+            int nextLength = current.length < frameSize ? 0 : next.read(inputStream, frameSize);
+            boolean last = nextLength == 0;
+            if (output.length < current.length) {
+                output = new byte[current.data.length];
+            }
+            int length = cryptChunk(cipher, Cipher.DECRYPT_MODE, key, header, index, last,
+                    current.data, current.length, output, "AES解密失败");
+            outputStream.write(output, 0, length);
+            if (last) {
+                break;
+            }
+            FrameBuffer temp = current;
+            current = next;
+            next = temp;
+            if (++index == 0) {
+                throw new RuntimeException("AES解密失败，数据格式错误");
+            }
+        }
+        outputStream.flush();
+    }
+
+    /**
+     * 文件通道解密，从源通道当前位置读取至末尾，写入目标通道当前位置
+     * <p>
+     * 不会关闭文件通道
+     *
+     * @param source 加密数据源文件通道
+     * @param target 解密数据目标文件通道
+     * @param secretKey 密钥
+     * @throws IOException 读写文件失败时抛出
+     */
+    public static void decrypt(FileChannel source, FileChannel target, byte[] secretKey) throws IOException {
+        decrypt(Channels.newInputStream(source), Channels.newOutputStream(target), secretKey);
+    }
+
+    protected static Cipher getStreamCipher() {
+        try {
+            return CipherProviderSelector.getDefault().getCipher(STREAM_TRANSFORMATION);
+        } catch (NoSuchAlgorithmException | NoSuchPaddingException e) {
+            throw new RuntimeException("AES加密算法在当前环境下不可用", e);
+        }
+    }
+
+    /**
+     * 使用HKDF-SHA256(RFC 5869)从密钥和头部中的随机盐派生数据流的子密钥，子密钥长度与密钥相同
+     */
+    protected static SecretKey deriveStreamKey(byte[] secretKey, byte[] header) {
+        if (secretKey.length > 32) {
+            throw new IllegalArgumentException("AES密钥长度不能超过32字节");
+        }
+        try {
+            Mac mac = Mac.getInstance(STREAM_KDF_ALGORITHM);
+            mac.init(new SecretKeySpec(header, STREAM_SALT_OFFSET, STREAM_SALT_LENGTH, STREAM_KDF_ALGORITHM));
+            byte[] pseudoRandomKey = mac.doFinal(secretKey);
+            mac.init(new SecretKeySpec(pseudoRandomKey, STREAM_KDF_ALGORITHM));
+            mac.update(STREAM_KDF_INFO);
+            mac.update((byte) 1);
+            byte[] output = mac.doFinal();
+            return new SecretKeySpec(output, 0, secretKey.length, ALGORITHM_NAME);
+        } catch (GeneralSecurityException e) {
+            throw new RuntimeException("AES密钥派生失败", e);
+        }
+    }
+
+    /**
+     * 加密或解密单个分块
+     *
+     * @return 输出数据长度
+     */
+    protected static int cryptChunk(Cipher cipher, int mode, SecretKey key, byte[] header, int index,
+                                    boolean last, byte[] input, int inputLength, byte[] output,
+                                    String errorMessage) {
+        byte[] iv = new byte[12];
+        System.arraycopy(header, STREAM_NONCE_PREFIX_OFFSET, iv, 0, STREAM_NONCE_PREFIX_LENGTH);
+        writeInt(iv, STREAM_NONCE_PREFIX_LENGTH, index);
+        iv[11] = (byte) (last ? 1 : 0);
+        try {
+            cipher.init(mode, key, new GCMParameterSpec(STREAM_TAG_LENGTH * 8, iv));
+            cipher.updateAAD(header);
+            return cipher.doFinal(input, 0, inputLength, output, 0);
+        } catch (GeneralSecurityException e) {
+            throw new RuntimeException(errorMessage, e);
+        }
+    }
+
+    /**
+     * 尽可能读满缓冲区
+     *
+     * @return 实际读取的字节数，小于缓冲区长度时表示已读取至流末尾
+     */
+    protected static int readFully(InputStream inputStream, byte[] buffer) throws IOException {
+        int total = 0;
+        while (total < buffer.length) {
+            int count = inputStream.read(buffer, total, buffer.length - total);
+            if (count < 0) {
+                break;
+            }
+            total += count;
+        }
+        return total;
+    }
+
+    /**
+     * 解密时的分块缓冲区，按实际读取的数据扩大，不超过分块大小
+     */
+    private static final class FrameBuffer {
+        private byte[] data;
+        private int length;
+
+        private FrameBuffer(int initialSize) {
+            this.data = new byte[initialSize];
+        }
+
+        /**
+         * 读取一个分块
+         *
+         * @return 实际读取的字节数，小于分块大小时表示已读取至流末尾
+         */
+        private int read(InputStream inputStream, int frameSize) throws IOException {
+            length = 0;
+            while (length < frameSize) {
+                if (length == data.length) {
+                    data = Arrays.copyOf(data, (int) Math.min((long) data.length * 2, frameSize));
+                }
+                int count = inputStream.read(data, length, data.length - length);
+                if (count < 0) {
+                    break;
+                }
+                length += count;
+            }
+            return length;
+        }
+    }
+
+    protected static void writeInt(byte[] bytes, int offset, int value) {
+        bytes[offset] = (byte) (value >>> 24);
+        bytes[offset + 1] = (byte) (value >>> 16);
+        bytes[offset + 2] = (byte) (value >>> 8);
+        bytes[offset + 3] = (byte) value;
+    }
+
+    protected static int readInt(byte[] bytes, int offset) {
+        return ((bytes[offset] & 0xFF) << 24) | ((bytes[offset + 1] & 0xFF) << 16)
+                | ((bytes[offset + 2] & 0xFF) << 8) | (bytes[offset + 3] & 0xFF);
+    }
 }
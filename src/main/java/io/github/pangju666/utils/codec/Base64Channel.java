@@ -0,0 +1,163 @@
+package io.github.pangju666.utils.codec;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.WritableByteChannel;
+
+/**
+ * Base64流式编解码通道
+ * <p>
+ * 写入本通道的数据经过编码或解码后写入目标通道，内部只使用一个固定大小的缓冲区，内存占用与数据大小无关。
+ * 关闭通道时输出剩余数据并关闭目标通道，只需输出剩余数据时调用{@link #finish()}
+ * <pre>
+ * 如：
+ * try (Base64Channel channel = Base64Channel.newEncoder(Channels.newChannel(outputStream), Base64Engine.MIME)) {
+ *     channel.write(ByteBuffer.wrap(image));
+ * }
+ * </pre>
+ *
+ * @author 胖橘
+ * @version 1.0
+ * @since 1.0
+ */
+public class Base64Channel implements WritableByteChannel {
+    /** 编码时单次处理的源数据长度，为3和57(MIME每行源数据长度)的公倍数 */
+    protected static final int ENCODE_CHUNK_SIZE = 57 * 64;
+    /** 解码时单次处理的源数据长度 */
+    protected static final int DECODE_CHUNK_SIZE = 8 * 1024;
+    protected static final int BUFFER_SIZE = 8 * 1024;
+
+    private final WritableByteChannel target;
+    private final Base64Engine engine;
+    private final boolean encoding;
+    private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+    private final Base64Engine.EncodeState encodeState = new Base64Engine.EncodeState();
+    private final Base64Engine.DecodeState decodeState = new Base64Engine.DecodeState();
+    private boolean open = true;
+
+    protected Base64Channel(WritableByteChannel target, Base64Engine engine, boolean encoding) {
+        this.target = target;
+        this.engine = engine;
+        this.encoding = encoding;
+    }
+
+    /**
+     * 创建编码通道
+     *
+     * @param target 编码结果的目标通道
+     * @param engine 编码引擎
+     * @return 编码通道
+     */
+    public static Base64Channel newEncoder(WritableByteChannel target, Base64Engine engine) {
+        return new Base64Channel(target, engine, true);
+    }
+
+    /**
+     * 创建编码通道
+     *
+     * @param outputStream 编码结果的目标输出流
+     * @param engine       编码引擎
+     * @return 编码通道
+     */
+    public static Base64Channel newEncoder(OutputStream outputStream, Base64Engine engine) {
+        return newEncoder(Channels.newChannel(outputStream), engine);
+    }
+
+    /**
+     * 创建解码通道
+     *
+     * @param target 解码结果的目标通道
+     * @param engine 解码引擎
+     * @return 解码通道
+     */
+    public static Base64Channel newDecoder(WritableByteChannel target, Base64Engine engine) {
+        return new Base64Channel(target, engine, false);
+    }
+
+    /**
+     * 创建解码通道
+     *
+     * @param outputStream 解码结果的目标输出流
+     * @param engine       解码引擎
+     * @return 解码通道
+     */
+    public static Base64Channel newDecoder(OutputStream outputStream, Base64Engine engine) {
+        return newDecoder(Channels.newChannel(outputStream), engine);
+    }
+
+    /**
+     * 编码或解码源缓冲区的全部剩余数据并写入目标通道
+     *
+     * @param source 源数据缓冲区
+     * @return 读取的字节数
+     * @throws IOException 写入目标通道失败时抛出
+     */
+    @Override
+    public int write(ByteBuffer source) throws IOException {
+        if (!open) {
+            throw new ClosedChannelException();
+        }
+        int length = source.remaining();
+        int chunkSize = encoding ? ENCODE_CHUNK_SIZE : DECODE_CHUNK_SIZE;
+        while (source.hasRemaining()) {
+            ByteBuffer chunk = source.duplicate();
+            chunk.limit(chunk.position() + Math.min(chunkSize, chunk.remaining()));
+            if (encoding) {
+                engine.encode(chunk, buffer, encodeState);
+            } else {
+                engine.decode(chunk, buffer, decodeState);
+            }
+            source.position(chunk.position());
+            flushBuffer();
+        }
+        return length;
+    }
+
+    /**
+     * 输出剩余数据(编码时补齐)，不关闭目标通道，调用后不能继续写入
+     *
+     * @throws IOException 写入目标通道失败时抛出
+     */
+    public void finish() throws IOException {
+        if (!open) {
+            return;
+        }
+        if (encoding) {
+            engine.finish(buffer, encodeState);
+        } else {
+            engine.finish(buffer, decodeState);
+        }
+        flushBuffer();
+        open = false;
+    }
+
+    @Override
+    public boolean isOpen() {
+        return open;
+    }
+
+    /**
+     * 输出剩余数据并关闭目标通道
+     *
+     * @throws IOException 写入或关闭目标通道失败时抛出
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            finish();
+        } finally {
+            target.close();
+        }
+    }
+
+    private void flushBuffer() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            target.write(buffer);
+        }
+        buffer.clear();
+    }
+}
@@ -0,0 +1,324 @@
+package io.github.pangju666.utils.codec;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Base64编解码引擎
+ * <p>
+ * 直接编解码至调用方提供的{@code byte[]}或{@link ByteBuffer}(堆缓冲区或直接缓冲区)，不产生中间数组。
+ * 提供标准、URL安全和MIME(每行76个字符，以CRLF分隔)三种变体，编码时均补齐“=”，解码时补齐字符可以省略，
+ * MIME变体解码时忽略字母表以外的字符。流式编解码请使用{@link Base64Channel}
+ * <pre>
+ * 如：
+ * byte[] target = new byte[Base64Engine.STANDARD.encodedLength(source.length)];
+ * Base64Engine.STANDARD.encode(source, 0, source.length, target, 0);
+ * </pre>
+ *
+ * @author 胖橘
+ * @version 1.0
+ * @since 1.0
+ *
+ * @see Base64Utils
+ */
+public final class Base64Engine {
+    private static final byte[] STANDARD_ALPHABET =
+            "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789+/".getBytes();
+    private static final byte[] URL_SAFE_ALPHABET =
+            "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789-_".getBytes();
+    private static final byte PAD = '=';
+    private static final int MIME_LINE_LENGTH = 76;
+
+    /** 标准Base64(RFC 4648) */
+    public static final Base64Engine STANDARD = new Base64Engine(STANDARD_ALPHABET, 0);
+    /** URL安全的Base64(RFC 4648)，使用“-”和“_”代替“+”和“/” */
+    public static final Base64Engine URL_SAFE = new Base64Engine(URL_SAFE_ALPHABET, 0);
+    /** MIME Base64(RFC 2045)，每行76个字符 */
+    public static final Base64Engine MIME = new Base64Engine(STANDARD_ALPHABET, MIME_LINE_LENGTH);
+
+    /** 编码字母表 */
+    private final byte[] alphabet;
+    /** 解码表，非字母表字符为-1 */
+    private final int[] decodeTable;
+    /** 每行字符数，为0时不分行 */
+    private final int lineLength;
+
+    private Base64Engine(byte[] alphabet, int lineLength) {
+        this.alphabet = alphabet;
+        this.lineLength = lineLength;
+        this.decodeTable = new int[256];
+        Arrays.fill(decodeTable, -1);
+        for (int i = 0; i < alphabet.length; i++) {
+            decodeTable[alphabet[i]] = i;
+        }
+    }
+
+    /**
+     * 计算编码后的长度
+     *
+     * @param length 源数据长度
+     * @return 编码后的长度
+     */
+    public int encodedLength(int length) {
+        long chars = (length + 2L) / 3 * 4;
+        if (lineLength > 0 && chars > 0) {
+            chars += (chars - 1) / lineLength * 2;
+        }
+        if (chars > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("源数据过长，编码后的长度超出上限");
+        }
+        return (int) chars;
+    }
+
+    /**
+     * 计算解码后的最大长度
+     *
+     * @param length 编码数据长度
+     * @return 解码后的最大长度
+     */
+    public int maxDecodedLength(int length) {
+        return (int) (length * 3L / 4 + (length % 4 == 0 ? 0 : 2));
+    }
+
+    /**
+     * 编码
+     *
+     * @param source 源数据
+     * @return 编码后的数据
+     */
+    public byte[] encode(byte[] source) {
+        byte[] target = new byte[encodedLength(source.length)];
+        encode(source, 0, source.length, target, 0);
+        return target;
+    }
+
+    /**
+     * 编码至调用方提供的数组
+     *
+     * @param source       源数据
+     * @param offset       源数据起始位置
+     * @param length       源数据长度
+     * @param target       目标数组，剩余空间不能小于{@link #encodedLength(int)}
+     * @param targetOffset 目标数组起始位置
+     * @return 写入的字节数
+     */
+    public int encode(byte[] source, int offset, int length, byte[] target, int targetOffset) {
+        return encode(ByteBuffer.wrap(source, offset, length), ByteBuffer.wrap(target, targetOffset,
+                target.length - targetOffset));
+    }
+
+    /**
+     * 编码源缓冲区的全部剩余数据至目标缓冲区，两个缓冲区的位置均向后移动
+     *
+     * @param source 源数据缓冲区
+     * @param target 目标缓冲区，剩余空间不能小于{@link #encodedLength(int)}
+     * @return 写入的字节数
+     */
+    public int encode(ByteBuffer source, ByteBuffer target) {
+        if (target.remaining() < encodedLength(source.remaining())) {
+            throw new IllegalArgumentException("目标缓冲区空间不足");
+        }
+        int start = target.position();
+        EncodeState state = new EncodeState();
+        encode(source, target, state);
+        finish(target, state);
+        return target.position() - start;
+    }
+
+    /**
+     * 解码
+     *
+     * @param source 编码数据
+     * @return 解码后的数据
+     */
+    public byte[] decode(byte[] source) {
+        byte[] target = new byte[maxDecodedLength(source.length)];
+        int length = decode(source, 0, source.length, target, 0);
+        return length == target.length ? target : Arrays.copyOf(target, length);
+    }
+
+    /**
+     * 解码至调用方提供的数组
+     *
+     * @param source       编码数据
+     * @param offset       编码数据起始位置
+     * @param length       编码数据长度
+     * @param target       目标数组
+     * @param targetOffset 目标数组起始位置
+     * @return 写入的字节数
+     */
+    public int decode(byte[] source, int offset, int length, byte[] target, int targetOffset) {
+        return decode(ByteBuffer.wrap(source, offset, length), ByteBuffer.wrap(target, targetOffset,
+                target.length - targetOffset));
+    }
+
+    /**
+     * 解码源缓冲区的全部剩余数据至目标缓冲区，两个缓冲区的位置均向后移动
+     *
+     * @param source 编码数据缓冲区
+     * @param target 目标缓冲区，空间不足时抛出{@link java.nio.BufferOverflowException}
+     * @return 写入的字节数
+     */
+    public int decode(ByteBuffer source, ByteBuffer target) {
+        int start = target.position();
+        DecodeState state = new DecodeState();
+        decode(source, target, state);
+        finish(target, state);
+        return target.position() - start;
+    }
+
+    /**
+     * 编码源缓冲区的全部剩余数据，不足3字节的部分保留在状态中
+     */
+    void encode(ByteBuffer source, ByteBuffer target, EncodeState state) {
+        while (state.count > 0 && source.hasRemaining()) {
+            state.bits = state.bits << 8 | (source.get() & 0xFF);
+            if (++state.count == 3) {
+                putGroup(target, state, state.bits);
+                state.bits = 0;
+                state.count = 0;
+            }
+        }
+        if (source.hasArray() && target.hasArray()) {
+            encodeArray(source, target, state);
+        }
+        while (source.remaining() >= 3) {
+            putGroup(target, state, (source.get() & 0xFF) << 16 | (source.get() & 0xFF) << 8 | (source.get() & 0xFF));
+        }
+        while (source.hasRemaining()) {
+            state.bits = state.bits << 8 | (source.get() & 0xFF);
+            state.count++;
+        }
+    }
+
+    /**
+     * 输出保留在状态中的剩余数据并补齐
+     */
+    void finish(ByteBuffer target, EncodeState state) {
+        if (state.count == 0) {
+            return;
+        }
+        putLineSeparatorIfNeeded(target, state);
+        int bits = state.bits << (state.count == 1 ? 16 : 8);
+        target.put(alphabet[bits >>> 18 & 0x3F]);
+        target.put(alphabet[bits >>> 12 & 0x3F]);
+        target.put(state.count == 2 ? alphabet[bits >>> 6 & 0x3F] : PAD);
+        target.put(PAD);
+        state.lineChars += 4;
+        state.bits = 0;
+        state.count = 0;
+    }
+
+    /**
+     * 解码源缓冲区的全部剩余数据，不足4个字符的部分保留在状态中
+     */
+    void decode(ByteBuffer source, ByteBuffer target, DecodeState state) {
+        while (source.hasRemaining()) {
+            int c = source.get() & 0xFF;
+            int value = decodeTable[c];
+            if (value >= 0) {
+                if (state.padded) {
+                    throw new IllegalArgumentException("Base64数据格式错误，补齐字符后存在数据");
+                }
+                state.bits = state.bits << 6 | value;
+                if (++state.count == 4) {
+                    target.put((byte) (state.bits >>> 16));
+                    target.put((byte) (state.bits >>> 8));
+                    target.put((byte) state.bits);
+                    state.bits = 0;
+                    state.count = 0;
+                }
+            } else if (c == PAD) {
+                state.padded = true;
+            } else if (lineLength == 0) {
+                throw new IllegalArgumentException("Base64数据格式错误，非法字符：" + (char) c);
+            }
+        }
+    }
+
+    /**
+     * 输出保留在状态中的剩余数据
+     */
+    void finish(ByteBuffer target, DecodeState state) {
+        switch (state.count) {
+            case 0:
+                break;
+            case 2:
+                target.put((byte) (state.bits >>> 4));
+                break;
+            case 3:
+                target.put((byte) (state.bits >>> 10));
+                target.put((byte) (state.bits >>> 2));
+                break;
+            default:
+                throw new IllegalArgumentException("Base64数据格式错误，长度不正确");
+        }
+        state.bits = 0;
+        state.count = 0;
+        state.padded = false;
+    }
+
+    int getLineLength() {
+        return lineLength;
+    }
+
+    private void encodeArray(ByteBuffer source, ByteBuffer target, EncodeState state) {
+        byte[] src = source.array();
+        byte[] dst = target.array();
+        int sp = source.arrayOffset() + source.position();
+        int sl = sp + source.remaining() / 3 * 3;
+        int dp = target.arrayOffset() + target.position();
+        int lineChars = state.lineChars;
+        while (sp < sl) {
+            if (lineLength > 0 && lineChars == lineLength) {
+                dst[dp++] = '\r';
+                dst[dp++] = '\n';
+                lineChars = 0;
+            }
+            int bits = (src[sp++] & 0xFF) << 16 | (src[sp++] & 0xFF) << 8 | (src[sp++] & 0xFF);
+            dst[dp++] = alphabet[bits >>> 18 & 0x3F];
+            dst[dp++] = alphabet[bits >>> 12 & 0x3F];
+            dst[dp++] = alphabet[bits >>> 6 & 0x3F];
+            dst[dp++] = alphabet[bits & 0x3F];
+            lineChars += 4;
+        }
+        state.lineChars = lineChars;
+        source.position(sp - source.arrayOffset());
+        target.position(dp - target.arrayOffset());
+    }
+
+    private void putGroup(ByteBuffer target, EncodeState state, int bits) {
+        putLineSeparatorIfNeeded(target, state);
+        target.put(alphabet[bits >>> 18 & 0x3F]);
+        target.put(alphabet[bits >>> 12 & 0x3F]);
+        target.put(alphabet[bits >>> 6 & 0x3F]);
+        target.put(alphabet[bits & 0x3F]);
+        state.lineChars += 4;
+    }
+
+    private void putLineSeparatorIfNeeded(ByteBuffer target, EncodeState state) {
+        if (lineLength > 0 && state.lineChars == lineLength) {
+            target.put((byte) '\r');
+            target.put((byte) '\n');
+            state.lineChars = 0;
+        }
+    }
+
+    /**
+     * 编码状态，保存不足3字节的剩余数据和当前行已写入的字符数
+     */
+    static final class EncodeState {
+        private int bits;
+        private int count;
+        private int lineChars;
+    }
+
+    /**
+     * 解码状态，保存不足4个字符的剩余数据
+     */
+    static final class DecodeState {
+        private int bits;
+        private int count;
+        private boolean padded;
+    }
+}
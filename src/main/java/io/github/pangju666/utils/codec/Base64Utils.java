@@ -10,6 +10,7 @@ import org.apache.commons.codec.binary.Base64;
  * @since 1.0
  *
  * @see org.apache.commons.codec.binary.Base64
+ * @see Base64Engine
  */
 public class Base64Utils extends Base64 {
     protected Base64Utils() {
@@ -0,0 +1,325 @@
+package io.github.pangju666.utils.codec;
+
+import javax.crypto.Cipher;
+import javax.crypto.NoSuchPaddingException;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.IvParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+import java.lang.management.ManagementFactory;
+import java.security.*;
+import java.security.spec.AlgorithmParameterSpec;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 加密提供者选择器
+ * <p>
+ * 为每种转换(如AES/GCM/NoPadding)在当前JVM已安装的提供者中选择一个并缓存，
+ * {@link AesUtils}、{@link AesCipherPool}、{@link AesBulkCipher}、{@link RsaUtil}和{@link RsaKeyCache}
+ * 均通过{@link #getDefault()}创建加密器。
+ * 首次使用某个转换时只选用优先级最高的提供者(与{@link Cipher#getInstance(String)}相同)，不进行测量，不会阻塞调用线程。
+ * 需要按吞吐量选择时，在启动阶段调用{@link #benchmark(String...)}，该方法在调用线程上对每个提供者进行约数百毫秒的
+ * 微基准测试后替换选择结果。测量结果和AES硬件加速状态可以通过{@link #getSelections()}和{@link #getIntrinsicFlags()}查看。
+ * <p>
+ * 不同加密模式的数据格式互不兼容，因此不会自动切换模式，GCM与CBC等模式的吞吐量对比仅供参考
+ *
+ * @author 胖橘
+ * @version 1.0
+ * @since 1.0
+ */
+public class CipherProviderSelector {
+    /** 默认测量的转换 */
+    public static final String[] DEFAULT_TRANSFORMATIONS = {
+            AesUtils.ALGORITHM_NAME, AesUtils.STREAM_TRANSFORMATION, AesBulkCipher.TRANSFORMATION,
+            "AES/CBC/PKCS5Padding", RsaUtil.ALGORITHM_NAME, RsaUtil.ENVELOPE_TRANSFORMATION
+    };
+    /** 与AES硬件加速相关的HotSpot参数 */
+    protected static final String[] INTRINSIC_FLAGS = {
+            "UseAES", "UseAESIntrinsics", "UseAESCTRIntrinsics", "UseGHASHIntrinsics"
+    };
+
+    protected static final long WARMUP_NANOS = 100_000_000L;
+    protected static final long MEASURE_NANOS = 100_000_000L;
+    protected static final int AES_PAYLOAD_SIZE = 16 * 1024;
+    protected static final int RSA_KEY_SIZE = 2048;
+
+    private static final CipherProviderSelector DEFAULT_SELECTOR = new CipherProviderSelector();
+
+    private final Map<String, Selection> selections = new ConcurrentHashMap<>();
+    private volatile KeyPair rsaKeyPair;
+
+    /**
+     * 获取默认选择器
+     *
+     * @return 默认选择器
+     */
+    public static CipherProviderSelector getDefault() {
+        return DEFAULT_SELECTOR;
+    }
+
+    /**
+     * 使用选中的提供者创建加密器
+     *
+     * @param transformation 转换，如：AES/GCM/NoPadding
+     * @return 加密器
+     * @throws NoSuchAlgorithmException 没有提供者支持该转换时抛出
+     * @throws NoSuchPaddingException   没有提供者支持该填充方式时抛出
+     */
+    public Cipher getCipher(String transformation) throws NoSuchAlgorithmException, NoSuchPaddingException {
+        Selection selection = select(transformation);
+        if (selection.provider == null) {
+            return Cipher.getInstance(transformation);
+        }
+        return Cipher.getInstance(transformation, selection.provider);
+    }
+
+    /**
+     * 获取转换的选择结果，首次调用时选用优先级最高的提供者，不进行测量
+     *
+     * @param transformation 转换
+     * @return 选择结果
+     */
+    public Selection select(String transformation) {
+        Selection selection = selections.get(transformation);
+        if (selection == null) {
+            // 在映射函数外查找提供者，并发首次调用时可能重复查找，结果相同
+            selection = choose(transformation, false);
+            Selection existing = selections.putIfAbsent(transformation, selection);
+            if (existing != null) {
+                selection = existing;
+            }
+        }
+        return selection;
+    }
+
+    /**
+     * 在调用线程上测量默认转换在所有提供者上的吞吐量，并按结果重新选择，适合在启动阶段调用
+     *
+     * @return 选择结果，键为转换
+     */
+    public Map<String, Selection> benchmark() {
+        return benchmark(DEFAULT_TRANSFORMATIONS);
+    }
+
+    /**
+     * 在调用线程上测量指定转换在所有提供者上的吞吐量，并按结果重新选择，适合在启动阶段调用
+     *
+     * @param transformations 转换
+     * @return 选择结果，键为转换
+     */
+    public Map<String, Selection> benchmark(String... transformations) {
+        Map<String, Selection> result = new LinkedHashMap<>();
+        for (String transformation : transformations) {
+            Selection selection = choose(transformation, true);
+            selections.put(transformation, selection);
+            result.put(transformation, selection);
+        }
+        return result;
+    }
+
+    /**
+     * 获取已完成的选择结果
+     *
+     * @return 选择结果，键为转换
+     */
+    public Map<String, Selection> getSelections() {
+        return Collections.unmodifiableMap(new TreeMap<>(selections));
+    }
+
+    /**
+     * 获取与AES硬件加速相关的HotSpot参数值，非HotSpot虚拟机返回空映射
+     *
+     * @return 参数值，键为参数名
+     */
+    public Map<String, String> getIntrinsicFlags() {
+        Map<String, String> flags = new LinkedHashMap<>();
+        try {
+            com.sun.management.HotSpotDiagnosticMXBean bean =
+                    ManagementFactory.getPlatformMXBean(com.sun.management.HotSpotDiagnosticMXBean.class);
+            if (bean == null) {
+                return flags;
+            }
+            for (String flag : INTRINSIC_FLAGS) {
+                try {
+                    flags.put(flag, bean.getVMOption(flag).getValue());
+                } catch (IllegalArgumentException e) {
+                    // 当前平台不存在该参数
+                }
+            }
+        } catch (LinkageError e) {
+            // 非HotSpot虚拟机
+        }
+        return flags;
+    }
+
+    /**
+     * 判断当前虚拟机是否启用了AES硬件加速
+     * <p>
+     * 部分版本中UseAESIntrinsics为诊断参数无法读取，此时以UseAES为准
+     *
+     * @return 是否启用，无法判断时返回false
+     */
+    public boolean isAesIntrinsicsEnabled() {
+        Map<String, String> flags = getIntrinsicFlags();
+        String value = flags.containsKey("UseAESIntrinsics") ? flags.get("UseAESIntrinsics") : flags.get("UseAES");
+        return Boolean.parseBoolean(value);
+    }
+
+    /**
+     * 清空选择结果，下次使用时重新选择
+     */
+    public void reset() {
+        selections.clear();
+    }
+
+    private Selection choose(String transformation, boolean measure) {
+        List<Provider> candidates = new ArrayList<>();
+        for (Provider provider : Security.getProviders()) {
+            try {
+                Cipher.getInstance(transformation, provider);
+                candidates.add(provider);
+            } catch (GeneralSecurityException | RuntimeException e) {
+                // 该提供者不支持此转换
+            }
+        }
+        if (candidates.isEmpty()) {
+            return new Selection(transformation, null, Collections.emptyMap());
+        }
+        if (!measure) {
+            return new Selection(transformation, candidates.get(0), Collections.emptyMap());
+        }
+
+        Map<String, Double> throughputs = new LinkedHashMap<>();
+        Provider fastest = candidates.get(0);
+        double fastestThroughput = -1;
+        for (Provider provider : candidates) {
+            double throughput;
+            try {
+                throughput = measure(transformation, provider);
+            } catch (GeneralSecurityException | RuntimeException e) {
+                // 提供者声明支持但无法正常工作，不参与选择
+                continue;
+            }
+            throughputs.put(provider.getName(), throughput);
+            if (throughput > fastestThroughput) {
+                fastest = provider;
+                fastestThroughput = throughput;
+            }
+        }
+        return new Selection(transformation, fastest, throughputs);
+    }
+
+    /**
+     * 预热后测量吞吐量
+     *
+     * @return 每秒处理的明文字节数
+     */
+    private double measure(String transformation, Provider provider) throws GeneralSecurityException {
+        Cipher cipher = Cipher.getInstance(transformation, provider);
+        boolean rsa = transformation.startsWith(RsaUtil.ALGORITHM_NAME);
+        Key encryptKey;
+        Key decryptKey;
+        byte[] payload;
+        if (rsa) {
+            KeyPair keyPair = getRsaKeyPair();
+            encryptKey = keyPair.getPublic();
+            decryptKey = keyPair.getPrivate();
+            payload = new byte[64];
+        } else {
+            encryptKey = new SecretKeySpec(AesUtils.generateSecretKey(), AesUtils.ALGORITHM_NAME);
+            decryptKey = encryptKey;
+            payload = new byte[AES_PAYLOAD_SIZE];
+        }
+        AesUtils.SECURE_RANDOM.nextBytes(payload);
+        byte[] iv = new byte[transformation.contains("/GCM/") ? 12 : 16];
+
+        run(cipher, transformation, encryptKey, decryptKey, payload, iv, WARMUP_NANOS);
+        long start = System.nanoTime();
+        long operations = run(cipher, transformation, encryptKey, decryptKey, payload, iv, MEASURE_NANOS);
+        double seconds = (System.nanoTime() - start) / 1e9;
+        return operations * payload.length / seconds;
+    }
+
+    /**
+     * 在指定时间内重复执行加密和解密
+     *
+     * @return 执行次数
+     */
+    private long run(Cipher cipher, String transformation, Key encryptKey, Key decryptKey, byte[] payload,
+                     byte[] iv, long nanos) throws GeneralSecurityException {
+        long deadline = System.nanoTime() + nanos;
+        long operations = 0;
+        boolean ecb = !transformation.contains("/") || transformation.contains("/ECB/");
+        do {
+            // GCM不允许重复使用相同的初始向量，每次递增
+            for (int i = iv.length - 1; i >= 0 && ++iv[i] == 0; i--) {
+                // 进位
+            }
+            AlgorithmParameterSpec spec = ecb ? null : transformation.contains("/GCM/")
+                    ? new GCMParameterSpec(128, iv) : new IvParameterSpec(iv);
+            cipher.init(Cipher.ENCRYPT_MODE, encryptKey, spec);
+            byte[] encrypted = cipher.doFinal(payload);
+            cipher.init(Cipher.DECRYPT_MODE, decryptKey, spec);
+            cipher.doFinal(encrypted);
+            operations++;
+        } while (System.nanoTime() < deadline);
+        return operations;
+    }
+
+    private KeyPair getRsaKeyPair() throws NoSuchAlgorithmException {
+        KeyPair keyPair = rsaKeyPair;
+        if (keyPair == null) {
+            KeyPairGenerator generator = KeyPairGenerator.getInstance(RsaUtil.ALGORITHM_NAME);
+            generator.initialize(RSA_KEY_SIZE);
+            keyPair = generator.generateKeyPair();
+            rsaKeyPair = keyPair;
+        }
+        return keyPair;
+    }
+
+    /**
+     * 选择结果
+     */
+    public static class Selection {
+        private final String transformation;
+        private final Provider provider;
+        private final Map<String, Double> throughputs;
+
+        protected Selection(String transformation, Provider provider, Map<String, Double> throughputs) {
+            this.transformation = transformation;
+            this.provider = provider;
+            this.throughputs = Collections.unmodifiableMap(throughputs);
+        }
+
+        public String getTransformation() {
+            return transformation;
+        }
+
+        /**
+         * 获取选中的提供者
+         *
+         * @return 提供者，没有提供者支持该转换时为空
+         */
+        public Provider getProvider() {
+            return provider;
+        }
+
+        /**
+         * 获取各提供者的吞吐量
+         *
+         * @return 每秒处理的明文字节数，键为提供者名称，未测量时为空映射
+         */
+        public Map<String, Double> getThroughputs() {
+            return throughputs;
+        }
+
+        public boolean isMeasured() {
+            return !throughputs.isEmpty();
+        }
+
+        @Override
+        public String toString() {
+            return transformation + " -> " + (provider == null ? "none" : provider.getName()) + " " + throughputs;
+        }
+    }
+}
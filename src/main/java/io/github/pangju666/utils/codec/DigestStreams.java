@@ -0,0 +1,213 @@
+package io.github.pangju666.utils.codec;
+
+import org.apache.commons.codec.binary.Hex;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * 内容摘要工具类
+ * <p>
+ * 以增量方式计算{@link InputStream}、{@link ByteBuffer}和内存映射文件区域的摘要，不需要将数据整体读入内存。
+ * {@link MessageDigest}按线程和算法复用，稳定状态下不再执行提供者查找
+ * <pre>
+ * 如：
+ * byte[] digest = DigestStreams.digest(DigestStreams.Algorithm.SHA_256, inputStream);
+ * String hex = DigestStreams.digestHex(DigestStreams.Algorithm.MD5, Paths.get("export.zip"));
+ * </pre>
+ *
+ * @author 胖橘
+ * @version 1.0
+ * @since 1.0
+ */
+public class DigestStreams {
+    /** 读取流时使用的缓冲区大小 */
+    protected static final int BUFFER_SIZE = 64 * 1024;
+    /** 单次内存映射的最大长度 */
+    protected static final long MAX_MAP_SIZE = 64 * 1024 * 1024;
+
+    protected static final ThreadLocal<MessageDigest[]> LOCAL_DIGESTS =
+            ThreadLocal.withInitial(() -> new MessageDigest[Algorithm.values().length]);
+    protected static final ThreadLocal<byte[]> LOCAL_BUFFER = ThreadLocal.withInitial(() -> new byte[BUFFER_SIZE]);
+
+    /** 摘要算法 */
+    public enum Algorithm {
+        /** MD5 */
+        MD5("MD5"),
+        /** SHA-1 */
+        SHA_1("SHA-1"),
+        /** SHA-256 */
+        SHA_256("SHA-256"),
+        /** SHA-512 */
+        SHA_512("SHA-512");
+
+        Algorithm(String algorithm) {
+            this.algorithm = algorithm;
+        }
+
+        public String getAlgorithm() {
+            return algorithm;
+        }
+
+        private final String algorithm;
+    }
+
+    protected DigestStreams() {
+    }
+
+    /**
+     * 获取当前线程复用的摘要对象，返回前已重置
+     * <p>
+     * 返回的对象只能在当前线程内使用，且在使用完毕前不能再调用本类的其他方法计算同一算法的摘要
+     *
+     * @param algorithm 摘要算法
+     * @return 摘要对象
+     */
+    public static MessageDigest getDigest(Algorithm algorithm) {
+        MessageDigest[] digests = LOCAL_DIGESTS.get();
+        MessageDigest digest = digests[algorithm.ordinal()];
+        if (digest == null) {
+            try {
+                digest = MessageDigest.getInstance(algorithm.algorithm);
+            } catch (NoSuchAlgorithmException e) {
+                throw new RuntimeException(algorithm.algorithm + "摘要算法在当前环境下不可用", e);
+            }
+            digests[algorithm.ordinal()] = digest;
+        } else {
+            digest.reset();
+        }
+        return digest;
+    }
+
+    /**
+     * 计算字节数组的摘要
+     *
+     * @param algorithm 摘要算法
+     * @param source    源数据
+     * @return 摘要
+     */
+    public static byte[] digest(Algorithm algorithm, byte[] source) {
+        return getDigest(algorithm).digest(source);
+    }
+
+    /**
+     * 计算缓冲区剩余数据的摘要，计算完成后缓冲区位置移动至末尾
+     *
+     * @param algorithm 摘要算法
+     * @param source    源数据缓冲区，可以为直接缓冲区
+     * @return 摘要
+     */
+    public static byte[] digest(Algorithm algorithm, ByteBuffer source) {
+        MessageDigest digest = getDigest(algorithm);
+        digest.update(source);
+        return digest.digest();
+    }
+
+    /**
+     * 读取输入流至末尾并计算摘要，不会关闭输入流
+     *
+     * @param algorithm   摘要算法
+     * @param inputStream 输入流
+     * @return 摘要
+     * @throws IOException 读取流失败时抛出
+     */
+    public static byte[] digest(Algorithm algorithm, InputStream inputStream) throws IOException {
+        MessageDigest digest = getDigest(algorithm);
+        update(digest, inputStream);
+        return digest.digest();
+    }
+
+    /**
+     * 使用内存映射计算文件通道指定区域的摘要，不会改变通道位置
+     *
+     * @param algorithm 摘要算法
+     * @param channel   文件通道
+     * @param position  区域起始位置
+     * @param size      区域长度
+     * @return 摘要
+     * @throws IOException 读取文件失败时抛出
+     */
+    public static byte[] digest(Algorithm algorithm, FileChannel channel, long position, long size)
+            throws IOException {
+        MessageDigest digest = getDigest(algorithm);
+        update(digest, channel, position, size);
+        return digest.digest();
+    }
+
+    /**
+     * 使用内存映射计算文件摘要
+     *
+     * @param algorithm 摘要算法
+     * @param path      文件路径
+     * @return 摘要
+     * @throws IOException 读取文件失败时抛出
+     */
+    public static byte[] digest(Algorithm algorithm, Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            return digest(algorithm, channel, 0, channel.size());
+        }
+    }
+
+    /**
+     * 读取输入流至末尾并计算摘要，结果转换为十六进制字符串
+     *
+     * @param algorithm   摘要算法
+     * @param inputStream 输入流
+     * @return 十六进制摘要字符串
+     * @throws IOException 读取流失败时抛出
+     */
+    public static String digestHex(Algorithm algorithm, InputStream inputStream) throws IOException {
+        return Hex.encodeHexString(digest(algorithm, inputStream));
+    }
+
+    /**
+     * 计算文件摘要，结果转换为十六进制字符串
+     *
+     * @param algorithm 摘要算法
+     * @param path      文件路径
+     * @return 十六进制摘要字符串
+     * @throws IOException 读取文件失败时抛出
+     */
+    public static String digestHex(Algorithm algorithm, Path path) throws IOException {
+        return Hex.encodeHexString(digest(algorithm, path));
+    }
+
+    /**
+     * 将输入流剩余数据追加至摘要对象，不会关闭输入流
+     *
+     * @param digest      摘要对象
+     * @param inputStream 输入流
+     * @throws IOException 读取流失败时抛出
+     */
+    public static void update(MessageDigest digest, InputStream inputStream) throws IOException {
+        byte[] buffer = LOCAL_BUFFER.get();
+        int count;
+        while ((count = inputStream.read(buffer)) != -1) {
+            digest.update(buffer, 0, count);
+        }
+    }
+
+    /**
+     * 使用内存映射将文件通道指定区域追加至摘要对象，超过64MB的区域分多次映射
+     *
+     * @param digest   摘要对象
+     * @param channel  文件通道
+     * @param position 区域起始位置
+     * @param size     区域长度
+     * @throws IOException 读取文件失败时抛出
+     */
+    public static void update(MessageDigest digest, FileChannel channel, long position, long size)
+            throws IOException {
+        long end = position + size;
+        for (long offset = position; offset < end; offset += MAX_MAP_SIZE) {
+            long length = Math.min(MAX_MAP_SIZE, end - offset);
+            digest.update(channel.map(FileChannel.MapMode.READ_ONLY, offset, length));
+        }
+    }
+}
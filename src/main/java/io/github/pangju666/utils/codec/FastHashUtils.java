@@ -0,0 +1,646 @@
+package io.github.pangju666.utils.codec;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+
+/**
+ * 非加密快速哈希工具类，实现xxHash64和MurmurHash3(x64 128位)
+ * <p>
+ * 适用于缓存键、分片等不需要抗碰撞攻击的场景，速度远高于MD5等摘要算法。
+ * 字节数组、堆缓冲区和字符序列的计算过程不产生对象分配。
+ * 字符序列按每个char的两个字节(低位在前)计算，不会先转换为字节数组。
+ * 不含未配对代理项时结果与哈希{@code s.getBytes(UTF_16LE)}相同；含未配对代理项时，
+ * 编码器会将其替换为替代字符，而这里仍按原始char计算，两者结果不同
+ *
+ * @author 胖橘
+ * @version 1.0
+ * @since 1.0
+ */
+public class FastHashUtils {
+    private static final long PRIME64_1 = 0x9E3779B185EBCA87L;
+    private static final long PRIME64_2 = 0xC2B2AE3D27D4EB4FL;
+    private static final long PRIME64_3 = 0x165667B19E3779F9L;
+    private static final long PRIME64_4 = 0x85EBCA77C2B2AE63L;
+    private static final long PRIME64_5 = 0x27D4EB2F165667C5L;
+
+    private static final long MURMUR3_C1 = 0x87C37B91114253D5L;
+    private static final long MURMUR3_C2 = 0x4CF5AD432745937FL;
+
+    private static final int BUFFER_SIZE = 8 * 1024;
+    private static final ThreadLocal<byte[]> LOCAL_BUFFER = ThreadLocal.withInitial(() -> new byte[BUFFER_SIZE]);
+
+    protected FastHashUtils() {
+    }
+
+    /**
+     * 计算xxHash64，种子为0
+     *
+     * @param source 源数据
+     * @return 哈希值
+     */
+    public static long xxHash64(byte[] source) {
+        return xxHash64(source, 0, source.length, 0);
+    }
+
+    /**
+     * 计算xxHash64
+     *
+     * @param source 源数据
+     * @param offset 起始位置
+     * @param length 长度
+     * @param seed   种子
+     * @return 哈希值
+     */
+    public static long xxHash64(byte[] source, int offset, int length, long seed) {
+        int end = offset + length;
+        int index = offset;
+        long hash;
+        if (length >= 32) {
+            long v1 = seed + PRIME64_1 + PRIME64_2;
+            long v2 = seed + PRIME64_2;
+            long v3 = seed;
+            long v4 = seed - PRIME64_1;
+            int limit = end - 32;
+            do {
+                v1 = xxRound(v1, getLong(source, index));
+                v2 = xxRound(v2, getLong(source, index + 8));
+                v3 = xxRound(v3, getLong(source, index + 16));
+                v4 = xxRound(v4, getLong(source, index + 24));
+                index += 32;
+            } while (index <= limit);
+            hash = xxMerge(v1, v2, v3, v4);
+        } else {
+            hash = seed + PRIME64_5;
+        }
+        return xxFinish(hash + length, source, index, end);
+    }
+
+    /**
+     * 计算缓冲区剩余数据的xxHash64，不会改变缓冲区位置
+     *
+     * @param source 源数据缓冲区
+     * @param seed   种子
+     * @return 哈希值
+     */
+    public static long xxHash64(ByteBuffer source, long seed) {
+        if (source.hasArray()) {
+            return xxHash64(source.array(), source.arrayOffset() + source.position(), source.remaining(), seed);
+        }
+        XxHash64 hasher = new XxHash64(seed);
+        hasher.update(source.duplicate());
+        return hasher.getValue();
+    }
+
+    /**
+     * 计算字符序列的xxHash64，种子为0
+     *
+     * @param source 字符序列
+     * @return 哈希值
+     */
+    public static long xxHash64(CharSequence source) {
+        return xxHash64(source, 0);
+    }
+
+    /**
+     * 计算字符序列的xxHash64，每个char按两个字节(低位在前)参与计算
+     *
+     * @param source 字符序列
+     * @param seed   种子
+     * @return 哈希值
+     */
+    public static long xxHash64(CharSequence source, long seed) {
+        int end = source.length();
+        int index = 0;
+        long hash;
+        if (end >= 16) {
+            long v1 = seed + PRIME64_1 + PRIME64_2;
+            long v2 = seed + PRIME64_2;
+            long v3 = seed;
+            long v4 = seed - PRIME64_1;
+            int limit = end - 16;
+            do {
+                v1 = xxRound(v1, getLong(source, index));
+                v2 = xxRound(v2, getLong(source, index + 4));
+                v3 = xxRound(v3, getLong(source, index + 8));
+                v4 = xxRound(v4, getLong(source, index + 12));
+                index += 16;
+            } while (index <= limit);
+            hash = xxMerge(v1, v2, v3, v4);
+        } else {
+            hash = seed + PRIME64_5;
+        }
+        hash += (long) end * 2;
+        for (; index + 4 <= end; index += 4) {
+            hash = xxTailLong(hash, getLong(source, index));
+        }
+        if (index + 2 <= end) {
+            hash = xxTailInt(hash, getInt(source, index));
+            index += 2;
+        }
+        if (index < end) {
+            char c = source.charAt(index);
+            hash = xxTailByte(xxTailByte(hash, c & 0xFF), c >>> 8);
+        }
+        return xxAvalanche(hash);
+    }
+
+    /**
+     * 读取输入流至末尾并计算xxHash64，不会关闭输入流
+     *
+     * @param inputStream 输入流
+     * @param seed        种子
+     * @return 哈希值
+     * @throws IOException 读取流失败时抛出
+     */
+    public static long xxHash64(InputStream inputStream, long seed) throws IOException {
+        XxHash64 hasher = new XxHash64(seed);
+        byte[] buffer = LOCAL_BUFFER.get();
+        int count;
+        while ((count = inputStream.read(buffer)) != -1) {
+            hasher.update(buffer, 0, count);
+        }
+        return hasher.getValue();
+    }
+
+    /**
+     * 计算MurmurHash3(x64 128位)，种子为0
+     *
+     * @param source 源数据
+     * @return 哈希值，依次为h1、h2
+     */
+    public static long[] murmur3Hash128(byte[] source) {
+        return murmur3Hash128(source, 0, source.length, 0);
+    }
+
+    /**
+     * 计算MurmurHash3(x64 128位)
+     *
+     * @param source 源数据
+     * @param offset 起始位置
+     * @param length 长度
+     * @param seed   种子
+     * @return 哈希值，依次为h1、h2
+     */
+    public static long[] murmur3Hash128(byte[] source, int offset, int length, int seed) {
+        long[] result = new long[2];
+        murmur3(source, offset, length, seed, result);
+        return result;
+    }
+
+    /**
+     * 计算MurmurHash3(x64 128位)并只返回h1，种子为0，不产生对象分配
+     *
+     * @param source 源数据
+     * @return 哈希值h1
+     */
+    public static long murmur3Hash64(byte[] source) {
+        return murmur3Hash64(source, 0, source.length, 0);
+    }
+
+    /**
+     * 计算MurmurHash3(x64 128位)并只返回h1，不产生对象分配
+     *
+     * @param source 源数据
+     * @param offset 起始位置
+     * @param length 长度
+     * @param seed   种子
+     * @return 哈希值h1
+     */
+    public static long murmur3Hash64(byte[] source, int offset, int length, int seed) {
+        return murmur3(source, offset, length, seed, null);
+    }
+
+    /**
+     * 计算MurmurHash3(x64 128位)
+     *
+     * @param result 不为空时依次写入h1、h2
+     * @return 哈希值h1
+     */
+    private static long murmur3(byte[] source, int offset, int length, int seed, long[] result) {
+        long h1 = seed & 0xFFFFFFFFL;
+        long h2 = h1;
+        int end = offset + length;
+        int index = offset;
+        for (; index + 16 <= end; index += 16) {
+            long k1 = getLong(source, index);
+            long k2 = getLong(source, index + 8);
+            h1 ^= murmurMixK1(k1);
+            h1 = Long.rotateLeft(h1, 27) + h2;
+            h1 = h1 * 5 + 0x52DCE729;
+            h2 ^= murmurMixK2(k2);
+            h2 = Long.rotateLeft(h2, 31) + h1;
+            h2 = h2 * 5 + 0x38495AB5;
+        }
+        long k1 = 0;
+        long k2 = 0;
+        for (int i = end - index - 1; i >= 0; i--) {
+            long value = source[index + i] & 0xFFL;
+            if (i >= 8) {
+                k2 ^= value << ((i - 8) * 8);
+            } else {
+                k1 ^= value << (i * 8);
+            }
+        }
+        h2 ^= murmurMixK2(k2);
+        h1 ^= murmurMixK1(k1);
+        h1 ^= length;
+        h2 ^= length;
+        h1 += h2;
+        h2 += h1;
+        h1 = fmix64(h1);
+        h2 = fmix64(h2);
+        h1 += h2;
+        if (result != null) {
+            result[0] = h1;
+            result[1] = h2 + h1;
+        }
+        return h1;
+    }
+
+    /**
+     * 计算缓冲区剩余数据的MurmurHash3(x64 128位)，不会改变缓冲区位置
+     *
+     * @param source 源数据缓冲区
+     * @param seed   种子
+     * @return 哈希值，依次为h1、h2
+     */
+    public static long[] murmur3Hash128(ByteBuffer source, int seed) {
+        if (source.hasArray()) {
+            return murmur3Hash128(source.array(), source.arrayOffset() + source.position(), source.remaining(), seed);
+        }
+        Murmur3Hash128 hasher = new Murmur3Hash128(seed);
+        hasher.update(source.duplicate());
+        return hasher.getValue();
+    }
+
+    /**
+     * 计算字符序列的MurmurHash3(x64 128位)，每个char按两个字节(低位在前)参与计算
+     *
+     * @param source 字符序列
+     * @param seed   种子
+     * @return 哈希值，依次为h1、h2
+     */
+    public static long[] murmur3Hash128(CharSequence source, int seed) {
+        long h1 = seed & 0xFFFFFFFFL;
+        long h2 = h1;
+        int end = source.length();
+        int index = 0;
+        for (; index + 8 <= end; index += 8) {
+            h1 ^= murmurMixK1(getLong(source, index));
+            h1 = Long.rotateLeft(h1, 27) + h2;
+            h1 = h1 * 5 + 0x52DCE729;
+            h2 ^= murmurMixK2(getLong(source, index + 4));
+            h2 = Long.rotateLeft(h2, 31) + h1;
+            h2 = h2 * 5 + 0x38495AB5;
+        }
+        long k1 = 0;
+        long k2 = 0;
+        for (int i = end - index - 1; i >= 0; i--) {
+            long value = source.charAt(index + i);
+            if (i >= 4) {
+                k2 ^= value << ((i - 4) * 16);
+            } else {
+                k1 ^= value << (i * 16);
+            }
+        }
+        h2 ^= murmurMixK2(k2);
+        h1 ^= murmurMixK1(k1);
+        long length = (long) end * 2;
+        h1 ^= length;
+        h2 ^= length;
+        h1 += h2;
+        h2 += h1;
+        h1 = fmix64(h1);
+        h2 = fmix64(h2);
+        h1 += h2;
+        h2 += h1;
+        return new long[]{h1, h2};
+    }
+
+    /**
+     * 读取输入流至末尾并计算MurmurHash3(x64 128位)，不会关闭输入流
+     *
+     * @param inputStream 输入流
+     * @param seed        种子
+     * @return 哈希值，依次为h1、h2
+     * @throws IOException 读取流失败时抛出
+     */
+    public static long[] murmur3Hash128(InputStream inputStream, int seed) throws IOException {
+        Murmur3Hash128 hasher = new Murmur3Hash128(seed);
+        byte[] buffer = LOCAL_BUFFER.get();
+        int count;
+        while ((count = inputStream.read(buffer)) != -1) {
+            hasher.update(buffer, 0, count);
+        }
+        return hasher.getValue();
+    }
+
+    private static long xxRound(long acc, long input) {
+        acc += input * PRIME64_2;
+        acc = Long.rotateLeft(acc, 31);
+        return acc * PRIME64_1;
+    }
+
+    private static long xxMergeRound(long acc, long value) {
+        acc ^= xxRound(0, value);
+        return acc * PRIME64_1 + PRIME64_4;
+    }
+
+    private static long xxMerge(long v1, long v2, long v3, long v4) {
+        long hash = Long.rotateLeft(v1, 1) + Long.rotateLeft(v2, 7)
+                + Long.rotateLeft(v3, 12) + Long.rotateLeft(v4, 18);
+        hash = xxMergeRound(hash, v1);
+        hash = xxMergeRound(hash, v2);
+        hash = xxMergeRound(hash, v3);
+        return xxMergeRound(hash, v4);
+    }
+
+    private static long xxTailLong(long hash, long value) {
+        hash ^= xxRound(0, value);
+        return Long.rotateLeft(hash, 27) * PRIME64_1 + PRIME64_4;
+    }
+
+    private static long xxTailInt(long hash, long value) {
+        hash ^= (value & 0xFFFFFFFFL) * PRIME64_1;
+        return Long.rotateLeft(hash, 23) * PRIME64_2 + PRIME64_3;
+    }
+
+    private static long xxTailByte(long hash, int value) {
+        hash ^= (value & 0xFF) * PRIME64_5;
+        return Long.rotateLeft(hash, 11) * PRIME64_1;
+    }
+
+    /**
+     * 处理不足32字节的剩余数据并完成雪崩混合
+     */
+    private static long xxFinish(long hash, byte[] source, int index, int end) {
+        for (; index + 8 <= end; index += 8) {
+            hash = xxTailLong(hash, getLong(source, index));
+        }
+        if (index + 4 <= end) {
+            hash = xxTailInt(hash, getInt(source, index));
+            index += 4;
+        }
+        for (; index < end; index++) {
+            hash = xxTailByte(hash, source[index]);
+        }
+        return xxAvalanche(hash);
+    }
+
+    private static long xxAvalanche(long hash) {
+        hash ^= hash >>> 33;
+        hash *= PRIME64_2;
+        hash ^= hash >>> 29;
+        hash *= PRIME64_3;
+        return hash ^ (hash >>> 32);
+    }
+
+    private static long murmurMixK1(long k1) {
+        k1 *= MURMUR3_C1;
+        k1 = Long.rotateLeft(k1, 31);
+        return k1 * MURMUR3_C2;
+    }
+
+    private static long murmurMixK2(long k2) {
+        k2 *= MURMUR3_C2;
+        k2 = Long.rotateLeft(k2, 33);
+        return k2 * MURMUR3_C1;
+    }
+
+    private static long fmix64(long k) {
+        k ^= k >>> 33;
+        k *= 0xFF51AFD7ED558CCDL;
+        k ^= k >>> 33;
+        k *= 0xC4CEB9FE1A85EC53L;
+        return k ^ (k >>> 33);
+    }
+
+    private static long getLong(byte[] bytes, int index) {
+        return (bytes[index] & 0xFFL)
+                | (bytes[index + 1] & 0xFFL) << 8
+                | (bytes[index + 2] & 0xFFL) << 16
+                | (bytes[index + 3] & 0xFFL) << 24
+                | (bytes[index + 4] & 0xFFL) << 32
+                | (bytes[index + 5] & 0xFFL) << 40
+                | (bytes[index + 6] & 0xFFL) << 48
+                | (bytes[index + 7] & 0xFFL) << 56;
+    }
+
+    private static long getInt(byte[] bytes, int index) {
+        return (bytes[index] & 0xFFL)
+                | (bytes[index + 1] & 0xFFL) << 8
+                | (bytes[index + 2] & 0xFFL) << 16
+                | (bytes[index + 3] & 0xFFL) << 24;
+    }
+
+    /**
+     * 按UTF-16LE读取从index开始的4个字符
+     */
+    private static long getLong(CharSequence chars, int index) {
+        return (long) chars.charAt(index)
+                | (long) chars.charAt(index + 1) << 16
+                | (long) chars.charAt(index + 2) << 32
+                | (long) chars.charAt(index + 3) << 48;
+    }
+
+    private static long getInt(CharSequence chars, int index) {
+        return (long) chars.charAt(index) | (long) chars.charAt(index + 1) << 16;
+    }
+
+    /**
+     * xxHash64增量计算器，非线程安全
+     */
+    public static class XxHash64 {
+        private final long seed;
+        private final byte[] buffer = new byte[32];
+        private int bufferLength;
+        private long totalLength;
+        private long v1;
+        private long v2;
+        private long v3;
+        private long v4;
+
+        public XxHash64(long seed) {
+            this.seed = seed;
+            reset();
+        }
+
+        /**
+         * 重置为初始状态
+         */
+        public void reset() {
+            v1 = seed + PRIME64_1 + PRIME64_2;
+            v2 = seed + PRIME64_2;
+            v3 = seed;
+            v4 = seed - PRIME64_1;
+            bufferLength = 0;
+            totalLength = 0;
+        }
+
+        public void update(byte[] source) {
+            update(source, 0, source.length);
+        }
+
+        public void update(byte[] source, int offset, int length) {
+            int end = offset + length;
+            totalLength += length;
+            if (bufferLength > 0) {
+                int count = Math.min(32 - bufferLength, length);
+                System.arraycopy(source, offset, buffer, bufferLength, count);
+                bufferLength += count;
+                offset += count;
+                if (bufferLength < 32) {
+                    return;
+                }
+                processStripe(buffer, 0);
+                bufferLength = 0;
+            }
+            for (; offset + 32 <= end; offset += 32) {
+                processStripe(source, offset);
+            }
+            bufferLength = end - offset;
+            System.arraycopy(source, offset, buffer, 0, bufferLength);
+        }
+
+        /**
+         * 追加缓冲区剩余数据，完成后缓冲区位置移动至末尾
+         *
+         * @param source 源数据缓冲区
+         */
+        public void update(ByteBuffer source) {
+            if (source.hasArray()) {
+                update(source.array(), source.arrayOffset() + source.position(), source.remaining());
+                source.position(source.limit());
+                return;
+            }
+            byte[] chunk = LOCAL_BUFFER.get();
+            while (source.hasRemaining()) {
+                int count = Math.min(chunk.length, source.remaining());
+                source.get(chunk, 0, count);
+                update(chunk, 0, count);
+            }
+        }
+
+        public long getValue() {
+            long hash = totalLength >= 32 ? xxMerge(v1, v2, v3, v4) : seed + PRIME64_5;
+            return xxFinish(hash + totalLength, buffer, 0, bufferLength);
+        }
+
+        private void processStripe(byte[] source, int offset) {
+            v1 = xxRound(v1, getLong(source, offset));
+            v2 = xxRound(v2, getLong(source, offset + 8));
+            v3 = xxRound(v3, getLong(source, offset + 16));
+            v4 = xxRound(v4, getLong(source, offset + 24));
+        }
+    }
+
+    /**
+     * MurmurHash3(x64 128位)增量计算器，非线程安全
+     */
+    public static class Murmur3Hash128 {
+        private final int seed;
+        private final byte[] buffer = new byte[16];
+        private int bufferLength;
+        private long totalLength;
+        private long h1;
+        private long h2;
+
+        public Murmur3Hash128(int seed) {
+            this.seed = seed;
+            reset();
+        }
+
+        /**
+         * 重置为初始状态
+         */
+        public void reset() {
+            h1 = seed & 0xFFFFFFFFL;
+            h2 = h1;
+            bufferLength = 0;
+            totalLength = 0;
+        }
+
+        public void update(byte[] source) {
+            update(source, 0, source.length);
+        }
+
+        public void update(byte[] source, int offset, int length) {
+            int end = offset + length;
+            totalLength += length;
+            if (bufferLength > 0) {
+                int count = Math.min(16 - bufferLength, length);
+                System.arraycopy(source, offset, buffer, bufferLength, count);
+                bufferLength += count;
+                offset += count;
+                if (bufferLength < 16) {
+                    return;
+                }
+                processBlock(buffer, 0);
+                bufferLength = 0;
+            }
+            for (; offset + 16 <= end; offset += 16) {
+                processBlock(source, offset);
+            }
+            bufferLength = end - offset;
+            System.arraycopy(source, offset, buffer, 0, bufferLength);
+        }
+
+        /**
+         * 追加缓冲区剩余数据，完成后缓冲区位置移动至末尾
+         *
+         * @param source 源数据缓冲区
+         */
+        public void update(ByteBuffer source) {
+            if (source.hasArray()) {
+                update(source.array(), source.arrayOffset() + source.position(), source.remaining());
+                source.position(source.limit());
+                return;
+            }
+            byte[] chunk = LOCAL_BUFFER.get();
+            while (source.hasRemaining()) {
+                int count = Math.min(chunk.length, source.remaining());
+                source.get(chunk, 0, count);
+                update(chunk, 0, count);
+            }
+        }
+
+        /**
+         * 获取当前哈希值，不影响后续追加数据
+         *
+         * @return 哈希值，依次为h1、h2
+         */
+        public long[] getValue() {
+            long k1 = 0;
+            long k2 = 0;
+            for (int i = bufferLength - 1; i >= 0; i--) {
+                long value = buffer[i] & 0xFFL;
+                if (i >= 8) {
+                    k2 ^= value << ((i - 8) * 8);
+                } else {
+                    k1 ^= value << (i * 8);
+                }
+            }
+            long r1 = h1 ^ murmurMixK1(k1);
+            long r2 = h2 ^ murmurMixK2(k2);
+            r1 ^= totalLength;
+            r2 ^= totalLength;
+            r1 += r2;
+            r2 += r1;
+            r1 = fmix64(r1);
+            r2 = fmix64(r2);
+            r1 += r2;
+            r2 += r1;
+            return new long[]{r1, r2};
+        }
+
+        private void processBlock(byte[] source, int offset) {
+            h1 ^= murmurMixK1(getLong(source, offset));
+            h1 = Long.rotateLeft(h1, 27) + h2;
+            h1 = h1 * 5 + 0x52DCE729;
+            h2 ^= murmurMixK2(getLong(source, offset + 8));
+            h2 = Long.rotateLeft(h2, 31) + h1;
+            h2 = h2 * 5 + 0x38495AB5;
+        }
+    }
+}
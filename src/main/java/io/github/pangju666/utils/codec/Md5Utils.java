@@ -10,6 +10,7 @@ import org.apache.commons.codec.digest.Md5Crypt;
  * @since 1.0
  *
  * @see org.apache.commons.codec.digest.Md5Crypt
+ * @see DigestStreams
  */
 public class Md5Utils extends Md5Crypt {
     protected Md5Utils() {
@@ -0,0 +1,314 @@
+package io.github.pangju666.utils.codec;
+
+import org.apache.commons.codec.binary.Hex;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * 默克尔树文件摘要
+ * <p>
+ * 将文件按固定大小分块，在{@link ForkJoinPool}上使用内存映射并行计算每块摘要，再两两合并得到根摘要。
+ * 文件局部修改后可以只重新计算变化的分块。
+ * <p>
+ * 叶子节点为 H(0x00 | 分块数据)，中间节点为 H(0x01 | 左子节点 | 右子节点)，
+ * 某层节点数为奇数时最后一个节点直接提升至上一层，空文件视为一个空分块
+ * <pre>
+ * 如：
+ * MerkleDigest merkleDigest = new MerkleDigest();
+ * MerkleDigest.MerkleTree tree = merkleDigest.digest(path);
+ * // 文件修改后
+ * BitSet changed = merkleDigest.diff(path, tree);
+ * </pre>
+ *
+ * @author 胖橘
+ * @version 1.0
+ * @since 1.0
+ */
+public class MerkleDigest {
+    /** 默认分块大小 */
+    public static final int DEFAULT_BLOCK_SIZE = 4 * 1024 * 1024;
+
+    protected static final byte LEAF_PREFIX = 0x00;
+    protected static final byte NODE_PREFIX = 0x01;
+
+    /** 摘要算法 */
+    private final DigestStreams.Algorithm algorithm;
+    /** 分块大小 */
+    private final int blockSize;
+    /** 并行执行使用的线程池 */
+    private final ForkJoinPool pool;
+
+    /**
+     * 构造方法，使用SHA-256、默认分块大小和公共线程池
+     */
+    public MerkleDigest() {
+        this(DigestStreams.Algorithm.SHA_256, DEFAULT_BLOCK_SIZE, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * 构造方法
+     *
+     * @param algorithm 摘要算法
+     * @param blockSize 分块大小，单位为字节
+     * @param pool      并行执行使用的线程池
+     */
+    public MerkleDigest(DigestStreams.Algorithm algorithm, int blockSize, ForkJoinPool pool) {
+        if (blockSize <= 0) {
+            throw new IllegalArgumentException("分块大小必须大于0");
+        }
+        this.algorithm = algorithm;
+        this.blockSize = blockSize;
+        this.pool = pool;
+    }
+
+    public DigestStreams.Algorithm getAlgorithm() {
+        return algorithm;
+    }
+
+    public int getBlockSize() {
+        return blockSize;
+    }
+
+    public ForkJoinPool getPool() {
+        return pool;
+    }
+
+    /**
+     * 计算文件的默克尔树
+     *
+     * @param path 文件路径
+     * @return 默克尔树
+     * @throws IOException 读取文件失败时抛出
+     */
+    public MerkleTree digest(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long length = channel.size();
+            byte[][] leaves = new byte[getBlockCount(length)][];
+            BitSet blocks = new BitSet(leaves.length);
+            blocks.set(0, leaves.length);
+            hashBlocks(channel, length, blocks, leaves);
+            return new MerkleTree(algorithm, blockSize, length, leaves);
+        }
+    }
+
+    /**
+     * 重新计算文件摘要，判断文件是否与默克尔树一致
+     *
+     * @param path 文件路径
+     * @param tree 原默克尔树
+     * @return 根摘要是否一致
+     * @throws IOException 读取文件失败时抛出
+     */
+    public boolean verify(Path path, MerkleTree tree) throws IOException {
+        checkTree(tree);
+        return MessageDigest.isEqual(digest(path).getRoot(), tree.getRoot());
+    }
+
+    /**
+     * 重新计算文件摘要，找出与默克尔树不一致的分块
+     *
+     * @param path 文件路径
+     * @param tree 原默克尔树
+     * @return 不一致的分块序号，包括文件变长后新增的分块和变短后消失的分块
+     * @throws IOException 读取文件失败时抛出
+     */
+    public BitSet diff(Path path, MerkleTree tree) throws IOException {
+        checkTree(tree);
+        MerkleTree current = digest(path);
+        int count = Math.max(current.leaves.length, tree.leaves.length);
+        BitSet changed = new BitSet(count);
+        for (int i = 0; i < count; i++) {
+            if (i >= current.leaves.length || i >= tree.leaves.length
+                    || !Arrays.equals(current.leaves[i], tree.leaves[i])) {
+                changed.set(i);
+            }
+        }
+        return changed;
+    }
+
+    /**
+     * 只重新计算指定分块，得到文件修改后的默克尔树
+     * <p>
+     * 文件长度变化时，原末尾分块和新增分块会自动重新计算
+     *
+     * @param path          文件路径
+     * @param tree          原默克尔树
+     * @param changedBlocks 已修改的分块序号
+     * @return 新的默克尔树
+     * @throws IOException 读取文件失败时抛出
+     */
+    public MerkleTree update(Path path, MerkleTree tree, BitSet changedBlocks) throws IOException {
+        checkTree(tree);
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long length = channel.size();
+            int count = getBlockCount(length);
+            byte[][] leaves = Arrays.copyOf(tree.leaves, count);
+            BitSet blocks = changedBlocks.get(0, count);
+            if (length != tree.length) {
+                int oldLast = tree.leaves.length - 1;
+                if (oldLast < count) {
+                    blocks.set(oldLast, count);
+                } else {
+                    blocks.set(count - 1);
+                }
+            }
+            hashBlocks(channel, length, blocks, leaves);
+            return new MerkleTree(algorithm, blockSize, length, leaves);
+        }
+    }
+
+    private int getBlockCount(long length) {
+        long count = Math.max(1, (length + blockSize - 1) / blockSize);
+        if (count > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("文件分块数量超出上限，请增大分块大小");
+        }
+        return (int) count;
+    }
+
+    private void checkTree(MerkleTree tree) {
+        if (tree.algorithm != algorithm || tree.blockSize != blockSize) {
+            throw new IllegalArgumentException("默克尔树的摘要算法或分块大小不一致");
+        }
+    }
+
+    private void hashBlocks(FileChannel channel, long length, BitSet blocks, byte[][] leaves) throws IOException {
+        int[] indexes = blocks.stream().toArray();
+        try {
+            pool.invoke(new BlockTask(channel, length, indexes, 0, indexes.length, leaves));
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * 默克尔树，保存每个分块的摘要
+     */
+    public static class MerkleTree {
+        private final DigestStreams.Algorithm algorithm;
+        private final int blockSize;
+        private final long length;
+        private final byte[][] leaves;
+        private final byte[] root;
+
+        protected MerkleTree(DigestStreams.Algorithm algorithm, int blockSize, long length, byte[][] leaves) {
+            this.algorithm = algorithm;
+            this.blockSize = blockSize;
+            this.length = length;
+            this.leaves = leaves;
+            this.root = computeRoot(algorithm, leaves);
+        }
+
+        public DigestStreams.Algorithm getAlgorithm() {
+            return algorithm;
+        }
+
+        public int getBlockSize() {
+            return blockSize;
+        }
+
+        /**
+         * 获取文件长度
+         *
+         * @return 文件长度
+         */
+        public long getLength() {
+            return length;
+        }
+
+        public int getBlockCount() {
+            return leaves.length;
+        }
+
+        /**
+         * 获取分块摘要
+         *
+         * @param index 分块序号
+         * @return 分块摘要
+         */
+        public byte[] getBlockDigest(int index) {
+            return leaves[index].clone();
+        }
+
+        public byte[] getRoot() {
+            return root.clone();
+        }
+
+        public String getRootHex() {
+            return Hex.encodeHexString(root);
+        }
+
+        private static byte[] computeRoot(DigestStreams.Algorithm algorithm, byte[][] leaves) {
+            MessageDigest digest = DigestStreams.getDigest(algorithm);
+            byte[][] level = leaves;
+            while (level.length > 1) {
+                byte[][] parent = new byte[(level.length + 1) / 2][];
+                for (int i = 0; i < level.length / 2; i++) {
+                    digest.update(NODE_PREFIX);
+                    digest.update(level[2 * i]);
+                    digest.update(level[2 * i + 1]);
+                    parent[i] = digest.digest();
+                }
+                if (level.length % 2 != 0) {
+                    parent[parent.length - 1] = level[level.length - 1];
+                }
+                level = parent;
+            }
+            return level[0];
+        }
+    }
+
+    /**
+     * 分块摘要任务，将indexes中[from, to)范围内的分块二分后并行处理
+     */
+    private final class BlockTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final FileChannel channel;
+        private final long length;
+        private final int[] indexes;
+        private final int from;
+        private final int to;
+        private final byte[][] leaves;
+
+        BlockTask(FileChannel channel, long length, int[] indexes, int from, int to, byte[][] leaves) {
+            this.channel = channel;
+            this.length = length;
+            this.indexes = indexes;
+            this.from = from;
+            this.to = to;
+            this.leaves = leaves;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > 1) {
+                int middle = (from + to) >>> 1;
+                invokeAll(new BlockTask(channel, length, indexes, from, middle, leaves),
+                        new BlockTask(channel, length, indexes, middle, to, leaves));
+                return;
+            }
+            if (from == to) {
+                return;
+            }
+            int index = indexes[from];
+            long position = (long) index * blockSize;
+            MessageDigest digest = DigestStreams.getDigest(algorithm);
+            digest.update(LEAF_PREFIX);
+            try {
+                DigestStreams.update(digest, channel, position, Math.min(blockSize, length - position));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            leaves[index] = digest.digest();
+        }
+    }
+}
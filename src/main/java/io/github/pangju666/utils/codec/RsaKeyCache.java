@@ -0,0 +1,295 @@
+package io.github.pangju666.utils.codec;
+
+import javax.crypto.BadPaddingException;
+import javax.crypto.Cipher;
+import javax.crypto.IllegalBlockSizeException;
+import javax.crypto.NoSuchPaddingException;
+import java.security.*;
+import java.security.spec.InvalidKeySpecException;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.security.spec.X509EncodedKeySpec;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * RSA密钥缓存
+ * <p>
+ * 以密钥编码数据的SHA-256摘要为键，按近似的最近最少使用策略缓存解析后的{@link PublicKey}/{@link PrivateKey}，
+ * 并为每个密钥保留一组已初始化的{@link Cipher}，使用少量长期密钥的服务不再每次请求都解析ASN.1编码。
+ * 缓存基于{@link ConcurrentHashMap}，命中时只更新该密钥的访问序号，不加锁；
+ * 只有插入新密钥后超出上限时才加锁淘汰访问序号最小的密钥。
+ * 命中、未命中和淘汰次数可通过对应方法获取
+ *
+ * @author 胖橘
+ * @version 1.0
+ * @since 1.0
+ */
+public class RsaKeyCache {
+    /** 默认缓存密钥数量上限 */
+    public static final int DEFAULT_MAX_SIZE = 64;
+    /** 每个密钥默认保留的空闲加密器数量 */
+    public static final int DEFAULT_MAX_IDLE_CIPHERS = Runtime.getRuntime().availableProcessors();
+
+    private static final RsaKeyCache DEFAULT_CACHE = new RsaKeyCache(DEFAULT_MAX_SIZE, DEFAULT_MAX_IDLE_CIPHERS);
+    private static final ThreadLocal<MessageDigest> LOCAL_DIGEST = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new RuntimeException("SHA-256摘要算法在当前环境下不可用", e);
+        }
+    });
+
+    /** 缓存密钥数量上限 */
+    private final int maxSize;
+    /** 每个密钥保留的空闲加密器数量 */
+    private final int maxIdleCiphers;
+    private final Map<KeyId, KeyEntry> entries = new ConcurrentHashMap<>();
+    /** 访问序号，每插入一个密钥加1，命中的密钥记录当前序号 */
+    private final AtomicLong accessClock = new AtomicLong();
+    private final LongAdder hitCount = new LongAdder();
+    private final LongAdder missCount = new LongAdder();
+    private final LongAdder evictionCount = new LongAdder();
+
+    /**
+     * 构造方法
+     *
+     * @param maxSize        缓存密钥数量上限
+     * @param maxIdleCiphers 每个密钥保留的空闲加密器数量
+     */
+    public RsaKeyCache(int maxSize, int maxIdleCiphers) {
+        if (maxSize < 1 || maxIdleCiphers < 1) {
+            throw new IllegalArgumentException("缓存数量上限必须大于0");
+        }
+        this.maxSize = maxSize;
+        this.maxIdleCiphers = maxIdleCiphers;
+    }
+
+    /**
+     * 获取默认密钥缓存，{@link RsaUtil}内部使用该缓存
+     *
+     * @return 默认密钥缓存
+     */
+    public static RsaKeyCache getDefault() {
+        return DEFAULT_CACHE;
+    }
+
+    /**
+     * 获取解析后的公钥
+     *
+     * @param publicKey X509编码的公钥
+     * @return 公钥
+     */
+    public PublicKey getPublicKey(byte[] publicKey) {
+        return (PublicKey) getEntry(publicKey, false).key;
+    }
+
+    /**
+     * 获取解析后的私钥
+     *
+     * @param privateKey PKCS8编码的私钥
+     * @return 私钥
+     */
+    public PrivateKey getPrivateKey(byte[] privateKey) {
+        return (PrivateKey) getEntry(privateKey, true).key;
+    }
+
+    /**
+     * 使用缓存的公钥和加密器加密
+     *
+     * @param source    源数据
+     * @param publicKey X509编码的公钥
+     * @return 加密后的数据
+     */
+    public byte[] encrypt(byte[] source, byte[] publicKey) {
+        return doFinal(getEntry(publicKey, false), source, "RSA加密失败");
+    }
+
+    /**
+     * 使用缓存的私钥和加密器解密
+     *
+     * @param source     源数据
+     * @param privateKey PKCS8编码的私钥
+     * @return 解密后的数据
+     */
+    public byte[] decrypt(byte[] source, byte[] privateKey) {
+        return doFinal(getEntry(privateKey, true), source, "RSA解密失败");
+    }
+
+    public long getHitCount() {
+        return hitCount.sum();
+    }
+
+    public long getMissCount() {
+        return missCount.sum();
+    }
+
+    public long getEvictionCount() {
+        return evictionCount.sum();
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    /**
+     * 获取当前缓存的密钥数量
+     *
+     * @return 密钥数量
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * 清空缓存，不重置计数
+     */
+    public void clear() {
+        entries.clear();
+    }
+
+    private KeyEntry getEntry(byte[] encodedKey, boolean isPrivate) {
+        MessageDigest digest = LOCAL_DIGEST.get();
+        KeyId id = new KeyId(isPrivate, digest.digest(encodedKey));
+        KeyEntry entry = entries.get(id);
+        if (entry != null) {
+            hitCount.increment();
+            long now = accessClock.get();
+            // 序号未变化时不写入，避免多个线程反复写同一缓存行
+            if (entry.lastAccess != now) {
+                entry.lastAccess = now;
+            }
+            return entry;
+        }
+        missCount.increment();
+        // 并发未命中时可能重复解析，结果等价
+        entry = new KeyEntry(isPrivate ? parsePrivateKey(encodedKey) : parsePublicKey(encodedKey),
+                isPrivate ? Cipher.DECRYPT_MODE : Cipher.ENCRYPT_MODE, maxIdleCiphers);
+        entry.lastAccess = accessClock.incrementAndGet();
+        KeyEntry existing = entries.putIfAbsent(id, entry);
+        if (existing != null) {
+            return existing;
+        }
+        if (entries.size() > maxSize) {
+            evict();
+        }
+        return entry;
+    }
+
+    /**
+     * 淘汰访问序号最小的密钥直至不超过上限
+     */
+    private synchronized void evict() {
+        while (entries.size() > maxSize) {
+            Map.Entry<KeyId, KeyEntry> eldest = null;
+            for (Map.Entry<KeyId, KeyEntry> candidate : entries.entrySet()) {
+                if (eldest == null || candidate.getValue().lastAccess < eldest.getValue().lastAccess) {
+                    eldest = candidate;
+                }
+            }
+            if (eldest == null) {
+                return;
+            }
+            if (entries.remove(eldest.getKey(), eldest.getValue())) {
+                evictionCount.increment();
+            }
+        }
+    }
+
+    private static byte[] doFinal(KeyEntry entry, byte[] source, String errorMessage) {
+        Cipher cipher = entry.ciphers.poll();
+        if (cipher == null) {
+            cipher = entry.createCipher();
+        }
+        try {
+            byte[] result = cipher.doFinal(source);
+            entry.ciphers.offer(cipher);
+            return result;
+        } catch (IllegalBlockSizeException | BadPaddingException e) {
+            // 加密器状态不确定，直接丢弃
+            throw new RuntimeException(errorMessage, e);
+        }
+    }
+
+    private static PublicKey parsePublicKey(byte[] publicKey) {
+        try {
+            KeyFactory keyFactory = KeyFactory.getInstance(RsaUtil.ALGORITHM_NAME);
+            return keyFactory.generatePublic(new X509EncodedKeySpec(publicKey));
+        } catch (NoSuchAlgorithmException e) {
+            throw new RuntimeException("RSA加密算法在当前环境下不可用", e);
+        } catch (InvalidKeySpecException e) {
+            throw new RuntimeException("RSA公钥无效", e);
+        }
+    }
+
+    private static PrivateKey parsePrivateKey(byte[] privateKey) {
+        try {
+            KeyFactory keyFactory = KeyFactory.getInstance(RsaUtil.ALGORITHM_NAME);
+            return keyFactory.generatePrivate(new PKCS8EncodedKeySpec(privateKey));
+        } catch (NoSuchAlgorithmException e) {
+            throw new RuntimeException("RSA加密算法在当前环境下不可用", e);
+        } catch (InvalidKeySpecException e) {
+            throw new RuntimeException("RSA私钥无效", e);
+        }
+    }
+
+    private static final class KeyEntry {
+        private final Key key;
+        private final int mode;
+        /** 最近一次访问时的访问序号 */
+        private volatile long lastAccess;
+        /** 空闲的已初始化加密器 */
+        private final BlockingQueue<Cipher> ciphers;
+
+        KeyEntry(Key key, int mode, int maxIdleCiphers) {
+            this.key = key;
+            this.mode = mode;
+            this.ciphers = new ArrayBlockingQueue<>(maxIdleCiphers);
+        }
+
+        Cipher createCipher() {
+            try {
+                Cipher cipher = CipherProviderSelector.getDefault().getCipher(RsaUtil.ALGORITHM_NAME);
+                cipher.init(mode, key);
+                return cipher;
+            } catch (NoSuchAlgorithmException | NoSuchPaddingException e) {
+                throw new RuntimeException("RSA加密算法在当前环境下不可用", e);
+            } catch (InvalidKeyException e) {
+                throw new RuntimeException(mode == Cipher.ENCRYPT_MODE ? "RSA加密失败" : "RSA解密失败", e);
+            }
+        }
+    }
+
+    private static final class KeyId {
+        private final boolean isPrivate;
+        private final byte[] digest;
+        private final int hash;
+
+        KeyId(boolean isPrivate, byte[] digest) {
+            this.isPrivate = isPrivate;
+            this.digest = digest;
+            this.hash = Arrays.hashCode(digest);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof KeyId)) {
+                return false;
+            }
+            KeyId that = (KeyId) o;
+            return isPrivate == that.isPrivate && Arrays.equals(digest, that.digest);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
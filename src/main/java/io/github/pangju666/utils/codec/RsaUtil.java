@@ -1,21 +1,64 @@
 package io.github.pangju666.utils.codec;
 
 import javax.crypto.*;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.*;
 import java.nio.charset.StandardCharsets;
 import java.security.*;
+import java.security.spec.AlgorithmParameterSpec;
 import java.security.spec.InvalidKeySpecException;
-import java.security.spec.PKCS8EncodedKeySpec;
-import java.security.spec.X509EncodedKeySpec;
+import java.security.spec.MGF1ParameterSpec;
+import java.security.spec.PSSParameterSpec;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
 
 /**
  * RSA加密工具类
+ * <p>
+ * RSA只能直接加密长度小于密钥长度的数据，任意长度的数据请使用信封加密{@link #seal(byte[], byte[])}，
+ * 解析后的密钥和已初始化的加密器由{@link RsaKeyCache#getDefault()}缓存，签名对象按线程复用。
+ * 信封格式：
+ * <pre>
+ * 版本(1字节) | 会话密钥密文长度(2字节) | RSA加密的AES会话密钥 | AES/GCM分块密文(格式见{@link AesUtils})
+ * </pre>
  *
  * @author 胖橘
  * @version 1.0
  * @since 1.0
  */
 public class RsaUtil {
+    /** 签名算法 */
+    public enum SignatureAlgorithm {
+        /** SHA256withRSA(PKCS#1 v1.5) */
+        SHA256_WITH_RSA("SHA256withRSA", null),
+        /** RSASSA-PSS，摘要和MGF1均使用SHA-256，盐长度32字节，需要当前环境支持RSASSA-PSS */
+        SHA256_WITH_RSA_PSS("RSASSA-PSS", new PSSParameterSpec("SHA-256", "MGF1",
+                MGF1ParameterSpec.SHA256, 32, PSSParameterSpec.TRAILER_FIELD_BC));
+
+        SignatureAlgorithm(String algorithm, AlgorithmParameterSpec parameterSpec) {
+            this.algorithm = algorithm;
+            this.parameterSpec = parameterSpec;
+        }
+
+        public String getAlgorithm() {
+            return algorithm;
+        }
+
+        private final String algorithm;
+        private final AlgorithmParameterSpec parameterSpec;
+    }
+
     protected static final String ALGORITHM_NAME = "RSA";
+    protected static final String ENVELOPE_TRANSFORMATION = "RSA/ECB/OAEPWithSHA-256AndMGF1Padding";
+    protected static final int ENVELOPE_VERSION = 1;
+    protected static final int ENVELOPE_SESSION_KEY_SIZE = 128;
+    protected static final ThreadLocal<Signature[]> LOCAL_SIGNATURES =
+            ThreadLocal.withInitial(() -> new Signature[SignatureAlgorithm.values().length]);
 
     protected RsaUtil() {
     }
@@ -56,18 +99,7 @@ public class RsaUtil {
      * @return 加密后的数据
      */
     public static byte[] encode(byte[] source, byte[] publicKey) {
-        try {
-            Cipher cipher = Cipher.getInstance(ALGORITHM_NAME);
-            KeyFactory keyFactory = KeyFactory.getInstance(ALGORITHM_NAME);
-            X509EncodedKeySpec encodedKeySpec = new X509EncodedKeySpec(publicKey);
-            cipher.init(Cipher.ENCRYPT_MODE, keyFactory.generatePublic(encodedKeySpec));
-            return cipher.doFinal(source);
-        } catch (NoSuchAlgorithmException | NoSuchPaddingException e) {
-            throw new RuntimeException("RSA加密算法在当前环境下不可用", e);
-        } catch (InvalidKeySpecException | InvalidKeyException |
-                IllegalBlockSizeException | BadPaddingException e) {
-            throw new RuntimeException("RSA加密失败", e);
-        }
+        return RsaKeyCache.getDefault().encrypt(source, publicKey);
     }
 
     /**
@@ -89,18 +121,7 @@ public class RsaUtil {
      * @return 解密后的数据
      */
     public static byte[] decode(byte[] source, byte[] privateKey) {
-        try {
-            Cipher cipher = Cipher.getInstance(ALGORITHM_NAME);
-            KeyFactory keyFactory = KeyFactory.getInstance(ALGORITHM_NAME);
-            PKCS8EncodedKeySpec encodedKeySpec = new PKCS8EncodedKeySpec(privateKey);
-            cipher.init(Cipher.DECRYPT_MODE, keyFactory.generatePrivate(encodedKeySpec));
-            return cipher.doFinal(source);
-        } catch (NoSuchAlgorithmException | NoSuchPaddingException e) {
-            throw new RuntimeException("RSA加密算法在当前环境下不可用", e);
-        } catch (InvalidKeySpecException | InvalidKeyException |
-                IllegalBlockSizeException | BadPaddingException e) {
-            throw new RuntimeException("RSA加密失败", e);
-        }
+        return RsaKeyCache.getDefault().decrypt(source, privateKey);
     }
 
     /**
@@ -114,6 +135,279 @@ public class RsaUtil {
         return decode(source.getBytes(), privateKey);
     }
 
+    /**
+     * 信封加密，随机生成AES会话密钥加密数据，再使用RSA公钥加密会话密钥
+     *
+     * @param source 源数据
+     * @param publicKey 公钥
+     * @return 信封数据
+     */
+    public static byte[] seal(byte[] source, byte[] publicKey) {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream(source.length + 512);
+        try {
+            seal(new ByteArrayInputStream(source), outputStream, publicKey);
+        } catch (IOException e) {
+            throw new RuntimeException("RSA加密失败", e);
+        }
+        return outputStream.toByteArray();
+    }
+
+    /**
+     * 信封加密，随机生成AES会话密钥流式加密数据，再使用RSA公钥加密会话密钥，整个过程只执行一次RSA运算
+     * <p>
+     * 不会关闭输入流和输出流
+     *
+     * @param inputStream 源数据输入流
+     * @param outputStream 信封数据输出流
+     * @param publicKey 公钥
+     * @throws IOException 读写流失败时抛出
+     */
+    public static void seal(InputStream inputStream, OutputStream outputStream, byte[] publicKey)
+            throws IOException {
+        byte[] sessionKey = AesUtils.generateSecretKey(ENVELOPE_SESSION_KEY_SIZE);
+        byte[] wrappedKey;
+        try {
+            Cipher cipher = CipherProviderSelector.getDefault().getCipher(ENVELOPE_TRANSFORMATION);
+            cipher.init(Cipher.WRAP_MODE, toPublicKey(publicKey));
+            wrappedKey = cipher.wrap(new SecretKeySpec(sessionKey, AesUtils.ALGORITHM_NAME));
+        } catch (NoSuchAlgorithmException | NoSuchPaddingException e) {
+            throw new RuntimeException("RSA加密算法在当前环境下不可用", e);
+        } catch (InvalidKeyException | IllegalBlockSizeException e) {
+            throw new RuntimeException("RSA加密失败", e);
+        }
+        outputStream.write(ENVELOPE_VERSION);
+        outputStream.write(wrappedKey.length >>> 8);
+        outputStream.write(wrappedKey.length);
+        outputStream.write(wrappedKey);
+        AesUtils.encrypt(inputStream, outputStream, sessionKey);
+    }
+
+    /**
+     * 信封解密
+     *
+     * @param source 信封数据
+     * @param privateKey 私钥
+     * @return 解密后的数据
+     */
+    public static byte[] open(byte[] source, byte[] privateKey) {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream(source.length);
+        try {
+            open(new ByteArrayInputStream(source), outputStream, privateKey);
+        } catch (IOException e) {
+            throw new RuntimeException("RSA解密失败", e);
+        }
+        return outputStream.toByteArray();
+    }
+
+    /**
+     * 信封解密，使用RSA私钥解密会话密钥后流式解密数据
+     * <p>
+     * 若中途认证失败则抛出异常，此时已写出的数据应当丢弃。不会关闭输入流和输出流
+     *
+     * @param inputStream 信封数据输入流
+     * @param outputStream 解密数据输出流
+     * @param privateKey 私钥
+     * @throws IOException 读写流失败时抛出
+     */
+    public static void open(InputStream inputStream, OutputStream outputStream, byte[] privateKey)
+            throws IOException {
+        byte[] head = new byte[3];
+        if (AesUtils.readFully(inputStream, head) != head.length || head[0] != ENVELOPE_VERSION) {
+            throw new RuntimeException("RSA解密失败，数据格式错误");
+        }
+        byte[] wrappedKey = new byte[((head[1] & 0xFF) << 8) | (head[2] & 0xFF)];
+        if (AesUtils.readFully(inputStream, wrappedKey) != wrappedKey.length) {
+            throw new RuntimeException("RSA解密失败，数据格式错误");
+        }
+        byte[] sessionKey;
+        try {
+            Cipher cipher = CipherProviderSelector.getDefault().getCipher(ENVELOPE_TRANSFORMATION);
+            cipher.init(Cipher.UNWRAP_MODE, toPrivateKey(privateKey));
+            sessionKey = cipher.unwrap(wrappedKey, AesUtils.ALGORITHM_NAME, Cipher.SECRET_KEY).getEncoded();
+        } catch (NoSuchAlgorithmException | NoSuchPaddingException e) {
+            throw new RuntimeException("RSA加密算法在当前环境下不可用", e);
+        } catch (InvalidKeyException e) {
+            throw new RuntimeException("RSA解密失败", e);
+        }
+        AesUtils.decrypt(inputStream, outputStream, sessionKey);
+    }
+
+    /**
+     * 使用SHA256withRSA签名
+     *
+     * @param source 源数据
+     * @param privateKey 私钥
+     * @return 签名
+     */
+    public static byte[] sign(byte[] source, byte[] privateKey) {
+        return sign(source, privateKey, SignatureAlgorithm.SHA256_WITH_RSA);
+    }
+
+    /**
+     * 签名
+     *
+     * @param source 源数据
+     * @param privateKey 私钥
+     * @param algorithm 签名算法
+     * @return 签名
+     */
+    public static byte[] sign(byte[] source, byte[] privateKey, SignatureAlgorithm algorithm) {
+        Signature signature = getSignature(algorithm);
+        try {
+            signature.initSign(toPrivateKey(privateKey));
+            signature.update(source);
+            return signature.sign();
+        } catch (InvalidKeyException | SignatureException e) {
+            throw new RuntimeException("RSA签名失败", e);
+        }
+    }
+
+    /**
+     * 使用SHA256withRSA验证签名
+     *
+     * @param source 源数据
+     * @param sign 签名
+     * @param publicKey 公钥
+     * @return 签名是否有效
+     */
+    public static boolean verify(byte[] source, byte[] sign, byte[] publicKey) {
+        return verify(source, sign, publicKey, SignatureAlgorithm.SHA256_WITH_RSA);
+    }
+
+    /**
+     * 验证签名
+     *
+     * @param source 源数据
+     * @param sign 签名
+     * @param publicKey 公钥
+     * @param algorithm 签名算法
+     * @return 签名是否有效，签名格式错误时同样返回false
+     */
+    public static boolean verify(byte[] source, byte[] sign, byte[] publicKey, SignatureAlgorithm algorithm) {
+        Signature signature = getSignature(algorithm);
+        try {
+            signature.initVerify(toPublicKey(publicKey));
+            signature.update(source);
+            return signature.verify(sign);
+        } catch (SignatureException e) {
+            return false;
+        } catch (InvalidKeyException e) {
+            throw new RuntimeException("RSA验签失败", e);
+        }
+    }
+
+    /**
+     * 使用SHA256withRSA批量验证签名，在公共线程池上并行执行
+     *
+     * @param items 待验证数据
+     * @return 验证结果，第i位为true表示第i项签名有效
+     */
+    public static BitSet verifyAll(List<SignedItem> items) {
+        return verifyAll(items, SignatureAlgorithm.SHA256_WITH_RSA, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * 批量验证签名，按处理器数量将数据分批后提交至线程池并行执行，每个线程复用同一个签名对象
+     * <p>
+     * 公钥无效或签名格式错误的项记为无效，不影响其他项
+     *
+     * @param items 待验证数据
+     * @param algorithm 签名算法
+     * @param executor 执行验证的线程池
+     * @return 验证结果，第i位为true表示第i项签名有效
+     */
+    public static BitSet verifyAll(List<SignedItem> items, SignatureAlgorithm algorithm, Executor executor) {
+        int size = items.size();
+        boolean[] results = new boolean[size];
+        int batchSize = Math.max(1, (size + Runtime.getRuntime().availableProcessors() - 1)
+                / Runtime.getRuntime().availableProcessors());
+        if (batchSize >= size) {
+            verifyRange(items, algorithm, results, 0, size);
+        } else {
+            List<CompletableFuture<Void>> futures = new ArrayList<>();
+            for (int from = 0; from < size; from += batchSize) {
+                int start = from;
+                int end = Math.min(size, from + batchSize);
+                futures.add(CompletableFuture.runAsync(() -> verifyRange(items, algorithm, results, start, end),
+                        executor));
+            }
+            try {
+                CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0])).join();
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof RuntimeException) {
+                    throw (RuntimeException) e.getCause();
+                }
+                throw e;
+            }
+        }
+
+        BitSet bitSet = new BitSet(size);
+        for (int i = 0; i < size; i++) {
+            if (results[i]) {
+                bitSet.set(i);
+            }
+        }
+        return bitSet;
+    }
+
+    private static void verifyRange(List<SignedItem> items, SignatureAlgorithm algorithm, boolean[] results,
+                                    int from, int to) {
+        for (int i = from; i < to; i++) {
+            results[i] = verifyItem(items.get(i), algorithm);
+        }
+    }
+
+    /**
+     * 验证单项签名，公钥无效时返回false
+     */
+    private static boolean verifyItem(SignedItem item, SignatureAlgorithm algorithm) {
+        PublicKey publicKey;
+        try {
+            publicKey = toPublicKey(item.getPublicKey());
+        } catch (RuntimeException e) {
+            if (e.getCause() instanceof InvalidKeySpecException) {
+                return false;
+            }
+            throw e;
+        }
+        Signature signature = getSignature(algorithm);
+        try {
+            signature.initVerify(publicKey);
+            signature.update(item.getSource());
+            return signature.verify(item.getSign());
+        } catch (InvalidKeyException | SignatureException e) {
+            return false;
+        }
+    }
+
+    /**
+     * 获取当前线程复用的签名对象
+     */
+    protected static Signature getSignature(SignatureAlgorithm algorithm) {
+        Signature[] signatures = LOCAL_SIGNATURES.get();
+        Signature signature = signatures[algorithm.ordinal()];
+        if (signature == null) {
+            try {
+                signature = Signature.getInstance(algorithm.algorithm);
+                if (algorithm.parameterSpec != null) {
+                    signature.setParameter(algorithm.parameterSpec);
+                }
+            } catch (NoSuchAlgorithmException | InvalidAlgorithmParameterException e) {
+                throw new RuntimeException(algorithm.algorithm + "签名算法在当前环境下不可用", e);
+            }
+            signatures[algorithm.ordinal()] = signature;
+        }
+        return signature;
+    }
+
+    protected static PublicKey toPublicKey(byte[] publicKey) {
+        return RsaKeyCache.getDefault().getPublicKey(publicKey);
+    }
+
+    protected static PrivateKey toPrivateKey(byte[] privateKey) {
+        return RsaKeyCache.getDefault().getPrivateKey(privateKey);
+    }
+
     public static class RsaKeyPair {
         private byte[] publicKey;
         private byte[] privateKey;
@@ -142,4 +436,43 @@ public class RsaUtil {
             this.privateKey = privateKey;
         }
     }
+
+    public static class SignedItem {
+        private byte[] source;
+        private byte[] sign;
+        private byte[] publicKey;
+
+        public SignedItem() {
+        }
+
+        public SignedItem(byte[] source, byte[] sign, byte[] publicKey) {
+            this.source = source;
+            this.sign = sign;
+            this.publicKey = publicKey;
+        }
+
+        public byte[] getSource() {
+            return source;
+        }
+
+        public void setSource(byte[] source) {
+            this.source = source;
+        }
+
+        public byte[] getSign() {
+            return sign;
+        }
+
+        public void setSign(byte[] sign) {
+            this.sign = sign;
+        }
+
+        public byte[] getPublicKey() {
+            return publicKey;
+        }
+
+        public void setPublicKey(byte[] publicKey) {
+            this.publicKey = publicKey;
+        }
+    }
 }
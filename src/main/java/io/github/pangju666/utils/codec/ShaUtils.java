@@ -10,6 +10,7 @@ import org.apache.commons.codec.digest.Sha2Crypt;
  * @since 1.0
  *
  * @see org.apache.commons.codec.digest.Sha2Crypt
+ * @see DigestStreams
  */
 public class ShaUtils extends Sha2Crypt {
     protected ShaUtils() {
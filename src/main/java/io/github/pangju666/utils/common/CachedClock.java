@@ -0,0 +1,177 @@
+package io.github.pangju666.utils.common;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 缓存时钟
+ * <p>
+ * 由一个后台守护线程按固定精度刷新volatile的毫秒数，读取当前时间只是一次volatile读，
+ * 适合每秒需要获取大量时间戳、但可以接受精度内误差的场景(如日志、统计、过期判断)。
+ * 精度过高时后台线程频繁唤醒，节省的开销还不如直接调用{@link System#currentTimeMillis()}，因此默认精度为
+ * {@value #DEFAULT_RESOLUTION_MILLIS}毫秒，可以通过系统属性{@value #RESOLUTION_PROPERTY}修改。
+ * 默认时钟的后台线程(cached-clock-N)在首次调用{@link #getDefault()}时启动并一直运行至JVM退出，
+ * 其他类不会隐式启动该线程，{@link DateUtils}需要调用{@link DateUtils#setClock(Clock)}后才使用缓存时钟；
+ * 自行创建的实例在不再使用时应调用{@link #close()}
+ * <pre>
+ * 如：
+ * long now = CachedClock.getDefault().millis();
+ * LocalDateTime dateTime = LocalDateTime.now(CachedClock.getDefault());
+ * DateUtils.setClock(CachedClock.getDefault());
+ * </pre>
+ *
+ * @author 胖橘
+ * @version 1.0
+ * @since 1.0
+ */
+public class CachedClock extends Clock implements AutoCloseable {
+    /** 默认精度，单位为毫秒 */
+    public static final long DEFAULT_RESOLUTION_MILLIS = 16L;
+    /** 指定默认时钟精度(毫秒)的系统属性 */
+    public static final String RESOLUTION_PROPERTY = "pangju666.cachedClock.resolutionMillis";
+
+    private static final AtomicInteger CLOCK_NUMBER = new AtomicInteger();
+
+    /** 精度，单位为毫秒 */
+    private final long resolutionMillis;
+    private final ScheduledExecutorService ticker;
+    private volatile long millis;
+
+    /**
+     * 构造方法，创建后立即启动后台线程
+     *
+     * @param resolution 精度
+     * @param unit       精度单位，不能小于1毫秒
+     */
+    public CachedClock(long resolution, TimeUnit unit) {
+        long resolutionMillis = unit.toMillis(resolution);
+        if (resolutionMillis < 1) {
+            throw new IllegalArgumentException("精度不能小于1毫秒");
+        }
+        this.resolutionMillis = resolutionMillis;
+        this.millis = System.currentTimeMillis();
+        String name = "cached-clock-" + CLOCK_NUMBER.incrementAndGet();
+        ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(1, runnable -> {
+            Thread thread = new Thread(runnable, name);
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.scheduleAtFixedRate(() -> millis = System.currentTimeMillis(), resolutionMillis,
+                resolutionMillis, TimeUnit.MILLISECONDS);
+        this.ticker = executor;
+    }
+
+    /**
+     * 获取默认时钟，精度取系统属性{@value #RESOLUTION_PROPERTY}，未设置时为{@value #DEFAULT_RESOLUTION_MILLIS}毫秒
+     * <p>
+     * 首次调用时启动后台守护线程，该线程在JVM运行期间一直存在。默认时钟由所有调用方共享，调用{@link #close()}不做任何操作
+     *
+     * @return 默认时钟
+     */
+    public static CachedClock getDefault() {
+        return DefaultHolder.CLOCK;
+    }
+
+    /**
+     * 获取缓存的当前毫秒数
+     *
+     * @return 毫秒数
+     */
+    @Override
+    public long millis() {
+        return millis;
+    }
+
+    @Override
+    public Instant instant() {
+        return Instant.ofEpochMilli(millis);
+    }
+
+    /**
+     * 返回系统默认时区
+     *
+     * @return 时区
+     */
+    @Override
+    public ZoneId getZone() {
+        return ZoneId.systemDefault();
+    }
+
+    /**
+     * 获取使用指定时区、共享本时钟时间的时钟
+     *
+     * @param zone 时区
+     * @return 时钟
+     */
+    @Override
+    public Clock withZone(ZoneId zone) {
+        return new ZonedClock(this, zone);
+    }
+
+    public long getResolutionMillis() {
+        return resolutionMillis;
+    }
+
+    /**
+     * 停止后台线程，之后获取的时间不再更新，{@link #getDefault()}返回的默认时钟不受影响
+     */
+    @Override
+    public void close() {
+        ticker.shutdownNow();
+    }
+
+    private static final class DefaultHolder {
+        private static final CachedClock CLOCK = new DefaultClock(Long.getLong(RESOLUTION_PROPERTY, DEFAULT_RESOLUTION_MILLIS));
+    }
+
+    /**
+     * 默认时钟，由所有调用方共享，关闭时不做任何操作
+     */
+    private static final class DefaultClock extends CachedClock {
+        DefaultClock(long resolutionMillis) {
+            super(resolutionMillis, TimeUnit.MILLISECONDS);
+        }
+
+        /**
+         * 不做任何操作，默认时钟的后台线程在JVM运行期间一直存在
+         */
+        @Override
+        public void close() {
+        }
+    }
+
+    private static final class ZonedClock extends Clock {
+        private final CachedClock clock;
+        private final ZoneId zone;
+
+        ZonedClock(CachedClock clock, ZoneId zone) {
+            this.clock = clock;
+            this.zone = zone;
+        }
+
+        @Override
+        public long millis() {
+            return clock.millis();
+        }
+
+        @Override
+        public Instant instant() {
+            return clock.instant();
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return zone;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return new ZonedClock(clock, zone);
+        }
+    }
+}
@@ -1,14 +1,30 @@
 package io.github.pangju666.utils.common;
 
-import org.apache.commons.lang3.ObjectUtils;
+import org.apache.commons.lang3.Validate;
+import org.apache.commons.lang3.time.FastDateFormat;
 
 import java.text.ParseException;
-import java.text.SimpleDateFormat;
-import java.util.Calendar;
+import java.time.Clock;
+import java.time.ZoneId;
 import java.util.Date;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TimeZone;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 
 /**
  * 日期工具类
+ * <p>
+ * 以格式字符串为参数的格式化方法与{@link java.text.SimpleDateFormat}的结果一致(包括u、Y、E、a等字母的含义，
+ * 以及1582-10-15之前按儒略历计算的日期)，使用{@link #getFormatter(String, ZoneId)}返回的线程安全的{@link FastDateFormat}，
+ * 按格式、时区和区域设置缓存，数量上限为{@link #MAX_FORMATTER_CACHE_SIZE}，不使用commons-lang3不限数量的全局缓存。
+ * {@link #DATE_FORMAT}和{@link #DATETIME_FORMAT}两种格式由{@link FixedDateFormat}处理。
+ * 日期计算直接基于毫秒数和{@link ZoneOffsetTable}，不创建{@link java.util.Calendar}，
+ * 批量处理时可以使用以毫秒数和{@link ZoneId}为参数的重载方法。日期参数为空时使用的当前时间来自{@link #setClock(Clock)}设置的时钟，
+ * 默认为{@link Clock#systemUTC()}，即{@link System#currentTimeMillis()}；每秒需要获取大量当前时间时可以设置为{@link CachedClock#getDefault()}
  *
  * @author 胖橘
  * @version 1.0
@@ -17,6 +33,17 @@ import java.util.Date;
 public class DateUtils extends org.apache.commons.lang3.time.DateUtils {
     public static final String DATE_FORMAT = "yyyy-MM-dd";
     public static final String DATETIME_FORMAT = "yyyy-MM-dd HH:mm:ss";
+    /** 格式化器缓存数量上限，超出后新的格式不再缓存 */
+    public static final int MAX_FORMATTER_CACHE_SIZE = 256;
+
+    /** 批量处理时单个任务处理的元素数量，超出后拆分并行处理 */
+    public static final int PARALLEL_THRESHOLD = 16 * 1024;
+
+    private static final long MILLIS_PER_SECOND = 1000L;
+    private static final Map<FormatKey, FastDateFormat> FORMATTER_CACHE = new ConcurrentHashMap<>();
+
+    /** 获取当前时间使用的时钟 */
+    private static volatile Clock clock = Clock.systemUTC();
 
     public enum Base {
         /** 日 */
@@ -44,22 +71,52 @@ public class DateUtils extends org.apache.commons.lang3.time.DateUtils {
     /** 构造方法私有化，防止生成实例 */
     private DateUtils() {}
 
+    /**
+     * 设置获取当前时间使用的时钟
+     * <p>
+     * 只使用时钟的毫秒数，不使用其时区。设置为{@link CachedClock}时误差不超过其精度
+     *
+     * @param clock 时钟
+     */
+    public static void setClock(Clock clock) {
+        Validate.notNull(clock, "时钟不能为空");
+        DateUtils.clock = clock;
+    }
+
+    /**
+     * 获取当前时间使用的时钟
+     *
+     * @return 时钟，默认为{@link Clock#systemUTC()}
+     */
+    public static Clock getClock() {
+        return clock;
+    }
+
+    /**
+     * 获取当前时间的毫秒数，读取{@link #getClock()}
+     *
+     * @return 当前时间的毫秒数
+     */
+    public static long currentTimeMillis() {
+        return clock.millis();
+    }
+
     /**
      * 获取当前系统日期字符串
      *
      * @return 当前系统时间字符串，格式为：yyyy-MM-dd
      */
     public static String getCurrentDateStr() {
-        return formatDate(null, DATE_FORMAT);
+        return FixedDateFormat.systemDefault().currentDate();
     }
 
     /**
      * 获取当前系统日期字符串
      *
-     * @return 当前系统时间字符串，格式为：yyyy-MM-dd-HH:mm:ss
+     * @return 当前系统时间字符串，格式为：yyyy-MM-dd HH:mm:ss
      */
     public static String getCurrentDateTimeStr() {
-        return formatDate(null, DATETIME_FORMAT);
+        return FixedDateFormat.systemDefault().currentDateTime();
     }
 
     /**
@@ -69,9 +126,88 @@ public class DateUtils extends org.apache.commons.lang3.time.DateUtils {
      * @return 格式化后的时间字符串
      */
     public static String formatDate(Date date, final String pattern) {
-        date = ObjectUtils.defaultIfNull(date, new Date());
-        SimpleDateFormat dateFormat = new SimpleDateFormat(pattern);
-        return dateFormat.format(date);
+        long milliseconds = date == null ? currentTimeMillis() : date.getTime();
+        if (DATE_FORMAT.equals(pattern)) {
+            return FixedDateFormat.systemDefault().formatDate(milliseconds);
+        }
+        if (DATETIME_FORMAT.equals(pattern)) {
+            return FixedDateFormat.systemDefault().formatDateTime(milliseconds);
+        }
+        return getFormatter(pattern).format(milliseconds);
+    }
+
+    /**
+     * 使用自定义格式, 将时间字符串追加至调用方提供的{@link StringBuilder}或其他{@link Appendable}
+     *
+     * @param date       日期，为空则使用当前日期
+     * @param pattern    时间序列化格式字符串，如：yyyy-MM-dd
+     * @param appendable 追加目标
+     * @return 追加目标
+     */
+    public static <A extends Appendable> A formatTo(Date date, final String pattern, A appendable) {
+        return formatTo(date == null ? currentTimeMillis() : date.getTime(), pattern, appendable);
+    }
+
+    /**
+     * 使用自定义格式, 将时间字符串追加至调用方提供的{@link StringBuilder}或其他{@link Appendable}
+     * <p>
+     * 只有{@link #DATE_FORMAT}和{@link #DATETIME_FORMAT}追加至{@link StringBuilder}时不分配对象，
+     * 其他格式由{@link FastDateFormat}处理，每次调用会创建一个{@link java.util.Calendar}
+     *
+     * @param milliseconds 毫秒数
+     * @param pattern      时间序列化格式字符串，如：yyyy-MM-dd
+     * @param appendable   追加目标
+     * @return 追加目标
+     */
+    public static <A extends Appendable> A formatTo(long milliseconds, final String pattern, A appendable) {
+        if (appendable instanceof StringBuilder && FixedDateFormat.isSupported(pattern)) {
+            FixedDateFormat format = FixedDateFormat.systemDefault();
+            if (DATE_FORMAT.equals(pattern)) {
+                format.formatDate(milliseconds, (StringBuilder) appendable);
+            } else {
+                format.formatDateTime(milliseconds, (StringBuilder) appendable);
+            }
+            return appendable;
+        }
+        return getFormatter(pattern).format(milliseconds, appendable);
+    }
+
+    /**
+     * 获取格式在系统默认时区和区域设置下的格式化器
+     *
+     * @param pattern 时间序列化格式字符串，如：yyyy-MM-dd
+     * @return 格式化器
+     * @see #getFormatter(String, ZoneId)
+     */
+    public static FastDateFormat getFormatter(final String pattern) {
+        return getFormatter(pattern, systemZone());
+    }
+
+    /**
+     * 获取格式在指定时区和系统默认区域设置下的格式化器
+     * <p>
+     * 格式字母的含义与{@link java.text.SimpleDateFormat}一致，而非{@link java.time.format.DateTimeFormatter}：
+     * u表示星期序号(1为星期一)，Y表示基于星期的年份，1582-10-15之前的日期按儒略历计算。
+     * 格式化器不可变且线程安全，按格式、时区和区域设置缓存，缓存数量达到上限后新的组合每次重新创建
+     *
+     * @param pattern 时间序列化格式字符串，如：yyyy-MM-dd
+     * @param zone    时区
+     * @return 格式化器
+     * @throws IllegalArgumentException 格式无效时抛出
+     */
+    public static FastDateFormat getFormatter(final String pattern, ZoneId zone) {
+        FormatKey key = new FormatKey(pattern, zone, Locale.getDefault());
+        FastDateFormat formatter = FORMATTER_CACHE.get(key);
+        if (formatter == null) {
+            formatter = new BoundedFastDateFormat(pattern, TimeZone.getTimeZone(zone), key.locale);
+            if (FORMATTER_CACHE.size() < MAX_FORMATTER_CACHE_SIZE) {
+                FastDateFormat previous = FORMATTER_CACHE.putIfAbsent(key, formatter);
+                if (previous != null) {
+                    formatter = previous;
+                }
+            }
+        }
+        return formatter;
     }
 
     /**
@@ -81,9 +217,7 @@ public class DateUtils extends org.apache.commons.lang3.time.DateUtils {
      * @return 当前日期总毫秒数
      */
     public static long toMilliseconds(final Date date) {
-        Calendar calendar = Calendar.getInstance();
-        calendar.setTime(date);
-        return calendar.getTimeInMillis();
+        return date.getTime();
     }
 
     /**
@@ -93,9 +227,7 @@ public class DateUtils extends org.apache.commons.lang3.time.DateUtils {
      * @return 当前毫秒数所表示的日期
      */
     public static Date fromMillisecond(long milliseconds) {
-        Calendar calendar = Calendar.getInstance();
-        calendar.setTimeInMillis(milliseconds);
-        return calendar.getTime();
+        return new Date(milliseconds);
     }
 
     /**
@@ -118,18 +250,23 @@ public class DateUtils extends org.apache.commons.lang3.time.DateUtils {
      * @return 相差结果, 如果相等或起始日期大于结束日期则返回0
      */
     public static long subTime(Date startDate, Date endDate, final Base base) {
-        startDate = ObjectUtils.defaultIfNull(startDate, new Date());
-        endDate = ObjectUtils.defaultIfNull(endDate, new Date());
+        long now = currentTimeMillis();
+        return subTime(startDate == null ? now : startDate.getTime(), endDate == null ? now : endDate.getTime(), base);
+    }
 
-        Calendar startCal = toCalendar(startDate);
-        Calendar endCal = toCalendar(endDate);
-        if (startCal.compareTo(endCal) >= 0) {
+    /**
+     * 计算两个时间之间的差值
+     *
+     * @param startMillis 起始毫秒数
+     * @param endMillis   结束毫秒数
+     * @param base        结果类型，如天，小时，分钟等
+     * @return 相差结果, 如果相等或起始时间大于结束时间则返回0
+     */
+    public static long subTime(long startMillis, long endMillis, final Base base) {
+        if (startMillis >= endMillis) {
             return 0L;
         }
-
-        long time = startDate.getTime();
-        long anotherTime = endDate.getTime();
-        return (time - anotherTime) / base.base;
+        return (endMillis - startMillis) / base.base;
     }
 
     /**
@@ -139,10 +276,19 @@ public class DateUtils extends org.apache.commons.lang3.time.DateUtils {
      * @return 布尔值
      */
     public static boolean isLeapYear(final Date date) {
-        Calendar calendar = Calendar.getInstance();
-        calendar.setTime(date);
-        int year = calendar.get(Calendar.YEAR);
-        return (year % 10 == 0 && year % 100 != 0) || year % 400 == 0;
+        return isLeapYear(date.getTime(), systemZone());
+    }
+
+    /**
+     * 判断是否是闰年
+     *
+     * @param milliseconds 毫秒数
+     * @param zone         时区
+     * @return 布尔值
+     */
+    public static boolean isLeapYear(long milliseconds, ZoneId zone) {
+        long epochDay = ZoneOffsetTable.of(zone).toEpochDay(milliseconds);
+        return FixedDateFormat.isLeapYear(FixedDateFormat.year(FixedDateFormat.civilFromDays(epochDay)));
     }
 
     /**
@@ -169,33 +315,154 @@ public class DateUtils extends org.apache.commons.lang3.time.DateUtils {
     }
 
     /**
-     * 时间从0时0分0秒开始
+     * 时间从0时0分0秒开始，保留原日期的毫秒部分
      *
      * @param date 日期
      * @return 返回一天的开始时间
      */
     public static Date getInitialDateTheDay(final Date date){
-        Calendar instance = Calendar.getInstance();
-        instance.setTime(date);
-        instance.set(Calendar.HOUR_OF_DAY, 0);
-        instance.set(Calendar.MINUTE, 0);
-        instance.set(Calendar.SECOND, 0);
-        return instance.getTime();
+        long milliseconds = date.getTime();
+        return new Date(getInitialDateTheDay(milliseconds, systemZone())
+                + Math.floorMod(milliseconds, MILLIS_PER_SECOND));
     }
 
     /**
-     * 时间从23时59分59秒开始
+     * 时间从0时0分0秒0毫秒开始
+     *
+     * @param milliseconds 毫秒数
+     * @param zone         时区
+     * @return 返回一天的开始时间的毫秒数
+     */
+    public static long getInitialDateTheDay(long milliseconds, ZoneId zone) {
+        return ZoneOffsetTable.of(zone).startOfDay(milliseconds);
+    }
+
+    /**
+     * 时间从23时59分59秒开始，保留原日期的毫秒部分
      *
      * @param date 日期
      * @return 返回一天的结束时间
      */
     public static Date getEndDateTheDay(final Date date){
-        Calendar instance = Calendar.getInstance();
-        instance.setTime(date);
-        instance.set(Calendar.HOUR_OF_DAY, 23);
-        instance.set(Calendar.MINUTE, 59);
-        instance.set(Calendar.SECOND, 59);
-        return instance.getTime();
+        long milliseconds = date.getTime();
+        return new Date(getEndDateTheDay(milliseconds, systemZone()) - (MILLIS_PER_SECOND - 1)
+                + Math.floorMod(milliseconds, MILLIS_PER_SECOND));
+    }
+
+    /**
+     * 时间从23时59分59秒999毫秒开始
+     *
+     * @param milliseconds 毫秒数
+     * @param zone         时区
+     * @return 返回一天的结束时间的毫秒数
+     */
+    public static long getEndDateTheDay(long milliseconds, ZoneId zone) {
+        return ZoneOffsetTable.of(zone).endOfDay(milliseconds);
+    }
+
+    /**
+     * 批量格式化，元素数量较多时在{@link ForkJoinPool#commonPool()}上并行处理
+     *
+     * @param milliseconds 毫秒数数组
+     * @param pattern      时间序列化格式字符串，如：yyyy-MM-dd
+     * @return 时间字符串数组
+     */
+    public static String[] formatDates(final long[] milliseconds, final String pattern) {
+        return formatDates(milliseconds, pattern, systemZone());
+    }
+
+    /**
+     * 批量格式化，元素数量较多时在{@link ForkJoinPool#commonPool()}上并行处理
+     *
+     * @param milliseconds 毫秒数数组
+     * @param pattern      时间序列化格式字符串，如：yyyy-MM-dd
+     * @param zone         时区
+     * @return 时间字符串数组
+     */
+    public static String[] formatDates(final long[] milliseconds, final String pattern, ZoneId zone) {
+        String[] result = new String[milliseconds.length];
+        if (FixedDateFormat.isSupported(pattern)) {
+            FixedDateFormat format = new FixedDateFormat(zone);
+            boolean dateOnly = DATE_FORMAT.equals(pattern);
+            forEachRange(milliseconds.length, (from, to) -> {
+                for (int i = from; i < to; i++) {
+                    result[i] = dateOnly ? format.formatDate(milliseconds[i]) : format.formatDateTime(milliseconds[i]);
+                }
+            });
+        } else {
+            FastDateFormat format = getFormatter(pattern, zone);
+            forEachRange(milliseconds.length, (from, to) -> {
+                for (int i = from; i < to; i++) {
+                    result[i] = format.format(milliseconds[i]);
+                }
+            });
+        }
+        return result;
+    }
+
+    /**
+     * 批量截断至指定单位的起始时间，如按天或小时分组，元素数量较多时在{@link ForkJoinPool#commonPool()}上并行处理
+     *
+     * @param milliseconds 毫秒数数组
+     * @param base         截断单位
+     * @return 截断后的毫秒数数组
+     */
+    public static long[] truncate(final long[] milliseconds, final Base base) {
+        return truncate(milliseconds, base, systemZone());
+    }
+
+    /**
+     * 批量截断至指定单位的起始时间，如按天或小时分组，元素数量较多时在{@link ForkJoinPool#commonPool()}上并行处理
+     * <p>
+     * 按天截断时结果为当天的开始时间，其他单位按所在时刻的偏移截断，夏令时结束时重复的一小时不会合并
+     *
+     * @param milliseconds 毫秒数数组
+     * @param base         截断单位
+     * @param zone         时区
+     * @return 截断后的毫秒数数组
+     */
+    public static long[] truncate(final long[] milliseconds, final Base base, ZoneId zone) {
+        long[] result = new long[milliseconds.length];
+        ZoneOffsetTable table = ZoneOffsetTable.of(zone);
+        long unit = base.base;
+        forEachRange(milliseconds.length, (from, to) -> {
+            // 每个范围使用各自的游标，并行任务之间不共享上次命中的区间
+            ZoneOffsetTable.Cursor cursor = new ZoneOffsetTable.Cursor();
+            if (base == Base.DAY) {
+                for (int i = from; i < to; i++) {
+                    result[i] = table.startOfDay(milliseconds[i], cursor);
+                }
+            } else {
+                for (int i = from; i < to; i++) {
+                    long value = milliseconds[i];
+                    result[i] = value - Math.floorMod(value + table.getOffset(value, cursor), unit);
+                }
+            }
+        });
+        return result;
+    }
+
+    /**
+     * 批量计算差值，元素数量较多时在{@link ForkJoinPool#commonPool()}上并行处理
+     *
+     * @param startMillis 起始毫秒数数组
+     * @param endMillis   结束毫秒数数组
+     * @param base        结果类型，如天，小时，分钟等
+     * @return 相差结果数组，规则与{@link #subTime(long, long, Base)}相同
+     */
+    public static long[] subTime(final long[] startMillis, final long[] endMillis, final Base base) {
+        if (startMillis.length != endMillis.length) {
+            throw new IllegalArgumentException("起始时间与结束时间的数量不一致");
+        }
+        long[] result = new long[startMillis.length];
+        long unit = base.base;
+        forEachRange(startMillis.length, (from, to) -> {
+            for (int i = from; i < to; i++) {
+                long difference = endMillis[i] - startMillis[i];
+                result[i] = difference > 0 ? difference / unit : 0L;
+            }
+        });
+        return result;
     }
 
     public static String secondToVM(Integer second) {
@@ -215,4 +482,96 @@ public class DateUtils extends org.apache.commons.lang3.time.DateUtils {
         }
         return dateTimes;
     }
-}
\ No newline at end of file
+
+    /**
+     * 系统默认时区，由{@link FixedDateFormat#systemDefault()}缓存，避免每次调用{@link ZoneId#systemDefault()}复制时区对象
+     */
+    private static ZoneId systemZone() {
+        return FixedDateFormat.systemDefault().getZone();
+    }
+
+    private static void forEachRange(int length, RangeAction action) {
+        if (length <= PARALLEL_THRESHOLD) {
+            action.apply(0, length);
+        } else {
+            ForkJoinPool.commonPool().invoke(new RangeTask(action, 0, length));
+        }
+    }
+
+    /**
+     * 格式化器缓存的键
+     */
+    private static final class FormatKey {
+        private final String pattern;
+        private final ZoneId zone;
+        private final Locale locale;
+
+        FormatKey(String pattern, ZoneId zone, Locale locale) {
+            this.pattern = pattern;
+            this.zone = zone;
+            this.locale = locale;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof FormatKey)) {
+                return false;
+            }
+            FormatKey that = (FormatKey) o;
+            return pattern.equals(that.pattern) && zone.equals(that.zone) && locale.equals(that.locale);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(pattern, zone, locale);
+        }
+    }
+
+    /**
+     * 直接创建的{@link FastDateFormat}，不进入commons-lang3的全局缓存
+     */
+    private static final class BoundedFastDateFormat extends FastDateFormat {
+        private static final long serialVersionUID = 1L;
+
+        BoundedFastDateFormat(String pattern, TimeZone timeZone, Locale locale) {
+            super(pattern, timeZone, locale);
+        }
+    }
+
+    /**
+     * 处理[from, to)范围内的元素
+     */
+    private interface RangeAction {
+        void apply(int from, int to);
+    }
+
+    /**
+     * 范围任务，将[from, to)二分至不超过{@link #PARALLEL_THRESHOLD}后并行处理
+     */
+    private static final class RangeTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final RangeAction action;
+        private final int from;
+        private final int to;
+
+        RangeTask(RangeAction action, int from, int to) {
+            this.action = action;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > PARALLEL_THRESHOLD) {
+                int middle = (from + to) >>> 1;
+                invokeAll(new RangeTask(action, from, middle), new RangeTask(action, middle, to));
+                return;
+            }
+            action.apply(from, to);
+        }
+    }
+}
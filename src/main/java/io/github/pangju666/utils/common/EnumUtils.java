@@ -1,38 +1,259 @@
 package io.github.pangju666.utils.common;
 
-import java.lang.reflect.InvocationTargetException;
+import io.github.pangju666.utils.error.ExceptionAggregator;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
 import java.math.BigDecimal;
-import java.util.Objects;
+import java.math.BigInteger;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
 
+/**
+ * 枚举工具类
+ * <p>
+ * 按值查找枚举时，每个枚举类和取值方法只读取一次所有常量的值，建立以规范化值为键的索引，之后的查找为一次哈希查找。
+ * 数值按大小比较，如1、1L和1.0视为同一个值。
+ * 取值方法通过{@link #getAccessor(Method)}转换为{@link Function}后调用，不使用{@link Method#invoke(Object, Object...)}
+ *
+ * @author 胖橘
+ * @version 1.0
+ * @since 1.0
+ */
 public class EnumUtils extends org.apache.commons.lang3.EnumUtils {
+    private static final String VALUE_METHOD_NAME = "getValue";
+
+    /** 以取值方法为键的访问器 */
+    private static final ClassValue<ConcurrentMap<Method, Function<Object, Object>>> ACCESSORS =
+            new ClassValue<ConcurrentMap<Method, Function<Object, Object>>>() {
+                @Override
+                protected ConcurrentMap<Method, Function<Object, Object>> computeValue(Class<?> type) {
+                    return new ConcurrentHashMap<>(4);
+                }
+            };
+    /** getValue方法的访问器 */
+    private static final ClassValue<Function<Object, Object>> VALUE_ACCESSORS =
+            new ClassValue<Function<Object, Object>>() {
+                @Override
+                protected Function<Object, Object> computeValue(Class<?> type) {
+                    try {
+                        return getAccessor(type.getMethod(VALUE_METHOD_NAME));
+                    } catch (NoSuchMethodException e) {
+                        throw new IllegalArgumentException(type.getName() + "不存在" + VALUE_METHOD_NAME + "方法", e);
+                    }
+                }
+            };
+    /** getValue方法的枚举值索引，枚举类不存在getValue方法时为空 */
+    private static final ClassValue<Map<Object, Enum<?>>> VALUE_INDEXES =
+            new ClassValue<Map<Object, Enum<?>>>() {
+                @Override
+                @SuppressWarnings("unchecked")
+                protected Map<Object, Enum<?>> computeValue(Class<?> type) {
+                    try {
+                        return getIndex((Class<? extends Enum<?>>) type, type.getMethod(VALUE_METHOD_NAME));
+                    } catch (NoSuchMethodException e) {
+                        ExceptionAggregator.getDefault().record("按值查找枚举", e);
+                        return Collections.emptyMap();
+                    }
+                }
+            };
+    /** 以取值方法为键的枚举值索引 */
+    private static final ClassValue<ConcurrentMap<Method, Map<Object, Enum<?>>>> INDEXES =
+            new ClassValue<ConcurrentMap<Method, Map<Object, Enum<?>>>>() {
+                @Override
+                protected ConcurrentMap<Method, Map<Object, Enum<?>>> computeValue(Class<?> type) {
+                    return new ConcurrentHashMap<>(4);
+                }
+            };
+
     public static <E extends Enum<?>> E valueOf(Class<E> enumClass, Object value, Method method) {
-        E[] enumConstants = enumClass.getEnumConstants();
-        for (E enumConstant : enumConstants) {
+        @SuppressWarnings("unchecked")
+        E enumConstant = (E) getIndex(enumClass, method).get(normalize(value));
+        return enumConstant;
+    }
+
+    /**
+     * 按getValue方法的返回值查找枚举常量，索引按枚举类缓存，不重复查找getValue方法
+     *
+     * @param enumClass 枚举类
+     * @param value     枚举值
+     * @return 枚举常量，不存在或枚举类不存在getValue方法时返回null
+     */
+    public static <E extends Enum<E>> E getEnumByValue(final Class<E> enumClass,Object value) {
+        @SuppressWarnings("unchecked")
+        E enumConstant = (E) VALUE_INDEXES.get(enumClass).get(normalize(value));
+        return enumConstant;
+    }
+
+    /**
+     * 获取枚举常量getValue方法的返回值，用于枚举序列化等场景
+     *
+     * @param enumConstant 枚举常量
+     * @return 枚举值
+     * @throws IllegalArgumentException 枚举类不存在getValue方法时抛出
+     */
+    public static Object getValue(Enum<?> enumConstant) {
+        return VALUE_ACCESSORS.get(enumConstant.getDeclaringClass()).apply(enumConstant);
+    }
+
+    /**
+     * 获取枚举类getValue方法的访问器，每个枚举类只生成一次
+     *
+     * @param enumClass 枚举类
+     * @return 访问器
+     * @throws IllegalArgumentException 枚举类不存在getValue方法时抛出
+     */
+    @SuppressWarnings("unchecked")
+    public static <E extends Enum<E>> Function<E, Object> getValueAccessor(Class<E> enumClass) {
+        return (Function<E, Object>) (Function<?, Object>) VALUE_ACCESSORS.get(enumClass);
+    }
+
+    /**
+     * 获取无参实例方法的访问器，每个方法只生成一次
+     * <p>
+     * 方法及其所在类均为公开且可以从本类加载器访问时，通过{@link LambdaMetafactory}生成实现类，
+     * 调用开销与直接调用相同；否则使用{@link MethodHandle}
+     *
+     * @param method 无参实例方法
+     * @return 访问器
+     */
+    public static Function<Object, Object> getAccessor(Method method) {
+        if (method.getParameterCount() != 0 || Modifier.isStatic(method.getModifiers())
+                || method.getReturnType() == void.class) {
+            throw new IllegalArgumentException("取值方法必须为有返回值的无参实例方法");
+        }
+        return ACCESSORS.get(method.getDeclaringClass()).computeIfAbsent(method, EnumUtils::createAccessor);
+    }
+
+    private static Map<Object, Enum<?>> getIndex(Class<? extends Enum<?>> enumClass, Method method) {
+        return INDEXES.get(enumClass).computeIfAbsent(method, key -> buildIndex(enumClass, key));
+    }
+
+    /**
+     * 建立枚举值索引，多个常量的值相同时保留先声明的常量
+     */
+    private static Map<Object, Enum<?>> buildIndex(Class<? extends Enum<?>> enumClass, Method method) {
+        Function<Object, Object> accessor = getAccessor(method);
+        Enum<?>[] enumConstants = enumClass.getEnumConstants();
+        Map<Object, Enum<?>> index = new HashMap<>(enumConstants.length * 2);
+        for (Enum<?> enumConstant : enumConstants) {
             Object actualValue = null;
             try {
-                method.setAccessible(true);
-                actualValue = method.invoke(actualValue);
-            } catch (IllegalAccessException | InvocationTargetException exception) {
-                exception.printStackTrace();
-            }
-            if (value instanceof Number && actualValue instanceof Number && 
-                    new BigDecimal(String.valueOf(value)).compareTo(new BigDecimal(String.valueOf(actualValue))) == 0) {
-                return enumConstant;
+                actualValue = accessor.apply(enumConstant);
+            } catch (Exception exception) {
+                ExceptionAggregator.getDefault().record("获取枚举值", exception);
             }
-            if (Objects.equals(actualValue, value)) {
-                return enumConstant;
+            index.putIfAbsent(normalize(actualValue), enumConstant);
+        }
+        return index;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Function<Object, Object> createAccessor(Method method) {
+        Class<?> declaringClass = method.getDeclaringClass();
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            if (isPublicAndVisible(method)) {
+                MethodHandle handle = lookup.unreflect(method);
+                CallSite callSite = LambdaMetafactory.metafactory(lookup, "apply",
+                        MethodType.methodType(Function.class), MethodType.methodType(Object.class, Object.class),
+                        handle, MethodType.methodType(wrap(method.getReturnType()), declaringClass));
+                return (Function<Object, Object>) callSite.getTarget().invoke();
             }
+            method.setAccessible(true);
+            MethodHandle handle = lookup.unreflect(method).asType(MethodType.methodType(Object.class, Object.class));
+            return target -> {
+                try {
+                    return handle.invokeExact(target);
+                } catch (RuntimeException | Error e) {
+                    throw e;
+                } catch (Throwable e) {
+                    throw new RuntimeException("获取枚举值失败", e);
+                }
+            };
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new RuntimeException("生成取值方法访问器失败", e);
         }
-        return null;
     }
 
-    public static <E extends Enum<E>> E getEnumByValue(final Class<E> enumClass,Object value) {
+    /**
+     * 判断生成的实现类能否直接调用方法
+     */
+    private static boolean isPublicAndVisible(Method method) {
+        if (!Modifier.isPublic(method.getModifiers())) {
+            return false;
+        }
+        for (Class<?> type = method.getDeclaringClass(); type != null; type = type.getEnclosingClass()) {
+            if (!Modifier.isPublic(type.getModifiers())) {
+                return false;
+            }
+        }
         try {
-            return valueOf(enumClass,value,enumClass.getMethod("getValue"));
-        } catch (NoSuchMethodException e) {
-            e.printStackTrace();
+            Class<?> declaringClass = method.getDeclaringClass();
+            return Class.forName(declaringClass.getName(), false, EnumUtils.class.getClassLoader()) == declaringClass;
+        } catch (ClassNotFoundException | LinkageError e) {
+            return false;
+        }
+    }
+
+    private static Class<?> wrap(Class<?> type) {
+        if (!type.isPrimitive()) {
+            return type;
+        }
+        return MethodType.methodType(type).wrap().returnType();
+    }
+
+    /**
+     * 规范化值，{@link Long}范围内的整数统一为{@link Long}，其他数值统一为去除末尾0的{@link BigDecimal}
+     */
+    private static Object normalize(Object value) {
+        if (!(value instanceof Number)) {
+            return value;
+        }
+        if (value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte
+                || value instanceof AtomicInteger || value instanceof AtomicLong) {
+            return ((Number) value).longValue();
+        }
+        if ((value instanceof Double && !Double.isFinite((Double) value))
+                || (value instanceof Float && !Float.isFinite((Float) value))) {
+            return ((Number) value).doubleValue();
+        }
+        BigDecimal decimal;
+        if (value instanceof BigDecimal) {
+            decimal = (BigDecimal) value;
+        } else if (value instanceof BigInteger) {
+            decimal = new BigDecimal((BigInteger) value);
+        } else {
+            try {
+                decimal = new BigDecimal(String.valueOf(value));
+            } catch (NumberFormatException e) {
+                return value;
+            }
+        }
+        if (decimal.signum() == 0) {
+            return 0L;
+        }
+        decimal = decimal.stripTrailingZeros();
+        if (decimal.scale() <= 0) {
+            try {
+                return decimal.longValueExact();
+            } catch (ArithmeticException e) {
+                return decimal;
+            }
         }
-        return null;
+        return decimal;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,450 @@
+package io.github.pangju666.utils.common;
+
+import org.apache.commons.lang3.time.FastDateFormat;
+
+import java.time.ZoneId;
+import java.util.TimeZone;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 固定格式日期格式化器
+ * <p>
+ * 仅支持{@link DateUtils#DATE_FORMAT}(yyyy-MM-dd)和{@link DateUtils#DATETIME_FORMAT}(yyyy-MM-dd HH:mm:ss)两种格式，
+ * 毫秒数与字符之间只通过整数运算转换，不使用{@link java.util.Calendar}和正则表达式。
+ * 时区偏移通过{@link ZoneOffsetTable}查找。格式化结果与{@link java.text.SimpleDateFormat}一致：
+ * 1900年之前{@link TimeZone}与{@link java.time.zone.ZoneRules}的偏移不同(如地方平时)，
+ * 1582-10-15之前{@link java.text.SimpleDateFormat}按儒略历计算，因此本地日期早于1900-01-02或年份超过9999时
+ * 交由{@link DateUtils#getFormatter(String, ZoneId)}返回的{@link FastDateFormat}处理。
+ * 少数时区(如Africa/Casablanca)2037年之后的偏移{@link TimeZone}无法完整表示，
+ * 这部分时间以tzdb的规则为准。
+ * 当前时间取自{@link DateUtils#currentTimeMillis()}，其字符串按秒缓存，同一秒内多次获取返回同一个字符串。实例不可变且线程安全
+ * <pre>
+ * 如：
+ * FixedDateFormat format = FixedDateFormat.systemDefault();
+ * String text = format.formatDateTime(System.currentTimeMillis());
+ * long milliseconds = format.parseDateTime("2024-01-01 08:00:00");
+ * </pre>
+ *
+ * @author 胖橘
+ * @version 1.0
+ * @since 1.0
+ */
+public final class FixedDateFormat {
+    /** yyyy-MM-dd的长度 */
+    public static final int DATE_LENGTH = 10;
+    /** yyyy-MM-dd HH:mm:ss的长度 */
+    public static final int DATETIME_LENGTH = 19;
+
+    private static final long MILLIS_PER_SECOND = 1000L;
+    private static final long MILLIS_PER_DAY = 24 * 60 * 60 * MILLIS_PER_SECOND;
+    /** 0000-03-01至1970-01-01的天数 */
+    private static final long DAYS_0000_03_01_TO_EPOCH = 719468L;
+    /** 400年的天数 */
+    private static final long DAYS_PER_ERA = 146097L;
+    /** 1900-01-02至1970-01-01的天数，本地日期不早于此日时时刻不早于1900-01-01T00:00:00Z */
+    private static final long MIN_FAST_EPOCH_DAY = -25566L;
+
+    /** 系统默认时区的检查间隔，单位为纳秒 */
+    private static final long ZONE_CHECK_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private static volatile SystemDefault systemDefault = new SystemDefault(TimeZone.getDefault(), System.nanoTime());
+
+    /** 时区 */
+    private final ZoneId zone;
+    /** 时区偏移表 */
+    private final ZoneOffsetTable table;
+    /** 当前时间的缓存 */
+    private volatile Now now;
+
+    /**
+     * 构造方法
+     *
+     * @param zone 时区
+     */
+    public FixedDateFormat(ZoneId zone) {
+        this.zone = zone;
+        this.table = ZoneOffsetTable.of(zone);
+    }
+
+    /**
+     * 获取系统默认时区的格式化器
+     * <p>
+     * 时区和偏移表随实例缓存，{@link TimeZone#getDefault()}每次都会复制时区对象，因此每秒最多检查一次默认时区，
+     * 时区ID改变后返回新的实例，即{@link TimeZone#setDefault(TimeZone)}最迟1秒后生效
+     *
+     * @return 格式化器
+     */
+    public static FixedDateFormat systemDefault() {
+        SystemDefault current = systemDefault;
+        long now = System.nanoTime();
+        if (now - current.checkedNanos >= ZONE_CHECK_INTERVAL_NANOS) {
+            TimeZone timeZone = TimeZone.getDefault();
+            current = timeZone.getID().equals(current.timeZoneId) ? new SystemDefault(current, now)
+                    : new SystemDefault(timeZone, now);
+            systemDefault = current;
+        }
+        return current.format;
+    }
+
+    /**
+     * 判断格式是否为本类支持的格式
+     *
+     * @param pattern 时间序列化格式字符串
+     * @return 是否支持
+     */
+    public static boolean isSupported(String pattern) {
+        return DateUtils.DATE_FORMAT.equals(pattern) || DateUtils.DATETIME_FORMAT.equals(pattern);
+    }
+
+    public ZoneId getZone() {
+        return zone;
+    }
+
+    /**
+     * 格式化为yyyy-MM-dd
+     *
+     * @param milliseconds 毫秒数
+     * @return 日期字符串
+     */
+    public String formatDate(long milliseconds) {
+        char[] buffer = new char[DATE_LENGTH];
+        if (!formatDate(milliseconds, buffer, 0)) {
+            return fallback(milliseconds, DateUtils.DATE_FORMAT);
+        }
+        return new String(buffer);
+    }
+
+    /**
+     * 格式化为yyyy-MM-dd HH:mm:ss
+     *
+     * @param milliseconds 毫秒数
+     * @return 日期时间字符串
+     */
+    public String formatDateTime(long milliseconds) {
+        char[] buffer = new char[DATETIME_LENGTH];
+        if (!formatDateTime(milliseconds, buffer, 0)) {
+            return fallback(milliseconds, DateUtils.DATETIME_FORMAT);
+        }
+        return new String(buffer);
+    }
+
+    /**
+     * 格式化为yyyy-MM-dd并追加至调用方提供的{@link StringBuilder}
+     *
+     * @param milliseconds 毫秒数
+     * @param builder      追加目标
+     * @return 追加目标
+     */
+    public StringBuilder formatDate(long milliseconds, StringBuilder builder) {
+        long local = toLocalMillis(milliseconds);
+        long epochDay = Math.floorDiv(local, MILLIS_PER_DAY);
+        if (!appendDate(epochDay, builder)) {
+            builder.append(fallback(milliseconds, DateUtils.DATE_FORMAT));
+        }
+        return builder;
+    }
+
+    /**
+     * 格式化为yyyy-MM-dd HH:mm:ss并追加至调用方提供的{@link StringBuilder}
+     *
+     * @param milliseconds 毫秒数
+     * @param builder      追加目标
+     * @return 追加目标
+     */
+    public StringBuilder formatDateTime(long milliseconds, StringBuilder builder) {
+        long local = toLocalMillis(milliseconds);
+        long epochDay = Math.floorDiv(local, MILLIS_PER_DAY);
+        if (!appendDate(epochDay, builder)) {
+            return builder.append(fallback(milliseconds, DateUtils.DATETIME_FORMAT));
+        }
+        int secondOfDay = (int) (Math.floorMod(local, MILLIS_PER_DAY) / MILLIS_PER_SECOND);
+        builder.append(' ');
+        appendTwoDigits(builder, secondOfDay / 3600);
+        builder.append(':');
+        appendTwoDigits(builder, secondOfDay / 60 % 60);
+        builder.append(':');
+        appendTwoDigits(builder, secondOfDay % 60);
+        return builder;
+    }
+
+    /**
+     * 格式化为yyyy-MM-dd并写入调用方提供的数组
+     *
+     * @param milliseconds 毫秒数
+     * @param buffer       目标数组，剩余空间不能小于{@link #DATE_LENGTH}
+     * @param offset       目标数组起始位置
+     * @return 是否写入，本地日期早于1900-01-02或年份超过9999时返回false
+     */
+    public boolean formatDate(long milliseconds, char[] buffer, int offset) {
+        long epochDay = Math.floorDiv(toLocalMillis(milliseconds), MILLIS_PER_DAY);
+        return putDate(epochDay, buffer, offset);
+    }
+
+    /**
+     * 格式化为yyyy-MM-dd HH:mm:ss并写入调用方提供的数组
+     *
+     * @param milliseconds 毫秒数
+     * @param buffer       目标数组，剩余空间不能小于{@link #DATETIME_LENGTH}
+     * @param offset       目标数组起始位置
+     * @return 是否写入，本地日期早于1900-01-02或年份超过9999时返回false
+     */
+    public boolean formatDateTime(long milliseconds, char[] buffer, int offset) {
+        long local = toLocalMillis(milliseconds);
+        if (!putDate(Math.floorDiv(local, MILLIS_PER_DAY), buffer, offset)) {
+            return false;
+        }
+        int secondOfDay = (int) (Math.floorMod(local, MILLIS_PER_DAY) / MILLIS_PER_SECOND);
+        buffer[offset + 10] = ' ';
+        putTwoDigits(buffer, offset + 11, secondOfDay / 3600);
+        buffer[offset + 13] = ':';
+        putTwoDigits(buffer, offset + 14, secondOfDay / 60 % 60);
+        buffer[offset + 16] = ':';
+        putTwoDigits(buffer, offset + 17, secondOfDay % 60);
+        return true;
+    }
+
+    /**
+     * 获取当前日期字符串，同一秒内返回同一个字符串
+     *
+     * @return 当前日期字符串，格式为：yyyy-MM-dd
+     */
+    public String currentDate() {
+        return getNow().date;
+    }
+
+    /**
+     * 获取当前日期时间字符串，同一秒内返回同一个字符串
+     *
+     * @return 当前日期时间字符串，格式为：yyyy-MM-dd HH:mm:ss
+     */
+    public String currentDateTime() {
+        return getNow().dateTime;
+    }
+
+    /**
+     * 解析yyyy-MM-dd，时间为当天0时0分0秒，1582-10-15之前的日期按格里高利历外推，与{@link java.time.LocalDate}一致
+     *
+     * @param text 日期字符串
+     * @return 毫秒数
+     * @throws IllegalArgumentException 格式错误或日期无效时抛出
+     */
+    public long parseDate(CharSequence text) {
+        if (text.length() != DATE_LENGTH) {
+            throw parseError(text);
+        }
+        return toEpochMillis(parseEpochDay(text) * MILLIS_PER_DAY);
+    }
+
+    /**
+     * 解析yyyy-MM-dd HH:mm:ss
+     * <p>
+     * 夏令时开始时不存在的时间向后顺延，结束时重复的时间取较早的偏移，与{@link java.time.ZonedDateTime}一致，
+     * 1582-10-15之前的日期按格里高利历外推
+     *
+     * @param text 日期时间字符串
+     * @return 毫秒数
+     * @throws IllegalArgumentException 格式错误或日期时间无效时抛出
+     */
+    public long parseDateTime(CharSequence text) {
+        if (text.length() != DATETIME_LENGTH || text.charAt(10) != ' ' || text.charAt(13) != ':'
+                || text.charAt(16) != ':') {
+            throw parseError(text);
+        }
+        int hour = parseTwoDigits(text, 11);
+        int minute = parseTwoDigits(text, 14);
+        int second = parseTwoDigits(text, 17);
+        if (hour > 23 || minute > 59 || second > 59) {
+            throw parseError(text);
+        }
+        long local = parseEpochDay(text) * MILLIS_PER_DAY + (hour * 3600L + minute * 60L + second) * MILLIS_PER_SECOND;
+        return toEpochMillis(local);
+    }
+
+    private Now getNow() {
+        long milliseconds = DateUtils.currentTimeMillis();
+        long epochSecond = Math.floorDiv(milliseconds, MILLIS_PER_SECOND);
+        Now current = now;
+        if (current == null || current.epochSecond != epochSecond) {
+            String dateTime = formatDateTime(milliseconds);
+            current = new Now(epochSecond, dateTime.substring(0, DATE_LENGTH), dateTime);
+            now = current;
+        }
+        return current;
+    }
+
+    private long toLocalMillis(long milliseconds) {
+        return table.toLocalMillis(milliseconds);
+    }
+
+    private long toEpochMillis(long local) {
+        return table.toEpochMillis(local);
+    }
+
+    private String fallback(long milliseconds, String pattern) {
+        return DateUtils.getFormatter(pattern, zone).format(milliseconds);
+    }
+
+    private static boolean putDate(long epochDay, char[] buffer, int offset) {
+        if (epochDay < MIN_FAST_EPOCH_DAY) {
+            return false;
+        }
+        long date = civilFromDays(epochDay);
+        long year = year(date);
+        if (year > 9999) {
+            return false;
+        }
+        putTwoDigits(buffer, offset, (int) year / 100);
+        putTwoDigits(buffer, offset + 2, (int) year % 100);
+        buffer[offset + 4] = '-';
+        putTwoDigits(buffer, offset + 5, month(date));
+        buffer[offset + 7] = '-';
+        putTwoDigits(buffer, offset + 8, dayOfMonth(date));
+        return true;
+    }
+
+    private static boolean appendDate(long epochDay, StringBuilder builder) {
+        if (epochDay < MIN_FAST_EPOCH_DAY) {
+            return false;
+        }
+        long date = civilFromDays(epochDay);
+        long year = year(date);
+        if (year > 9999) {
+            return false;
+        }
+        appendTwoDigits(builder, (int) year / 100);
+        appendTwoDigits(builder, (int) year % 100);
+        builder.append('-');
+        appendTwoDigits(builder, month(date));
+        builder.append('-');
+        appendTwoDigits(builder, dayOfMonth(date));
+        return true;
+    }
+
+    private static void putTwoDigits(char[] buffer, int offset, int value) {
+        buffer[offset] = (char) ('0' + value / 10);
+        buffer[offset + 1] = (char) ('0' + value % 10);
+    }
+
+    private static void appendTwoDigits(StringBuilder builder, int value) {
+        builder.append((char) ('0' + value / 10)).append((char) ('0' + value % 10));
+    }
+
+    private static long parseEpochDay(CharSequence text) {
+        if (text.charAt(4) != '-' || text.charAt(7) != '-') {
+            throw parseError(text);
+        }
+        int year = parseTwoDigits(text, 0) * 100 + parseTwoDigits(text, 2);
+        int month = parseTwoDigits(text, 5);
+        int day = parseTwoDigits(text, 8);
+        if (month < 1 || month > 12 || day < 1 || day > lengthOfMonth(year, month)) {
+            throw parseError(text);
+        }
+        return daysFromCivil(year, month, day);
+    }
+
+    private static int parseTwoDigits(CharSequence text, int index) {
+        int high = text.charAt(index) - '0';
+        int low = text.charAt(index + 1) - '0';
+        if (high < 0 || high > 9 || low < 0 || low > 9) {
+            throw parseError(text);
+        }
+        return high * 10 + low;
+    }
+
+    private static IllegalArgumentException parseError(CharSequence text) {
+        return new IllegalArgumentException("日期格式错误：" + text);
+    }
+
+    static boolean isLeapYear(long year) {
+        return (year & 3) == 0 && (year % 100 != 0 || year % 400 == 0);
+    }
+
+    static int lengthOfMonth(long year, int month) {
+        switch (month) {
+            case 2:
+                return isLeapYear(year) ? 29 : 28;
+            case 4:
+            case 6:
+            case 9:
+            case 11:
+                return 30;
+            default:
+                return 31;
+        }
+    }
+
+    /**
+     * 1970-01-01起的天数转换为年、月、日，以3月1日为年初计算
+     *
+     * @return 压缩后的年月日，通过{@link #year(long)}、{@link #month(long)}和{@link #dayOfMonth(long)}读取
+     */
+    static long civilFromDays(long epochDay) {
+        long days = epochDay + DAYS_0000_03_01_TO_EPOCH;
+        long era = Math.floorDiv(days, DAYS_PER_ERA);
+        long dayOfEra = days - era * DAYS_PER_ERA;
+        long yearOfEra = (dayOfEra - dayOfEra / 1460 + dayOfEra / 36524 - dayOfEra / 146096) / 365;
+        long dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+        long shiftedMonth = (5 * dayOfYear + 2) / 153;
+        long day = dayOfYear - (153 * shiftedMonth + 2) / 5 + 1;
+        long month = shiftedMonth < 10 ? shiftedMonth + 3 : shiftedMonth - 9;
+        long year = yearOfEra + era * 400 + (month <= 2 ? 1 : 0);
+        return year << 9 | month << 5 | day;
+    }
+
+    static long year(long date) {
+        return date >> 9;
+    }
+
+    static int month(long date) {
+        return (int) (date >>> 5 & 0xF);
+    }
+
+    static int dayOfMonth(long date) {
+        return (int) (date & 0x1F);
+    }
+
+    /**
+     * 年、月、日转换为1970-01-01起的天数
+     */
+    static long daysFromCivil(long year, int month, int day) {
+        long shiftedYear = month <= 2 ? year - 1 : year;
+        long era = Math.floorDiv(shiftedYear, 400);
+        long yearOfEra = shiftedYear - era * 400;
+        long dayOfYear = (153 * (month > 2 ? month - 3 : month + 9) + 2) / 5 + day - 1;
+        long dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+        return era * DAYS_PER_ERA + dayOfEra - DAYS_0000_03_01_TO_EPOCH;
+    }
+
+    /**
+     * 系统默认时区的格式化器及最后一次检查默认时区的时间
+     */
+    private static final class SystemDefault {
+        private final String timeZoneId;
+        private final FixedDateFormat format;
+        private final long checkedNanos;
+
+        SystemDefault(TimeZone timeZone, long checkedNanos) {
+            this.timeZoneId = timeZone.getID();
+            this.format = new FixedDateFormat(timeZone.toZoneId());
+            this.checkedNanos = checkedNanos;
+        }
+
+        SystemDefault(SystemDefault previous, long checkedNanos) {
+            this.timeZoneId = previous.timeZoneId;
+            this.format = previous.format;
+            this.checkedNanos = checkedNanos;
+        }
+    }
+
+    private static final class Now {
+        private final long epochSecond;
+        private final String date;
+        private final String dateTime;
+
+        Now(long epochSecond, String date, String dateTime) {
+            this.epochSecond = epochSecond;
+            this.date = date;
+            this.dateTime = dateTime;
+        }
+    }
+}
@@ -0,0 +1,195 @@
+package io.github.pangju666.utils.common;
+
+import java.util.Arrays;
+import java.util.UUID;
+
+/**
+ * ID字符串编码
+ * <p>
+ * 将64位或128位的ID编码为定长字符串，字母表按ASCII升序排列，
+ * 因此按无符号数比较的ID顺序与编码后字符串的字典序一致，适合与{@link SnowflakeIdGenerator}和
+ * {@link UUIDUtils#timeOrderedUUID()}搭配作为可排序的数据库主键
+ *
+ * @author 胖橘
+ * @version 1.0
+ * @since 1.0
+ */
+public enum IdEncoding {
+    /** 小写十六进制，64位为16个字符，128位为32个字符 */
+    HEX("0123456789abcdef", 16, 32),
+    /** Crockford Base32，不含I、L、O、U，解码时不区分大小写，64位为13个字符，128位为26个字符 */
+    CROCKFORD_BASE32("0123456789ABCDEFGHJKMNPQRSTVWXYZ", 13, 26),
+    /** Base62，64位为11个字符，128位为22个字符 */
+    BASE62("0123456789ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz", 11, 22);
+
+    IdEncoding(String alphabet, int longLength, int uuidLength) {
+        this.alphabet = alphabet.toCharArray();
+        this.radix = this.alphabet.length;
+        this.bitsPerChar = Integer.bitCount(radix) == 1 ? Integer.numberOfTrailingZeros(radix) : 0;
+        this.longLength = longLength;
+        this.uuidLength = uuidLength;
+        this.decodeTable = new int[128];
+        Arrays.fill(decodeTable, -1);
+        for (int i = 0; i < radix; i++) {
+            char character = this.alphabet[i];
+            decodeTable[character] = i;
+            decodeTable[Character.toLowerCase(character)] = i;
+            decodeTable[Character.toUpperCase(character)] = i;
+        }
+        if (radix == 32) {
+            // Crockford Base32中易混淆的字符
+            decodeTable['I'] = decodeTable['i'] = decodeTable['L'] = decodeTable['l'] = 1;
+            decodeTable['O'] = decodeTable['o'] = 0;
+        } else if (radix == 62) {
+            // Base62区分大小写
+            for (int i = 0; i < radix; i++) {
+                decodeTable[this.alphabet[i]] = i;
+            }
+        }
+    }
+
+    /**
+     * 获取64位ID编码后的长度
+     *
+     * @return 字符数
+     */
+    public int getLongLength() {
+        return longLength;
+    }
+
+    /**
+     * 获取128位ID编码后的长度
+     *
+     * @return 字符数
+     */
+    public int getUUIDLength() {
+        return uuidLength;
+    }
+
+    /**
+     * 编码64位ID，按无符号数处理
+     *
+     * @param value ID
+     * @return 定长字符串
+     */
+    public String encode(long value) {
+        char[] buffer = new char[longLength];
+        encode(0L, value, buffer, 0, longLength);
+        return new String(buffer);
+    }
+
+    /**
+     * 编码UUID
+     *
+     * @param uuid UUID
+     * @return 定长字符串
+     */
+    public String encode(UUID uuid) {
+        return encode(uuid.getMostSignificantBits(), uuid.getLeastSignificantBits());
+    }
+
+    /**
+     * 编码128位ID
+     *
+     * @param high 高64位
+     * @param low  低64位
+     * @return 定长字符串
+     */
+    public String encode(long high, long low) {
+        char[] buffer = new char[uuidLength];
+        encode(high, low, buffer, 0, uuidLength);
+        return new String(buffer);
+    }
+
+    /**
+     * 解码64位ID
+     *
+     * @param text 编码后的字符串
+     * @return ID
+     * @throws IllegalArgumentException 存在非法字符或超出64位时抛出
+     */
+    public long decodeLong(CharSequence text) {
+        long[] value = decode(text);
+        if (value[0] != 0L) {
+            throw new IllegalArgumentException("ID超出64位：" + text);
+        }
+        return value[1];
+    }
+
+    /**
+     * 解码UUID
+     *
+     * @param text 编码后的字符串
+     * @return UUID
+     * @throws IllegalArgumentException 存在非法字符或超出128位时抛出
+     */
+    public UUID decodeUUID(CharSequence text) {
+        long[] value = decode(text);
+        return new UUID(value[0], value[1]);
+    }
+
+    private void encode(long high, long low, char[] buffer, int offset, int length) {
+        if (bitsPerChar > 0) {
+            int mask = radix - 1;
+            for (int i = length - 1, shift = 0; i >= 0; i--, shift += bitsPerChar) {
+                long bits;
+                if (shift >= 64) {
+                    bits = shift >= 128 ? 0L : high >>> (shift - 64);
+                } else if (shift == 0) {
+                    bits = low;
+                } else {
+                    bits = (low >>> shift) | (high << (64 - shift));
+                }
+                buffer[offset + i] = alphabet[(int) bits & mask];
+            }
+            return;
+        }
+        for (int i = length - 1; i >= 0; i--) {
+            // 128位无符号数除以基数，按32位分段计算
+            long quotientHigh = Long.divideUnsigned(high, radix);
+            long remainder = Long.remainderUnsigned(high, radix);
+            long middle = (remainder << 32) | (low >>> 32);
+            long quotientMiddle = middle / radix;
+            long lowest = ((middle % radix) << 32) | (low & 0xFFFFFFFFL);
+            buffer[offset + i] = alphabet[(int) (lowest % radix)];
+            high = quotientHigh;
+            low = (quotientMiddle << 32) | (lowest / radix);
+        }
+    }
+
+    private long[] decode(CharSequence text) {
+        long maxHigh = Long.divideUnsigned(-1L, radix);
+        long high = 0L;
+        long low = 0L;
+        for (int i = 0; i < text.length(); i++) {
+            char character = text.charAt(i);
+            int digit = character < decodeTable.length ? decodeTable[character] : -1;
+            if (digit < 0) {
+                throw new IllegalArgumentException("ID包含非法字符：" + text);
+            }
+            if (Long.compareUnsigned(high, maxHigh) > 0) {
+                throw new IllegalArgumentException("ID超出128位：" + text);
+            }
+            // (high, low) * radix + digit
+            long lowPart = (low & 0xFFFFFFFFL) * radix + digit;
+            long highPart = (low >>> 32) * radix + (lowPart >>> 32);
+            long carry = highPart >>> 32;
+            long product = high * radix;
+            high = product + carry;
+            if (Long.compareUnsigned(high, product) < 0) {
+                throw new IllegalArgumentException("ID超出128位：" + text);
+            }
+            low = (highPart << 32) | (lowPart & 0xFFFFFFFFL);
+        }
+        return new long[]{high, low};
+    }
+
+    private final char[] alphabet;
+    private final int radix;
+    /** 基数为2的幂时每个字符的位数，否则为0 */
+    private final int bitsPerChar;
+    private final int longLength;
+    private final int uuidLength;
+    /** 解码表，非法字符为-1 */
+    private final int[] decodeTable;
+}
@@ -0,0 +1,224 @@
+package io.github.pangju666.utils.common;
+
+import java.util.BitSet;
+import java.util.Random;
+
+/**
+ * 随机字符串生成器
+ * <p>
+ * 字母表在创建时展开为字符数组，每个字符只需要log2(字母表长度)向上取整个随机位，
+ * 因此一次64位随机数可以提供多个候选位置(如数字为16个，数字和字母为10个，中文为4个)；
+ * 超出字母表长度的取值直接丢弃，不存在取模偏差，平均每次得到的字符数为候选位置数乘以字母表长度与2的位数次幂之比
+ * (如数字约为10个，数字和字母约为9.7个，中文约为2.6个)。
+ * 随机数默认来自{@link RandomUtils#random()}，跟随全局生成模式；安全相关场景请使用{@link #withMode(RandomUtils.Mode)}
+ * 获取固定使用{@link RandomUtils.Mode#SECURE}的实例。实例不可变且线程安全
+ * <pre>
+ * 如：
+ * String code = RandomStringGenerator.DIGITS.withMode(RandomUtils.Mode.SECURE).generate(6);
+ * String[] vouchers = RandomStringGenerator.ALPHANUMERIC.generate(100000, 16);
+ * </pre>
+ *
+ * @author 胖橘
+ * @version 1.0
+ * @since 1.0
+ */
+public final class RandomStringGenerator {
+    /** 数字 */
+    public static final RandomStringGenerator DIGITS = ofRange('0', '9');
+    /** 大写字母 */
+    public static final RandomStringGenerator UPPERCASE_LETTERS = ofRange('A', 'Z');
+    /** 小写字母 */
+    public static final RandomStringGenerator LOWERCASE_LETTERS = ofRange('a', 'z');
+    /** 大小写字母 */
+    public static final RandomStringGenerator LETTERS =
+            of("ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz");
+    /** 数字和大小写字母 */
+    public static final RandomStringGenerator ALPHANUMERIC =
+            of("0123456789ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz");
+    /** 常用中文字符(\u4e00-\u9fa5) */
+    public static final RandomStringGenerator CHINESE = ofRange('\u4e00', '\u9fa5');
+
+    /** 字母表 */
+    private final char[] alphabet;
+    /** 每个字符使用的随机位数 */
+    private final int bitsPerSymbol;
+    /** 取值掩码 */
+    private final int mask;
+    /** 每个64位随机数可以提供的候选位置数 */
+    private final int symbolsPerWord;
+    /** 随机数生成模式，为空时跟随{@link RandomUtils#getMode()} */
+    private final RandomUtils.Mode mode;
+
+    private RandomStringGenerator(char[] alphabet) {
+        if (alphabet.length < 2) {
+            throw new IllegalArgumentException("字母表至少需要2个字符");
+        }
+        BitSet characters = new BitSet(Character.MAX_VALUE + 1);
+        for (char character : alphabet) {
+            if (characters.get(character)) {
+                throw new IllegalArgumentException("字母表存在重复字符：" + character);
+            }
+            characters.set(character);
+        }
+        this.alphabet = alphabet;
+        this.bitsPerSymbol = 32 - Integer.numberOfLeadingZeros(alphabet.length - 1);
+        this.mask = (1 << bitsPerSymbol) - 1;
+        this.symbolsPerWord = Long.SIZE / bitsPerSymbol;
+        this.mode = null;
+    }
+
+    private RandomStringGenerator(RandomStringGenerator generator, RandomUtils.Mode mode) {
+        this.alphabet = generator.alphabet;
+        this.bitsPerSymbol = generator.bitsPerSymbol;
+        this.mask = generator.mask;
+        this.symbolsPerWord = generator.symbolsPerWord;
+        this.mode = mode;
+    }
+
+    /**
+     * 使用自定义字母表创建生成器
+     *
+     * @param alphabet 字母表，不能包含重复字符
+     * @return 生成器
+     */
+    public static RandomStringGenerator of(String alphabet) {
+        return new RandomStringGenerator(alphabet.toCharArray());
+    }
+
+    /**
+     * 使用字符范围创建生成器
+     *
+     * @param min 最小字符(包含)
+     * @param max 最大字符(包含)
+     * @return 生成器
+     */
+    public static RandomStringGenerator ofRange(char min, char max) {
+        if (max < min) {
+            throw new IllegalArgumentException("最大字符不能小于最小字符");
+        }
+        char[] alphabet = new char[max - min + 1];
+        for (int i = 0; i < alphabet.length; i++) {
+            alphabet[i] = (char) (min + i);
+        }
+        return new RandomStringGenerator(alphabet);
+    }
+
+    /**
+     * 获取使用相同字母表、固定使用指定生成模式的生成器，不受{@link RandomUtils#setMode(RandomUtils.Mode)}影响
+     *
+     * @param mode 生成模式
+     * @return 生成器
+     */
+    public RandomStringGenerator withMode(RandomUtils.Mode mode) {
+        if (mode == null) {
+            throw new IllegalArgumentException("生成模式不能为空");
+        }
+        return mode == this.mode ? this : new RandomStringGenerator(this, mode);
+    }
+
+    /**
+     * 获取生成模式
+     *
+     * @return 生成模式，跟随全局生成模式时为空
+     */
+    public RandomUtils.Mode getMode() {
+        return mode;
+    }
+
+    /**
+     * 获取字母表长度
+     *
+     * @return 字母表长度
+     */
+    public int getAlphabetSize() {
+        return alphabet.length;
+    }
+
+    /**
+     * 生成随机字符串
+     *
+     * @param length 长度
+     * @return 随机字符串
+     */
+    public String generate(int length) {
+        char[] buffer = new char[length];
+        fill(buffer, 0, length);
+        return new String(buffer);
+    }
+
+    /**
+     * 批量生成随机字符串，所有字符一次生成
+     *
+     * @param count  数量
+     * @param length 每个字符串的长度
+     * @return 随机字符串数组，可能存在重复
+     */
+    public String[] generate(int count, int length) {
+        if (count < 0 || length < 0) {
+            throw new IllegalArgumentException("数量和长度不能小于0");
+        }
+        if ((long) count * length > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("生成的字符总数超出上限");
+        }
+        char[] buffer = new char[count * length];
+        fill(buffer, 0, buffer.length);
+        String[] result = new String[count];
+        for (int i = 0; i < count; i++) {
+            result[i] = new String(buffer, i * length, length);
+        }
+        return result;
+    }
+
+    /**
+     * 生成随机字符并追加至调用方提供的{@link StringBuilder}
+     *
+     * @param builder 追加目标
+     * @param length  长度
+     * @return 追加目标
+     */
+    public StringBuilder appendTo(StringBuilder builder, int length) {
+        builder.ensureCapacity(builder.length() + length);
+        Random random = random();
+        int remaining = length;
+        while (remaining > 0) {
+            long bits = random.nextLong();
+            for (int i = 0; i < symbolsPerWord && remaining > 0; i++, bits >>>= bitsPerSymbol) {
+                int index = (int) bits & mask;
+                if (index < alphabet.length) {
+                    builder.append(alphabet[index]);
+                    remaining--;
+                }
+            }
+        }
+        return builder;
+    }
+
+    /**
+     * 生成随机字符并写入调用方提供的数组
+     *
+     * @param buffer 目标数组
+     * @param offset 起始位置
+     * @param length 长度
+     */
+    public void fill(char[] buffer, int offset, int length) {
+        if (offset < 0 || length < 0 || offset > buffer.length - length) {
+            throw new IndexOutOfBoundsException("写入范围超出数组长度");
+        }
+        Random random = random();
+        int position = offset;
+        int end = offset + length;
+        while (position < end) {
+            long bits = random.nextLong();
+            for (int i = 0; i < symbolsPerWord && position < end; i++, bits >>>= bitsPerSymbol) {
+                int index = (int) bits & mask;
+                if (index < alphabet.length) {
+                    buffer[position++] = alphabet[index];
+                }
+            }
+        }
+    }
+
+    private Random random() {
+        return mode == null ? RandomUtils.random() : RandomUtils.random(mode);
+    }
+}
@@ -1,25 +1,248 @@
 package io.github.pangju666.utils.common;
 
+import org.apache.commons.lang3.Validate;
+
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
 import java.util.Random;
-import java.util.UUID;
+import java.util.SplittableRandom;
+import java.util.concurrent.ThreadLocalRandom;
 
 /**
  * 随机数工具类
+ * <p>
+ * 默认使用{@link ThreadLocalRandom}，多线程同时生成时不竞争同一个种子，可以通过{@link #setMode(Mode)}切换为{@link Mode#SECURE}。
+ * 生成模式对所有线程生效，任何地方的修改都会影响其他调用方，因此生成验证码、令牌等安全相关的随机值时
+ * 不要依赖生成模式，应在调用处直接使用{@link #secureRandom()}(或{@link #random(Mode)}传入{@link Mode#SECURE})，
+ * 此时每个线程使用各自的{@link SecureRandom}。{@link UUIDUtils}和{@link #nexUUIDString()}始终使用安全随机数，不受生成模式影响。
+ * 线程的安全随机数生成器使用SHA1PRNG算法，创建时从默认的{@link SecureRandom}读取一次种子：
+ * Linux上默认算法为NativePRNG，其所有实例共享同一把全局锁，每个线程各自创建也会相互竞争，
+ * SHA1PRNG的实例之间没有共享状态。
+ * 覆盖了父类中使用共享{@link Random}的同名方法，取值规则与父类一致
  *
  * @author 胖橘
  * @version 1.0
  * @since 1.0
  *
  * @see org.apache.commons.lang3.RandomUtils
+ * @see RandomStringGenerator
  */
 public class RandomUtils extends org.apache.commons.lang3.RandomUtils {
     private static final Integer ASCII_MIN = 0;
     private static final Integer ASCII_MAX = 127;
+    /**
+     * 共享的随机数生成器，多线程下存在竞争，本类已不再使用
+     *
+     * @deprecated 请使用{@link #random()}
+     */
+    @Deprecated
     protected static final Random RANDOM = new Random();
+    /** 线程的安全随机数生成器使用的算法 */
+    private static final String SECURE_ALGORITHM = "SHA1PRNG";
+    /** 种子长度，单位为字节 */
+    private static final int SEED_LENGTH = 32;
+    /** 种子来源，每个线程只读取一次 */
+    private static final SecureRandom SEED_SOURCE = new SecureRandom();
+    /** 每个线程的安全随机数生成器 */
+    private static final ThreadLocal<SecureRandom> SECURE_RANDOMS =
+            ThreadLocal.withInitial(RandomUtils::newSecureRandom);
+
+    private static volatile Mode mode = Mode.FAST;
+
+    /** 随机数生成模式 */
+    public enum Mode {
+        /** 使用{@link ThreadLocalRandom}，速度快但不可用于安全相关场景 */
+        FAST,
+        /** 每个线程使用各自的{@link SecureRandom} */
+        SECURE
+    }
 
     protected RandomUtils() {
     }
 
+    /**
+     * 设置本类next开头的方法使用的随机数生成模式，对所有线程生效
+     *
+     * @param mode 生成模式
+     */
+    public static void setMode(Mode mode) {
+        RandomUtils.mode = Validate.notNull(mode, "生成模式不能为空");
+    }
+
+    public static Mode getMode() {
+        return mode;
+    }
+
+    /**
+     * 获取当前线程在当前模式下使用的随机数生成器，不能在线程之间共享
+     *
+     * @return 随机数生成器
+     */
+    public static Random random() {
+        return random(mode);
+    }
+
+    /**
+     * 获取当前线程在指定模式下使用的随机数生成器，不受全局生成模式影响，不能在线程之间共享
+     *
+     * @param mode 生成模式
+     * @return 随机数生成器
+     */
+    public static Random random(Mode mode) {
+        return Validate.notNull(mode, "生成模式不能为空") == Mode.SECURE ? SECURE_RANDOMS.get() : ThreadLocalRandom.current();
+    }
+
+    /**
+     * 获取当前线程的安全随机数生成器，不受生成模式影响，不能在线程之间共享
+     * <p>
+     * 算法为SHA1PRNG，运行环境不提供该算法时使用默认算法
+     *
+     * @return 安全随机数生成器
+     */
+    public static SecureRandom secureRandom() {
+        return SECURE_RANDOMS.get();
+    }
+
+    /**
+     * 创建可拆分的随机数生成器，适合在{@link java.util.concurrent.ForkJoinPool}等场景中按任务拆分
+     *
+     * @return 可拆分的随机数生成器
+     */
+    public static SplittableRandom newSplittableRandom() {
+        return new SplittableRandom(random().nextLong());
+    }
+
+    /**
+     * 生成随机布尔值
+     *
+     * @return 随机布尔值
+     */
+    public static boolean nextBoolean() {
+        return random().nextBoolean();
+    }
+
+    /**
+     * 生成随机字节数组
+     *
+     * @param count 长度
+     * @return 随机字节数组
+     */
+    public static byte[] nextBytes(final int count) {
+        Validate.isTrue(count >= 0, "Count cannot be negative.");
+        final byte[] result = new byte[count];
+        random().nextBytes(result);
+        return result;
+    }
+
+    /**
+     * 生成指定范围内的数字
+     *
+     * @param startInclusive 最小值(包含)
+     * @param endExclusive   最大值(不包含)
+     * @return 返回随机数字
+     */
+    public static int nextInt(final int startInclusive, final int endExclusive) {
+        validateRange(startInclusive, endExclusive);
+        if (startInclusive == endExclusive) {
+            return startInclusive;
+        }
+        return startInclusive + random().nextInt(endExclusive - startInclusive);
+    }
+
+    /**
+     * 生成0至{@link Integer#MAX_VALUE}(不包含)之间的数字
+     *
+     * @return 返回随机数字
+     */
+    public static int nextInt() {
+        return nextInt(0, Integer.MAX_VALUE);
+    }
+
+    /**
+     * 生成指定范围内的数字
+     *
+     * @param startInclusive 最小值(包含)
+     * @param endExclusive   最大值(不包含)
+     * @return 返回随机数字
+     */
+    public static long nextLong(final long startInclusive, final long endExclusive) {
+        validateRange(startInclusive, endExclusive);
+        if (startInclusive == endExclusive) {
+            return startInclusive;
+        }
+        Random random = random();
+        long bound = endExclusive - startInclusive;
+        long mask = bound - 1;
+        long result;
+        if ((bound & mask) == 0L) {
+            result = random.nextLong() & mask;
+        } else {
+            // 拒绝采样，避免取模造成的偏差
+            long bits = random.nextLong() >>> 1;
+            while (bits + mask - (result = bits % bound) < 0L) {
+                bits = random.nextLong() >>> 1;
+            }
+        }
+        return startInclusive + result;
+    }
+
+    /**
+     * 生成0至{@link Long#MAX_VALUE}(不包含)之间的数字
+     *
+     * @return 返回随机数字
+     */
+    public static long nextLong() {
+        return nextLong(0, Long.MAX_VALUE);
+    }
+
+    /**
+     * 生成指定范围内的数字
+     *
+     * @param startInclusive 最小值(包含)
+     * @param endExclusive   最大值(不包含)
+     * @return 返回随机数字
+     */
+    public static double nextDouble(final double startInclusive, final double endExclusive) {
+        validateRange(startInclusive, endExclusive);
+        if (startInclusive == endExclusive) {
+            return startInclusive;
+        }
+        return startInclusive + ((endExclusive - startInclusive) * random().nextDouble());
+    }
+
+    /**
+     * 生成0至{@link Double#MAX_VALUE}之间的数字
+     *
+     * @return 返回随机数字
+     */
+    public static double nextDouble() {
+        return nextDouble(0, Double.MAX_VALUE);
+    }
+
+    /**
+     * 生成指定范围内的数字
+     *
+     * @param startInclusive 最小值(包含)
+     * @param endExclusive   最大值(不包含)
+     * @return 返回随机数字
+     */
+    public static float nextFloat(final float startInclusive, final float endExclusive) {
+        validateRange(startInclusive, endExclusive);
+        if (startInclusive == endExclusive) {
+            return startInclusive;
+        }
+        return startInclusive + ((endExclusive - startInclusive) * random().nextFloat());
+    }
+
+    /**
+     * 生成0至{@link Float#MAX_VALUE}之间的数字
+     *
+     * @return 返回随机数字
+     */
+    public static float nextFloat() {
+        return nextFloat(0, Float.MAX_VALUE);
+    }
+
     /**
      * 生成指定范围内的数字
      *
@@ -27,7 +250,7 @@ public class RandomUtils extends org.apache.commons.lang3.RandomUtils {
      * @return 返回随机数字
      */
     public static int nextInt(int bound) {
-        return RANDOM.nextInt(bound);
+        return random().nextInt(bound);
     }
 
     /**
@@ -110,9 +333,34 @@ public class RandomUtils extends org.apache.commons.lang3.RandomUtils {
     }
 
     /**
-     * 生成随机的UUID
+     * 生成随机的UUID，始终使用{@link #secureRandom()}
      */
     public static String nexUUIDString() {
-        return UUID.randomUUID().toString();
+        return UUIDUtils.randomUUID().toString();
+    }
+
+    /**
+     * 创建SHA1PRNG生成器并从{@link #SEED_SOURCE}设置种子，首次生成前设置种子时不再读取系统熵源
+     */
+    private static SecureRandom newSecureRandom() {
+        byte[] seed = new byte[SEED_LENGTH];
+        SEED_SOURCE.nextBytes(seed);
+        try {
+            SecureRandom secureRandom = SecureRandom.getInstance(SECURE_ALGORITHM);
+            secureRandom.setSeed(seed);
+            return secureRandom;
+        } catch (NoSuchAlgorithmException e) {
+            return new SecureRandom(seed);
+        }
+    }
+
+    private static void validateRange(long startInclusive, long endExclusive) {
+        Validate.isTrue(endExclusive >= startInclusive, "Start value must be smaller or equal to end value.");
+        Validate.isTrue(startInclusive >= 0, "Both range values must be non-negative.");
+    }
+
+    private static void validateRange(double startInclusive, double endExclusive) {
+        Validate.isTrue(endExclusive >= startInclusive, "Start value must be smaller or equal to end value.");
+        Validate.isTrue(startInclusive >= 0, "Both range values must be non-negative.");
     }
 }
@@ -0,0 +1,204 @@
+package io.github.pangju666.utils.common;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 雪花算法ID生成器
+ * <p>
+ * 生成按时间递增的64位ID，结构为：1位符号位(始终为0) | 时间戳(毫秒) | 节点号 | 序列号，节点号和序列号的位数可以配置。
+ * 通过CAS更新状态，不使用锁。同一毫秒内序列号用尽时借用下一毫秒，时钟回拨不超过{@link #getMaxBackwardMillis()}时
+ * 继续在上次的时间戳上递增，因此生成的ID始终单调递增；回拨超过该值时抛出{@link IllegalStateException}
+ * <pre>
+ * 如：
+ * SnowflakeIdGenerator generator = new SnowflakeIdGenerator(nodeId);
+ * long id = generator.nextId();
+ * String key = IdEncoding.BASE62.encode(id);
+ * </pre>
+ *
+ * @author 胖橘
+ * @version 1.0
+ * @since 1.0
+ */
+public class SnowflakeIdGenerator {
+    /** 默认起始时间，2020-01-01T00:00:00Z */
+    public static final long DEFAULT_EPOCH = 1577836800000L;
+    /** 默认节点号位数 */
+    public static final int DEFAULT_NODE_BITS = 10;
+    /** 默认序列号位数 */
+    public static final int DEFAULT_SEQUENCE_BITS = 12;
+    /** 默认允许的时钟回拨毫秒数 */
+    public static final long DEFAULT_MAX_BACKWARD_MILLIS = 1000L;
+    /** 节点号与序列号的位数之和上限，保证时间戳至少35位(约1年) */
+    protected static final int MAX_NODE_AND_SEQUENCE_BITS = 28;
+
+    /** 起始时间 */
+    private final long epoch;
+    /** 节点号 */
+    private final long nodeId;
+    private final int nodeBits;
+    private final int sequenceBits;
+    /** 允许的时钟回拨毫秒数 */
+    private final long maxBackwardMillis;
+    private final long sequenceMask;
+    private final long maxTimestamp;
+    /** 上次生成的时间戳和序列号，结构为：时间戳 | 序列号 */
+    private final AtomicLong state = new AtomicLong();
+    /** 观察到的最大系统时间 */
+    private volatile long lastClock;
+
+    /**
+     * 构造方法，使用默认起始时间、位数和回拨容忍度
+     *
+     * @param nodeId 节点号，取值0-1023
+     */
+    public SnowflakeIdGenerator(long nodeId) {
+        this(nodeId, DEFAULT_NODE_BITS, DEFAULT_SEQUENCE_BITS, DEFAULT_EPOCH, DEFAULT_MAX_BACKWARD_MILLIS);
+    }
+
+    /**
+     * 构造方法
+     *
+     * @param nodeId            节点号
+     * @param nodeBits          节点号位数
+     * @param sequenceBits      序列号位数，决定每个节点每毫秒可以生成的ID数量
+     * @param epoch             起始时间的毫秒数
+     * @param maxBackwardMillis 允许的时钟回拨毫秒数
+     */
+    public SnowflakeIdGenerator(long nodeId, int nodeBits, int sequenceBits, long epoch, long maxBackwardMillis) {
+        if (nodeBits < 0 || sequenceBits < 1 || nodeBits + sequenceBits > MAX_NODE_AND_SEQUENCE_BITS) {
+            throw new IllegalArgumentException("节点号与序列号的位数之和不能超过" + MAX_NODE_AND_SEQUENCE_BITS
+                    + "，序列号至少1位");
+        }
+        if (nodeId < 0 || nodeId >= (1L << nodeBits)) {
+            throw new IllegalArgumentException("节点号必须在0至" + ((1L << nodeBits) - 1) + "之间");
+        }
+        if (maxBackwardMillis < 0) {
+            throw new IllegalArgumentException("允许的时钟回拨毫秒数不能小于0");
+        }
+        this.epoch = epoch;
+        this.nodeId = nodeId;
+        this.nodeBits = nodeBits;
+        this.sequenceBits = sequenceBits;
+        this.maxBackwardMillis = maxBackwardMillis;
+        this.sequenceMask = (1L << sequenceBits) - 1;
+        this.maxTimestamp = (1L << (63 - nodeBits - sequenceBits)) - 1;
+    }
+
+    /**
+     * 生成ID
+     *
+     * @return ID，非负且单调递增
+     * @throws IllegalStateException 时钟回拨超过允许值、系统时间早于起始时间或时间戳超出可表示范围时抛出
+     */
+    public long nextId() {
+        while (true) {
+            long now = currentTimeMillis();
+            long timestamp = now - epoch;
+            if (timestamp < 0) {
+                throw new IllegalStateException("系统时间早于ID起始时间");
+            }
+            long previous = state.get();
+            long next;
+            if (timestamp > previous >>> sequenceBits) {
+                next = timestamp << sequenceBits;
+            } else {
+                // 同一毫秒或时钟回拨，继续递增序列号，序列号用尽时进位到下一毫秒
+                next = previous + 1;
+                if ((next >>> sequenceBits) - timestamp > maxBackwardMillis) {
+                    long backward = lastClock - now;
+                    if (backward > maxBackwardMillis) {
+                        throw new IllegalStateException("系统时钟回拨" + backward + "毫秒，超出允许值");
+                    }
+                    // 借用的时间过多，等待系统时间追上
+                    Thread.yield();
+                    continue;
+                }
+            }
+            if (next >>> sequenceBits > maxTimestamp) {
+                throw new IllegalStateException("时间戳超出可表示范围");
+            }
+            if (state.compareAndSet(previous, next)) {
+                if (now > lastClock) {
+                    lastClock = now;
+                }
+                return (next >>> sequenceBits) << (nodeBits + sequenceBits) | nodeId << sequenceBits
+                        | (next & sequenceMask);
+            }
+        }
+    }
+
+    /**
+     * 批量生成ID
+     *
+     * @param count 数量
+     * @return 单调递增的ID数组
+     */
+    public long[] nextIds(int count) {
+        long[] ids = new long[count];
+        for (int i = 0; i < count; i++) {
+            ids[i] = nextId();
+        }
+        return ids;
+    }
+
+    /**
+     * 生成ID并编码为字符串
+     *
+     * @param encoding 编码方式
+     * @return 定长字符串，字典序与生成顺序一致
+     */
+    public String nextIdString(IdEncoding encoding) {
+        return encoding.encode(nextId());
+    }
+
+    /**
+     * 获取ID的生成时间
+     *
+     * @param id ID
+     * @return 毫秒数
+     */
+    public long getTimeMillis(long id) {
+        return (id >>> (nodeBits + sequenceBits)) + epoch;
+    }
+
+    /**
+     * 获取ID的节点号
+     *
+     * @param id ID
+     * @return 节点号
+     */
+    public long getNodeId(long id) {
+        return (id >>> sequenceBits) & ((1L << nodeBits) - 1);
+    }
+
+    /**
+     * 获取ID的序列号
+     *
+     * @param id ID
+     * @return 序列号
+     */
+    public long getSequence(long id) {
+        return id & sequenceMask;
+    }
+
+    public long getNodeId() {
+        return nodeId;
+    }
+
+    /**
+     * 获取当前系统时间，子类可以覆盖以使用其他时钟
+     *
+     * @return 毫秒数
+     */
+    protected long currentTimeMillis() {
+        return System.currentTimeMillis();
+    }
+
+    public long getEpoch() {
+        return epoch;
+    }
+
+    public long getMaxBackwardMillis() {
+        return maxBackwardMillis;
+    }
+}
@@ -1,9 +1,179 @@
 package io.github.pangju666.utils.common;
 
+import org.apache.commons.lang3.Validate;
+
+import java.util.Random;
 import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
 
+/**
+ * UUID工具类
+ * <p>
+ * 随机UUID(版本4)由当前线程的随机数生成器产生两个64位整数后直接通过查表转换为32位十六进制字符，
+ * 不经过{@link UUID#toString()}和正则替换。随机位始终来自{@link RandomUtils#secureRandom()}，
+ * 不受{@link RandomUtils#setMode(RandomUtils.Mode)}影响；不要求不可预测时可以调用{@link #randomUUID(Random)}
+ * 并传入{@link java.util.concurrent.ThreadLocalRandom#current()}。
+ * 作为数据库主键时建议使用按时间递增的{@link #timeOrderedUUID()}(版本7)，避免随机UUID导致索引页频繁分裂
+ *
+ * @author 胖橘
+ * @version 1.0
+ * @since 1.0
+ */
 public class UUIDUtils {
+    /** 不含“-”的UUID长度 */
+    public static final int COMPACT_LENGTH = 32;
+
+    /** 每个字节对应的两个十六进制字符 */
+    private static final char[] HEX_TABLE = new char[256 * 2];
+
+    /** 版本7计数器占用的位数 */
+    private static final int COUNTER_BITS = 12;
+    /** 版本7每毫秒计数器的随机起始值上限，保留一半空间用于递增 */
+    private static final int COUNTER_SEED_BOUND = 1 << (COUNTER_BITS - 1);
+    /** 上次生成版本7 UUID的时间戳和计数器，结构为：时间戳 | 计数器 */
+    private static final AtomicLong TIME_ORDERED_STATE = new AtomicLong();
+
+    static {
+        char[] digits = "0123456789abcdef".toCharArray();
+        for (int i = 0; i < 256; i++) {
+            HEX_TABLE[i * 2] = digits[i >>> 4];
+            HEX_TABLE[i * 2 + 1] = digits[i & 0xF];
+        }
+    }
+
+    /**
+     * 生成不含“-”的随机UUID字符串
+     *
+     * @return 32位小写十六进制字符串
+     */
     public static String randomUUIDStr() {
-        return UUID.randomUUID().toString().replaceAll("-", "");
+        char[] buffer = new char[COMPACT_LENGTH];
+        Random random = RandomUtils.secureRandom();
+        formatTo(versionMostSigBits(random.nextLong()), variantLeastSigBits(random.nextLong()), buffer, 0);
+        return new String(buffer);
+    }
+
+    /**
+     * 批量生成不含“-”的随机UUID字符串
+     *
+     * @param count 数量
+     * @return 32位小写十六进制字符串数组
+     */
+    public static String[] randomUUIDStrs(int count) {
+        Validate.isTrue(count >= 0 && count <= (Integer.MAX_VALUE - 8) / COMPACT_LENGTH, "数量超出范围");
+        char[] buffer = new char[count * COMPACT_LENGTH];
+        Random random = RandomUtils.secureRandom();
+        for (int i = 0; i < count; i++) {
+            formatTo(versionMostSigBits(random.nextLong()), variantLeastSigBits(random.nextLong()), buffer,
+                    i * COMPACT_LENGTH);
+        }
+        String[] result = new String[count];
+        for (int i = 0; i < count; i++) {
+            result[i] = new String(buffer, i * COMPACT_LENGTH, COMPACT_LENGTH);
+        }
+        return result;
+    }
+
+    /**
+     * 生成随机UUID
+     *
+     * @return 版本4的UUID
+     */
+    public static UUID randomUUID() {
+        return randomUUID(RandomUtils.secureRandom());
+    }
+
+    /**
+     * 使用指定的随机数生成器生成随机UUID
+     *
+     * @param random 随机数生成器
+     * @return 版本4的UUID
+     */
+    public static UUID randomUUID(Random random) {
+        Validate.notNull(random, "随机数生成器不能为空");
+        return new UUID(versionMostSigBits(random.nextLong()), variantLeastSigBits(random.nextLong()));
+    }
+
+    /**
+     * 生成按时间递增的UUID(版本7，RFC 9562)
+     * <p>
+     * 高48位为毫秒时间戳，其后12位为每毫秒从随机值开始递增的计数器，其余62位为随机数。
+     * 同一进程内生成的UUID单调递增，计数器用尽或时钟回拨时继续在上次的时间戳上递增
+     *
+     * @return 版本7的UUID
+     */
+    public static UUID timeOrderedUUID() {
+        Random random = RandomUtils.secureRandom();
+        long now = System.currentTimeMillis();
+        long next;
+        while (true) {
+            long previous = TIME_ORDERED_STATE.get();
+            if (now > previous >>> COUNTER_BITS) {
+                next = now << COUNTER_BITS | random.nextInt(COUNTER_SEED_BOUND);
+            } else {
+                next = previous + 1;
+            }
+            if (TIME_ORDERED_STATE.compareAndSet(previous, next)) {
+                break;
+            }
+        }
+        long mostSigBits = (next >>> COUNTER_BITS) << 16 | 0x7000L | (next & ((1L << COUNTER_BITS) - 1));
+        return new UUID(mostSigBits, variantLeastSigBits(random.nextLong()));
+    }
+
+    /**
+     * 生成按时间递增、不含“-”的UUID字符串(版本7)
+     *
+     * @return 32位小写十六进制字符串，字典序与生成顺序一致
+     */
+    public static String timeOrderedUUIDStr() {
+        return toCompactString(timeOrderedUUID());
+    }
+
+    /**
+     * 转换为不含“-”的字符串
+     *
+     * @param uuid UUID
+     * @return 32位小写十六进制字符串
+     */
+    public static String toCompactString(UUID uuid) {
+        char[] buffer = new char[COMPACT_LENGTH];
+        formatTo(uuid.getMostSignificantBits(), uuid.getLeastSignificantBits(), buffer, 0);
+        return new String(buffer);
+    }
+
+    /**
+     * 将UUID的高低64位转换为32位十六进制字符并写入调用方提供的数组
+     *
+     * @param mostSigBits  高64位
+     * @param leastSigBits 低64位
+     * @param buffer       目标数组，剩余空间不能小于{@link #COMPACT_LENGTH}
+     * @param offset       目标数组起始位置
+     */
+    public static void formatTo(long mostSigBits, long leastSigBits, char[] buffer, int offset) {
+        putHex(mostSigBits, buffer, offset);
+        putHex(leastSigBits, buffer, offset + 16);
+    }
+
+    private static void putHex(long value, char[] buffer, int offset) {
+        for (int shift = 56, position = offset; shift >= 0; shift -= 8, position += 2) {
+            int index = ((int) (value >>> shift) & 0xFF) << 1;
+            buffer[position] = HEX_TABLE[index];
+            buffer[position + 1] = HEX_TABLE[index + 1];
+        }
+    }
+
+    /**
+     * 设置版本号为4
+     */
+    private static long versionMostSigBits(long bits) {
+        return (bits & 0xFFFFFFFFFFFF0FFFL) | 0x0000000000004000L;
+    }
+
+    /**
+     * 设置变体为IETF
+     */
+    private static long variantLeastSigBits(long bits) {
+        return (bits & 0x3FFFFFFFFFFFFFFFL) | 0x8000000000000000L;
     }
 }
@@ -0,0 +1,210 @@
+package io.github.pangju666.utils.common;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.zone.ZoneOffsetTransition;
+import java.time.zone.ZoneRules;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 时区偏移表
+ * <p>
+ * 将时区在1900年至2200年之间的偏移转换预先展开为有序数组并按时区缓存，
+ * 毫秒数与本地毫秒数之间的转换只做数组查找和整数运算，不分配对象。
+ * 表内的时间二分查找所在区间，超出范围的时间交由{@link ZoneRules}处理。
+ * 实例不含可变状态，多个线程共享时不存在写竞争；批量处理时每个任务使用各自的{@link Cursor}记录上次命中的区间，
+ * 连续查找相近的时间时直接命中
+ *
+ * @author 胖橘
+ * @version 1.0
+ * @since 1.0
+ */
+public final class ZoneOffsetTable {
+    /** 1900-01-01T00:00:00Z */
+    private static final long TABLE_START = -2208988800000L;
+    /** 2200-01-01T00:00:00Z */
+    private static final long TABLE_END = 7258118400000L;
+    private static final long MILLIS_PER_SECOND = 1000L;
+    private static final long MILLIS_PER_DAY = 24 * 60 * 60 * MILLIS_PER_SECOND;
+
+    private static final Map<ZoneId, ZoneOffsetTable> TABLES = new ConcurrentHashMap<>();
+
+    /** 时区 */
+    private final ZoneId zone;
+    private final ZoneRules rules;
+    /** 偏移转换的时刻，升序 */
+    private final long[] transitions;
+    /** offsets[i]为transitions[i - 1]至transitions[i]之间的偏移毫秒数 */
+    private final long[] offsets;
+
+    private ZoneOffsetTable(ZoneId zone) {
+        this.zone = zone;
+        this.rules = zone.getRules();
+        int count = 0;
+        long[] instants = new long[64];
+        long[] values = new long[65];
+        values[0] = toMillis(rules.getOffset(Instant.ofEpochMilli(TABLE_START)).getTotalSeconds());
+        ZoneOffsetTransition transition = rules.nextTransition(Instant.ofEpochMilli(TABLE_START));
+        while (transition != null && transition.getInstant().toEpochMilli() < TABLE_END) {
+            if (count == instants.length) {
+                instants = Arrays.copyOf(instants, count * 2);
+                values = Arrays.copyOf(values, count * 2 + 1);
+            }
+            instants[count] = transition.getInstant().toEpochMilli();
+            values[++count] = toMillis(transition.getOffsetAfter().getTotalSeconds());
+            transition = rules.nextTransition(transition.getInstant());
+        }
+        this.transitions = Arrays.copyOf(instants, count);
+        this.offsets = Arrays.copyOf(values, count + 1);
+    }
+
+    /**
+     * 获取时区的偏移表，同一时区只创建一次
+     *
+     * @param zone 时区
+     * @return 偏移表
+     */
+    public static ZoneOffsetTable of(ZoneId zone) {
+        ZoneOffsetTable table = TABLES.get(zone);
+        if (table == null) {
+            table = TABLES.computeIfAbsent(zone, ZoneOffsetTable::new);
+        }
+        return table;
+    }
+
+    /**
+     * 获取系统默认时区的偏移表，默认时区与{@link FixedDateFormat#systemDefault()}相同，每秒最多检查一次
+     *
+     * @return 偏移表
+     */
+    public static ZoneOffsetTable systemDefault() {
+        return of(FixedDateFormat.systemDefault().getZone());
+    }
+
+    public ZoneId getZone() {
+        return zone;
+    }
+
+    /**
+     * 获取指定时刻的偏移
+     *
+     * @param milliseconds 毫秒数
+     * @return 偏移毫秒数
+     */
+    public long getOffset(long milliseconds) {
+        return getOffset(milliseconds, null);
+    }
+
+    /**
+     * 获取指定时刻的偏移，优先检查游标上次命中的区间
+     *
+     * @param milliseconds 毫秒数
+     * @param cursor       当前线程独占的游标，为空时二分查找
+     * @return 偏移毫秒数
+     */
+    long getOffset(long milliseconds, Cursor cursor) {
+        if (milliseconds < TABLE_START || milliseconds >= TABLE_END) {
+            return toMillis(rules.getOffset(Instant.ofEpochMilli(milliseconds)).getTotalSeconds());
+        }
+        if (cursor != null) {
+            int index = cursor.index;
+            if ((index == 0 || milliseconds >= transitions[index - 1])
+                    && (index == transitions.length || milliseconds < transitions[index])) {
+                return offsets[index];
+            }
+        }
+        int index = Arrays.binarySearch(transitions, milliseconds);
+        index = index >= 0 ? index + 1 : -index - 1;
+        if (cursor != null) {
+            cursor.index = index;
+        }
+        return offsets[index];
+    }
+
+    /**
+     * 毫秒数转换为本时区的本地毫秒数(本地时间按UTC计算的毫秒数)
+     *
+     * @param milliseconds 毫秒数
+     * @return 本地毫秒数
+     */
+    public long toLocalMillis(long milliseconds) {
+        return milliseconds + getOffset(milliseconds);
+    }
+
+    /**
+     * 本时区的本地毫秒数转换为毫秒数
+     * <p>
+     * 夏令时开始时不存在的本地时间向后顺延，结束时重复的本地时间取较早的偏移，与{@link java.time.ZonedDateTime}一致
+     *
+     * @param localMillis 本地毫秒数
+     * @return 毫秒数
+     */
+    public long toEpochMillis(long localMillis) {
+        return toEpochMillis(localMillis, null);
+    }
+
+    long toEpochMillis(long localMillis, Cursor cursor) {
+        // 偏移不超过18小时，前后一天的时刻必然分别位于本地时间对应时刻之前和之后
+        long earlierOffset = getOffset(localMillis - MILLIS_PER_DAY, cursor);
+        long earlier = localMillis - earlierOffset;
+        if (getOffset(earlier, cursor) == earlierOffset) {
+            return earlier;
+        }
+        long laterOffset = getOffset(localMillis + MILLIS_PER_DAY, cursor);
+        long later = localMillis - laterOffset;
+        if (getOffset(later, cursor) == laterOffset) {
+            return later;
+        }
+        // 位于间隔中，按间隔长度顺延
+        return earlier;
+    }
+
+    /**
+     * 获取本时区一天的开始时间
+     *
+     * @param milliseconds 毫秒数
+     * @return 当天0时0分0秒0毫秒的毫秒数，0时不存在时为当天最早的时刻
+     */
+    public long startOfDay(long milliseconds) {
+        return startOfDay(milliseconds, null);
+    }
+
+    long startOfDay(long milliseconds, Cursor cursor) {
+        long local = milliseconds + getOffset(milliseconds, cursor);
+        return toEpochMillis(Math.floorDiv(local, MILLIS_PER_DAY) * MILLIS_PER_DAY, cursor);
+    }
+
+    /**
+     * 获取本时区一天的结束时间
+     *
+     * @param milliseconds 毫秒数
+     * @return 当天23时59分59秒999毫秒的毫秒数
+     */
+    public long endOfDay(long milliseconds) {
+        long nextDay = (Math.floorDiv(toLocalMillis(milliseconds), MILLIS_PER_DAY) + 1) * MILLIS_PER_DAY;
+        return toEpochMillis(nextDay) - 1;
+    }
+
+    /**
+     * 获取本时区1970-01-01起的天数
+     *
+     * @param milliseconds 毫秒数
+     * @return 天数
+     */
+    public long toEpochDay(long milliseconds) {
+        return Math.floorDiv(toLocalMillis(milliseconds), MILLIS_PER_DAY);
+    }
+
+    private static long toMillis(int seconds) {
+        return seconds * MILLIS_PER_SECOND;
+    }
+
+    /**
+     * 查找游标，记录上次命中的区间下标，不能在线程之间共享
+     */
+    static final class Cursor {
+        private int index;
+    }
+}
@@ -0,0 +1,322 @@
+package io.github.pangju666.utils.error;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * 异常聚合器
+ * <p>
+ * 按来源、异常类型和栈顶的若干帧计算指纹，相同指纹的异常只在第一次出现时输出完整堆栈，之后只计数，
+ * 每隔{@link #getReportIntervalMillis()}最多输出一次汇总(各指纹在上次汇总后新增的次数)。
+ * 首次出现的堆栈同样受汇总间隔限制，每个间隔最多输出{@link #getMaxTracesPerInterval()}个，超出的只计数并在汇总中列出。
+ * 计数使用{@link ConcurrentHashMap}和{@link LongAdder}，记录异常时不加锁；汇总由记录异常的线程顺带完成，不创建后台线程，
+ * 因此异常停止出现后，最后一个间隔内的计数要调用{@link #flush()}才会输出(如在应用关闭时)。
+ * 指纹数量超过上限后，新指纹的异常只计入溢出次数
+ * <pre>
+ * 如：
+ * try {
+ *     ...
+ * } catch (IOException e) {
+ *     ExceptionAggregator.getDefault().record("读取配置", e);
+ * }
+ * </pre>
+ *
+ * @author 胖橘
+ * @version 1.0
+ * @since 1.0
+ */
+public class ExceptionAggregator {
+    /** 默认汇总间隔毫秒数 */
+    public static final long DEFAULT_REPORT_INTERVAL_MILLIS = 60_000L;
+    /** 默认参与计算指纹的栈帧数量 */
+    public static final int DEFAULT_FINGERPRINT_FRAMES = 5;
+    /** 默认指纹数量上限 */
+    public static final int DEFAULT_MAX_FINGERPRINTS = 1024;
+    /** 默认每个汇总间隔最多输出的堆栈数量 */
+    public static final int DEFAULT_MAX_TRACES_PER_INTERVAL = 10;
+
+    private static final ExceptionAggregator DEFAULT = new ExceptionAggregator(DEFAULT_REPORT_INTERVAL_MILLIS,
+            DEFAULT_FINGERPRINT_FRAMES, DEFAULT_MAX_FINGERPRINTS, DEFAULT_MAX_TRACES_PER_INTERVAL, new LogReporter());
+
+    private final long reportIntervalNanos;
+    private final int fingerprintFrames;
+    private final int maxFingerprints;
+    private final int maxTracesPerInterval;
+    private final Consumer<String> reporter;
+    /** 以指纹为键的统计 */
+    private final Map<Long, Entry> entries = new ConcurrentHashMap<>();
+    /** 超出指纹数量上限的异常次数 */
+    private final LongAdder overflow = new LongAdder();
+    /** 下次允许汇总的时间 */
+    private final AtomicLong nextReportNanos;
+    /** 本间隔内还可以输出的堆栈数量，汇总时重置 */
+    private final AtomicInteger traceBudget;
+    private long reportedOverflow;
+
+    /**
+     * 构造方法，每个汇总间隔最多输出{@link #DEFAULT_MAX_TRACES_PER_INTERVAL}个堆栈
+     *
+     * @param reportIntervalMillis 汇总间隔毫秒数
+     * @param fingerprintFrames    参与计算指纹的栈帧数量
+     * @param maxFingerprints      指纹数量上限
+     * @param reporter             输出目标，接收首次出现的异常堆栈和汇总内容
+     */
+    public ExceptionAggregator(long reportIntervalMillis, int fingerprintFrames, int maxFingerprints,
+                               Consumer<String> reporter) {
+        this(reportIntervalMillis, fingerprintFrames, maxFingerprints, DEFAULT_MAX_TRACES_PER_INTERVAL, reporter);
+    }
+
+    /**
+     * 构造方法
+     *
+     * @param reportIntervalMillis 汇总间隔毫秒数
+     * @param fingerprintFrames    参与计算指纹的栈帧数量
+     * @param maxFingerprints      指纹数量上限
+     * @param maxTracesPerInterval 每个汇总间隔最多输出的堆栈数量
+     * @param reporter             输出目标，接收首次出现的异常堆栈和汇总内容
+     */
+    public ExceptionAggregator(long reportIntervalMillis, int fingerprintFrames, int maxFingerprints,
+                               int maxTracesPerInterval, Consumer<String> reporter) {
+        if (reportIntervalMillis < 0) {
+            throw new IllegalArgumentException("汇总间隔不能小于0");
+        }
+        if (fingerprintFrames < 0 || maxFingerprints < 0 || maxTracesPerInterval < 0) {
+            throw new IllegalArgumentException("栈帧数量、指纹数量上限和堆栈数量上限不能小于0");
+        }
+        if (reporter == null) {
+            throw new IllegalArgumentException("输出目标不能为空");
+        }
+        this.reportIntervalNanos = TimeUnit.MILLISECONDS.toNanos(reportIntervalMillis);
+        this.fingerprintFrames = fingerprintFrames;
+        this.maxFingerprints = maxFingerprints;
+        this.maxTracesPerInterval = maxTracesPerInterval;
+        this.reporter = reporter;
+        this.nextReportNanos = new AtomicLong(System.nanoTime() + reportIntervalNanos);
+        this.traceBudget = new AtomicInteger(maxTracesPerInterval);
+    }
+
+    /**
+     * 获取默认聚合器，每分钟最多汇总一次，每分钟最多输出{@link #DEFAULT_MAX_TRACES_PER_INTERVAL}个堆栈，
+     * 通过commons-logging以WARN级别输出
+     *
+     * @return 默认聚合器
+     */
+    public static ExceptionAggregator getDefault() {
+        return DEFAULT;
+    }
+
+    /**
+     * 记录异常
+     *
+     * @param throwable 异常
+     */
+    public void record(Throwable throwable) {
+        record(null, throwable);
+    }
+
+    /**
+     * 记录异常
+     *
+     * @param source    来源，如出错的操作，参与计算指纹
+     * @param throwable 异常
+     */
+    public void record(String source, Throwable throwable) {
+        if (throwable == null) {
+            return;
+        }
+        long fingerprint = fingerprint(source, throwable);
+        Entry entry = entries.get(fingerprint);
+        if (entry == null) {
+            if (entries.size() >= maxFingerprints) {
+                overflow.increment();
+                reportIfDue();
+                return;
+            }
+            // 堆栈数量超出本间隔的上限时只计数，由下次汇总列出
+            boolean traced = traceBudget.getAndDecrement() > 0;
+            Entry created = new Entry(source, throwable, traced);
+            entry = entries.putIfAbsent(fingerprint, created);
+            if (entry == null) {
+                created.count.increment();
+                if (traced) {
+                    reporter.accept(describe(source, throwable) + System.lineSeparator()
+                            + ExceptionUtils.getStackTrace(throwable));
+                }
+                reportIfDue();
+                return;
+            }
+            if (traced) {
+                traceBudget.incrementAndGet();
+            }
+        }
+        entry.count.increment();
+        reportIfDue();
+    }
+
+    /**
+     * 获取指定异常所属指纹的累计次数
+     *
+     * @param source    来源
+     * @param throwable 异常
+     * @return 累计次数，未记录时为0
+     */
+    public long getCount(String source, Throwable throwable) {
+        Entry entry = entries.get(fingerprint(source, throwable));
+        return entry == null ? 0L : entry.count.sum();
+    }
+
+    /**
+     * 获取指纹数量
+     *
+     * @return 指纹数量
+     */
+    public int getFingerprintCount() {
+        return entries.size();
+    }
+
+    /**
+     * 获取超出指纹数量上限的异常次数
+     *
+     * @return 累计次数
+     */
+    public long getOverflowCount() {
+        return overflow.sum();
+    }
+
+    public long getReportIntervalMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(reportIntervalNanos);
+    }
+
+    public int getMaxTracesPerInterval() {
+        return maxTracesPerInterval;
+    }
+
+    /**
+     * 立即输出汇总，不受汇总间隔限制
+     * <p>
+     * 汇总只在记录异常时检查，异常停止出现后尚未汇总的计数不会自动输出，需要时(如应用关闭前)调用本方法
+     */
+    public void flush() {
+        nextReportNanos.set(System.nanoTime() + reportIntervalNanos);
+        report();
+    }
+
+    /**
+     * 清空所有统计，重新开始一个汇总间隔并恢复本间隔的堆栈数量上限
+     */
+    public synchronized void clear() {
+        entries.clear();
+        overflow.reset();
+        reportedOverflow = 0L;
+        traceBudget.set(maxTracesPerInterval);
+        nextReportNanos.set(System.nanoTime() + reportIntervalNanos);
+    }
+
+    /**
+     * 到达汇总时间时由抢到更新权的线程输出汇总
+     */
+    private void reportIfDue() {
+        long now = System.nanoTime();
+        long next = nextReportNanos.get();
+        if (now - next >= 0 && nextReportNanos.compareAndSet(next, now + reportIntervalNanos)) {
+            report();
+        }
+    }
+
+    private synchronized void report() {
+        traceBudget.set(maxTracesPerInterval);
+        List<String> lines = new ArrayList<>();
+        for (Entry entry : entries.values()) {
+            long total = entry.count.sum();
+            long increment = total - entry.reported;
+            if (increment > 0) {
+                entry.reported = total;
+                lines.add(increment + "次(累计" + total + "次) " + entry.description);
+            }
+        }
+        long overflowTotal = overflow.sum();
+        if (overflowTotal > reportedOverflow) {
+            lines.add((overflowTotal - reportedOverflow) + "次(累计" + overflowTotal + "次) 超出指纹数量上限的异常");
+            reportedOverflow = overflowTotal;
+        }
+        if (lines.isEmpty()) {
+            return;
+        }
+        StringBuilder builder = new StringBuilder("异常汇总：");
+        for (String line : lines) {
+            builder.append(System.lineSeparator()).append("  ").append(line);
+        }
+        reporter.accept(builder.toString());
+    }
+
+    /**
+     * 计算指纹，由来源、异常类型、栈顶若干帧的类名、方法名和行号组成
+     */
+    private long fingerprint(String source, Throwable throwable) {
+        long hash = mix(source == null ? 0 : source.hashCode());
+        hash = mix(hash ^ throwable.getClass().getName().hashCode());
+        StackTraceElement[] frames = throwable.getStackTrace();
+        int depth = Math.min(frames.length, fingerprintFrames);
+        for (int i = 0; i < depth; i++) {
+            StackTraceElement frame = frames[i];
+            hash = mix(hash ^ frame.getClassName().hashCode());
+            hash = mix(hash ^ frame.getMethodName().hashCode());
+            hash = mix(hash ^ frame.getLineNumber());
+        }
+        return hash;
+    }
+
+    private static long mix(long value) {
+        value = (value ^ (value >>> 33)) * 0xFF51AFD7ED558CCDL;
+        value = (value ^ (value >>> 33)) * 0xC4CEB9FE1A85EC53L;
+        return value ^ (value >>> 33);
+    }
+
+    private static String describe(String source, Throwable throwable) {
+        StringBuilder builder = new StringBuilder();
+        if (source != null) {
+            builder.append('[').append(source).append("] ");
+        }
+        builder.append(throwable.getClass().getName());
+        if (throwable.getMessage() != null) {
+            builder.append(": ").append(throwable.getMessage());
+        }
+        StackTraceElement[] frames = throwable.getStackTrace();
+        if (frames.length > 0) {
+            builder.append(" at ").append(frames[0]);
+        }
+        return builder.toString();
+    }
+
+    private static final class Entry {
+        private final String description;
+        private final LongAdder count = new LongAdder();
+        /** 上次汇总时的累计次数，只在汇总时读写 */
+        private long reported;
+
+        private Entry(String source, Throwable throwable, boolean traced) {
+            this.description = describe(source, throwable);
+            // 首次出现时已输出完整堆栈的不计入汇总
+            this.reported = traced ? 1L : 0L;
+        }
+    }
+
+    private static final class LogReporter implements Consumer<String> {
+        private static final Log LOG = LogFactory.getLog(ExceptionAggregator.class);
+
+        @Override
+        public void accept(String message) {
+            LOG.warn(message);
+        }
+    }
+}
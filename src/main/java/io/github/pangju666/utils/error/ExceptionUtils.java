@@ -1,7 +1,13 @@
 package io.github.pangju666.utils.error;
 
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
 /**
  * 异常工具类
+ * <p>
+ * throwIf系列方法只在条件成立时才创建异常；高频校验失败时可以使用{@link LightweightException}，不记录堆栈
  *
  * @author 胖橘
  * @version 1.0
@@ -10,15 +16,23 @@ package io.github.pangju666.utils.error;
  * @see org.apache.commons.lang3.exception.ExceptionUtils
  */
 public class ExceptionUtils extends org.apache.commons.lang3.exception.ExceptionUtils {
+    /** 轻量异常缓存的最大原因数量 */
+    public static final int MAX_LIGHTWEIGHT_CACHE_SIZE = 256;
+
+    /** 以原因为键的轻量异常 */
+    private static final Map<String, LightweightException> LIGHTWEIGHT_CACHE = new ConcurrentHashMap<>();
+
     /**
-     * 抛出异常
+     * 抛出异常，条件成立时才创建异常
      *
      * @param condition 判断是否抛出异常时的条件
      * @param reason 异常原因
      * @throws Exception 条件成立时抛出
      */
     public static void throwException(boolean condition, String reason) throws Exception {
-        throwException(condition, new Exception(reason));
+        if (condition) {
+            throw new Exception(reason);
+        }
     }
 
     /**
@@ -33,4 +47,74 @@ public class ExceptionUtils extends org.apache.commons.lang3.exception.Exception
             throw exception;
         }
     }
+
+    /**
+     * 条件成立时抛出由supplier创建的异常，条件不成立时不创建异常
+     *
+     * @param condition 判断是否抛出异常时的条件
+     * @param supplier 异常提供者
+     * @param <E> 待抛出的异常
+     * @throws E 条件成立时抛出
+     */
+    public static <E extends Throwable> void throwIf(boolean condition, Supplier<? extends E> supplier) throws E {
+        if (condition) {
+            throw supplier.get();
+        }
+    }
+
+    /**
+     * 条件成立时抛出缓存的轻量异常
+     *
+     * @param condition 判断是否抛出异常时的条件
+     * @param reason 异常原因
+     * @throws LightweightException 条件成立时抛出，不含堆栈
+     */
+    public static void throwIf(boolean condition, String reason) {
+        if (condition) {
+            throw lightweightException(reason);
+        }
+    }
+
+    /**
+     * 对象为null时抛出由supplier创建的异常
+     *
+     * @param object 待检查的对象
+     * @param supplier 异常提供者
+     * @param <T> 对象类型
+     * @param <E> 待抛出的异常
+     * @return 传入的对象
+     * @throws E 对象为null时抛出
+     */
+    public static <T, E extends Throwable> T throwIfNull(T object, Supplier<? extends E> supplier) throws E {
+        if (object == null) {
+            throw supplier.get();
+        }
+        return object;
+    }
+
+    /**
+     * 获取轻量异常，相同原因返回同一个实例
+     * <p>
+     * 实例不含堆栈且不可修改，可以多次抛出；缓存的原因数量超过{@link #MAX_LIGHTWEIGHT_CACHE_SIZE}后不再缓存新的原因，
+     * 因此原因中不应包含变化的参数，需要变化的参数时使用{@link LightweightException#LightweightException(String)}
+     *
+     * @param reason 异常原因
+     * @return 轻量异常
+     */
+    public static LightweightException lightweightException(String reason) {
+        if (reason == null) {
+            return new LightweightException(null);
+        }
+        LightweightException exception = LIGHTWEIGHT_CACHE.get(reason);
+        if (exception == null) {
+            exception = new LightweightException(reason);
+            if (LIGHTWEIGHT_CACHE.size() < MAX_LIGHTWEIGHT_CACHE_SIZE) {
+                LightweightException previous = LIGHTWEIGHT_CACHE.putIfAbsent(reason, exception);
+                if (previous != null) {
+                    exception = previous;
+                }
+            }
+        }
+        return exception;
+    }
 }
@@ -0,0 +1,23 @@
+package io.github.pangju666.utils.error;
+
+/**
+ * 轻量异常
+ * <p>
+ * 不记录堆栈、不支持附加被抑制的异常，创建开销只有一次对象分配，适合在校验循环等高频路径中表示失败。
+ * 未传入原因的实例创建后不可修改，可以缓存并在多个线程间共享，见{@link ExceptionUtils#lightweightException(String)}
+ *
+ * @author 胖橘
+ * @version 1.0
+ * @since 1.0
+ */
+public class LightweightException extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+
+    public LightweightException(String message) {
+        super(message, null, false, false);
+    }
+
+    public LightweightException(String message, Throwable cause) {
+        super(message, cause, false, false);
+    }
+}
@@ -0,0 +1,247 @@
+package io.github.pangju666.utils.security;
+
+import org.apache.commons.codec.digest.Sha2Crypt;
+import org.mindrot.jbcrypt.BCrypt;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * 密码哈希服务
+ * <p>
+ * 在专用的有界线程池上执行bcrypt或SHA-crypt等高开销的密码哈希，避免占用请求线程。
+ * 等待队列已满时不再排队，直接返回以{@link RejectedExecutionException}失败的结果，由调用方决定降级或重试。
+ * 可以通过{@link #calibrate(Algorithm, long)}按目标耗时选择适合当前硬件的计算强度
+ * <pre>
+ * 如：
+ * PasswordHasher hasher = PasswordHasher.calibrated(PasswordHasher.Algorithm.BCRYPT, 250, 4, 100);
+ * hasher.hash(password).thenAccept(hashed -&gt; save(hashed));
+ * hasher.verify(password, hashed).thenAccept(matched -&gt; ...);
+ * </pre>
+ *
+ * @author 胖橘
+ * @version 1.0
+ * @since 1.0
+ */
+public class PasswordHasher implements AutoCloseable {
+    private static final SecureRandom SECURE_RANDOM = new SecureRandom();
+    private static final char[] SALT_CHARS =
+            "./0123456789ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz".toCharArray();
+    private static final int SALT_LENGTH = 16;
+    private static final String CALIBRATION_PASSWORD = "calibration-password";
+    private static final int CALIBRATION_RUNS = 3;
+    private static final AtomicInteger POOL_NUMBER = new AtomicInteger();
+
+    /** 哈希算法 */
+    public enum Algorithm {
+        /** bcrypt，计算强度为2的对数轮数，取值4-30(jbcrypt允许的最大值) */
+        BCRYPT(4, 30, 10),
+        /** SHA-256 crypt，计算强度为轮数，取值1000-999999999 */
+        SHA256_CRYPT(1000, 999999999, 5000),
+        /** SHA-512 crypt，计算强度为轮数，取值1000-999999999 */
+        SHA512_CRYPT(1000, 999999999, 5000);
+
+        Algorithm(int minCost, int maxCost, int defaultCost) {
+            this.minCost = minCost;
+            this.maxCost = maxCost;
+            this.defaultCost = defaultCost;
+        }
+
+        public int getMinCost() {
+            return minCost;
+        }
+
+        public int getMaxCost() {
+            return maxCost;
+        }
+
+        public int getDefaultCost() {
+            return defaultCost;
+        }
+
+        private final int minCost;
+        private final int maxCost;
+        private final int defaultCost;
+    }
+
+    /** 哈希算法 */
+    private final Algorithm algorithm;
+    /** 计算强度 */
+    private final int cost;
+    /** 执行哈希的线程池 */
+    private final ThreadPoolExecutor executor;
+
+    /**
+     * 构造方法
+     *
+     * @param algorithm     哈希算法
+     * @param cost          计算强度，bcrypt为对数轮数，SHA-crypt为轮数
+     * @param threads       线程数
+     * @param queueCapacity 等待队列容量
+     */
+    public PasswordHasher(Algorithm algorithm, int cost, int threads, int queueCapacity) {
+        if (cost < algorithm.minCost || cost > algorithm.maxCost) {
+            throw new IllegalArgumentException("计算强度必须在" + algorithm.minCost + "至" + algorithm.maxCost + "之间");
+        }
+        this.algorithm = algorithm;
+        this.cost = cost;
+        String namePrefix = "password-hasher-" + POOL_NUMBER.incrementAndGet() + "-";
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+            Thread thread = new Thread(runnable, namePrefix + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }, new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    /**
+     * 按目标耗时校准计算强度后创建哈希服务
+     *
+     * @param algorithm     哈希算法
+     * @param targetMillis  单次哈希的目标耗时，单位为毫秒
+     * @param threads       线程数
+     * @param queueCapacity 等待队列容量
+     * @return 哈希服务
+     */
+    public static PasswordHasher calibrated(Algorithm algorithm, long targetMillis, int threads, int queueCapacity) {
+        return new PasswordHasher(algorithm, calibrate(algorithm, targetMillis), threads, queueCapacity);
+    }
+
+    /**
+     * 在当前硬件上测量哈希耗时，选择耗时不超过目标耗时的最大计算强度
+     *
+     * @param algorithm    哈希算法
+     * @param targetMillis 单次哈希的目标耗时，单位为毫秒
+     * @return 计算强度，不低于算法允许的最小值
+     */
+    public static int calibrate(Algorithm algorithm, long targetMillis) {
+        long targetNanos = TimeUnit.MILLISECONDS.toNanos(targetMillis);
+        double nanos = measure(algorithm, algorithm.defaultCost);
+        long cost;
+        if (algorithm == Algorithm.BCRYPT) {
+            // 对数轮数每增加1耗时翻倍
+            cost = algorithm.defaultCost + (long) Math.floor(Math.log(targetNanos / nanos) / Math.log(2));
+        } else {
+            cost = (long) (algorithm.defaultCost * (targetNanos / nanos));
+        }
+        return (int) Math.max(algorithm.minCost, Math.min(algorithm.maxCost, cost));
+    }
+
+    /**
+     * 异步计算密码哈希
+     *
+     * @param password 密码
+     * @return 哈希结果，等待队列已满时以{@link RejectedExecutionException}失败
+     */
+    public CompletableFuture<String> hash(String password) {
+        return submit(() -> hash(algorithm, cost, password));
+    }
+
+    /**
+     * 异步验证密码，根据哈希前缀识别算法，因此可以验证以其他算法或强度生成的哈希
+     *
+     * @param password 密码
+     * @param hashed   密码哈希
+     * @return 是否匹配，等待队列已满时以{@link RejectedExecutionException}失败
+     */
+    public CompletableFuture<Boolean> verify(String password, String hashed) {
+        return submit(() -> matches(password, hashed));
+    }
+
+    public Algorithm getAlgorithm() {
+        return algorithm;
+    }
+
+    public int getCost() {
+        return cost;
+    }
+
+    /**
+     * 获取等待执行的任务数量
+     *
+     * @return 任务数量
+     */
+    public int getQueueSize() {
+        return executor.getQueue().size();
+    }
+
+    /**
+     * 获取正在执行的任务数量
+     *
+     * @return 任务数量
+     */
+    public int getActiveCount() {
+        return executor.getActiveCount();
+    }
+
+    /**
+     * 关闭线程池，已提交的任务会继续执行
+     */
+    @Override
+    public void close() {
+        executor.shutdown();
+    }
+
+    private <T> CompletableFuture<T> submit(Supplier<T> supplier) {
+        try {
+            return CompletableFuture.supplyAsync(supplier, executor);
+        } catch (RejectedExecutionException e) {
+            CompletableFuture<T> future = new CompletableFuture<>();
+            future.completeExceptionally(e);
+            return future;
+        }
+    }
+
+    private static String hash(Algorithm algorithm, int cost, String password) {
+        switch (algorithm) {
+            case BCRYPT:
+                return BCrypt.hashpw(password, BCrypt.gensalt(cost, SECURE_RANDOM));
+            case SHA256_CRYPT:
+                return Sha2Crypt.sha256Crypt(password.getBytes(StandardCharsets.UTF_8), "$5$" + salt(cost));
+            default:
+                return Sha2Crypt.sha512Crypt(password.getBytes(StandardCharsets.UTF_8), "$6$" + salt(cost));
+        }
+    }
+
+    private static boolean matches(String password, String hashed) {
+        String actual;
+        if (hashed.startsWith("$2")) {
+            return BCrypt.checkpw(password, hashed);
+        } else if (hashed.startsWith("$5$")) {
+            actual = Sha2Crypt.sha256Crypt(password.getBytes(StandardCharsets.UTF_8), hashed);
+        } else if (hashed.startsWith("$6$")) {
+            actual = Sha2Crypt.sha512Crypt(password.getBytes(StandardCharsets.UTF_8), hashed);
+        } else {
+            throw new IllegalArgumentException("不支持的密码哈希格式");
+        }
+        return MessageDigest.isEqual(actual.getBytes(StandardCharsets.UTF_8),
+                hashed.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String salt(int rounds) {
+        StringBuilder builder = new StringBuilder("rounds=").append(rounds).append('$');
+        for (int i = 0; i < SALT_LENGTH; i++) {
+            builder.append(SALT_CHARS[SECURE_RANDOM.nextInt(SALT_CHARS.length)]);
+        }
+        return builder.toString();
+    }
+
+    /**
+     * 测量指定强度下单次哈希的最短耗时(纳秒)，首次计算用于预热
+     */
+    private static double measure(Algorithm algorithm, int cost) {
+        hash(algorithm, cost, CALIBRATION_PASSWORD);
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < CALIBRATION_RUNS; i++) {
+            long start = System.nanoTime();
+            hash(algorithm, cost, CALIBRATION_PASSWORD);
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        return Math.max(1, best);
+    }
+}
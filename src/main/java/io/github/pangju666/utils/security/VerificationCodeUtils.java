@@ -60,12 +60,19 @@ public final class VerificationCodeUtils {
      */
     static Generator getGenerator(final Mode mode) {
         switch(mode) {
-            case NUMBER: return RandomUtils::nextNumberCharacter;
-            case MIX: return RandomUtils::nextLetterCharacter;
-            default: return RandomUtils::nextLetterOrNumberCharacter;
+            case NUMBER: return () -> nextCharacter('0', '9');
+            case MIX: return () -> nextCharacter('A', 'z');
+            default: return () -> RandomUtils.secureRandom().nextBoolean() ? nextCharacter('0', '9') : nextCharacter('A', 'z');
         }
     }
 
+    /**
+     * 使用{@link RandomUtils#secureRandom()}生成[min, max)之间的字符，不受{@link RandomUtils#setMode(RandomUtils.Mode)}影响
+     */
+    private static char nextCharacter(char min, char max) {
+        return (char) (min + RandomUtils.secureRandom().nextInt(max - min));
+    }
+
     /**
      * 生成器
      */
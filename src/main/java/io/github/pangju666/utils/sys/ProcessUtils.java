@@ -1,5 +1,6 @@
 package io.github.pangju666.utils.sys;
 
+import io.github.pangju666.utils.error.ExceptionAggregator;
 import org.apache.commons.io.IOUtils;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
@@ -280,7 +281,7 @@ public class ProcessUtils {
                 result = errorFuture.get();
             }
         } catch (ExecutionException e) {
-            e.printStackTrace();
+            ExceptionAggregator.getDefault().record("获取进程执行结果", e);
         } finally {
             // 销毁进程
             process.destroy();
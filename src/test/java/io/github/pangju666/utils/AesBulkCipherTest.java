@@ -0,0 +1,93 @@
+package io.github.pangju666.utils;
+
+import io.github.pangju666.utils.codec.AesBulkCipher;
+import io.github.pangju666.utils.codec.AesUtils;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import javax.crypto.Cipher;
+import javax.crypto.spec.IvParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+public class AesBulkCipherTest {
+
+    @Test
+    public void encryptTest() throws Exception {
+        byte[] secretKey = AesUtils.generateSecretKey();
+        AesBulkCipher bulkCipher = new AesBulkCipher(ForkJoinPool.commonPool(), 64);
+        for (int size : new int[]{0, 1, 63, 64, 65, 64 * 37 + 5}) {
+            byte[] source = new byte[size];
+            new Random(size).nextBytes(source);
+            byte[] encrypted = bulkCipher.encrypt(source, secretKey);
+
+            // 与整体串行CTR加密结果一致
+            byte[] counter = Arrays.copyOfRange(encrypted, 13, AesBulkCipher.HEADER_LENGTH);
+            Assertions.assertArrayEquals(serialCtr(source, secretKey, counter),
+                    Arrays.copyOfRange(encrypted, AesBulkCipher.HEADER_LENGTH, encrypted.length));
+            Assertions.assertArrayEquals(source, bulkCipher.decrypt(encrypted, secretKey));
+        }
+    }
+
+    @Test
+    public void counterCarryTest() throws Exception {
+        byte[] secretKey = AesUtils.generateSecretKey();
+        byte[] source = new byte[64 * 8];
+        new Random(1).nextBytes(source);
+        // 低64位即将溢出，分段计数器需要进位至高64位
+        byte[] counter = new byte[16];
+        Arrays.fill(counter, 4, 16, (byte) 0xFF);
+        counter[15] = (byte) 0xFA;
+
+        byte[] encrypted = new byte[AesBulkCipher.HEADER_LENGTH + source.length];
+        encrypted[0] = 1;
+        encrypted[4] = 64;
+        encrypted[11] = (byte) (source.length >>> 8);
+        encrypted[12] = (byte) source.length;
+        System.arraycopy(counter, 0, encrypted, 13, counter.length);
+        System.arraycopy(serialCtr(source, secretKey, counter), 0, encrypted, AesBulkCipher.HEADER_LENGTH,
+                source.length);
+
+        AesBulkCipher bulkCipher = new AesBulkCipher(ForkJoinPool.commonPool(), 64);
+        Assertions.assertArrayEquals(source, bulkCipher.decrypt(encrypted, secretKey));
+        for (int i = 0; i < 8; i++) {
+            Assertions.assertArrayEquals(Arrays.copyOfRange(source, i * 64, i * 64 + 64),
+                    bulkCipher.decryptSegment(encrypted, i, secretKey));
+        }
+    }
+
+    @Test
+    public void fileEncryptTest() throws IOException {
+        byte[] secretKey = AesUtils.generateSecretKey();
+        AesBulkCipher bulkCipher = new AesBulkCipher(ForkJoinPool.commonPool(), 4096);
+        byte[] source = new byte[4096 * 5 + 100];
+        new Random(2).nextBytes(source);
+        Path plain = Files.createTempFile("aes-bulk", ".bin");
+        Path encrypted = Files.createTempFile("aes-bulk", ".enc");
+        Path decrypted = Files.createTempFile("aes-bulk", ".dec");
+        try {
+            Files.write(plain, source);
+            bulkCipher.encrypt(plain, encrypted, secretKey);
+            Assertions.assertArrayEquals(source, bulkCipher.decrypt(Files.readAllBytes(encrypted), secretKey));
+            Assertions.assertArrayEquals(Arrays.copyOfRange(source, 4096 * 5, source.length),
+                    bulkCipher.decryptSegment(encrypted, 5, secretKey));
+            bulkCipher.decrypt(encrypted, decrypted, secretKey);
+            Assertions.assertArrayEquals(source, Files.readAllBytes(decrypted));
+        } finally {
+            Files.deleteIfExists(plain);
+            Files.deleteIfExists(encrypted);
+            Files.deleteIfExists(decrypted);
+        }
+    }
+
+    private static byte[] serialCtr(byte[] source, byte[] secretKey, byte[] counter) throws Exception {
+        Cipher cipher = Cipher.getInstance("AES/CTR/NoPadding");
+        cipher.init(Cipher.ENCRYPT_MODE, new SecretKeySpec(secretKey, "AES"), new IvParameterSpec(counter));
+        return cipher.doFinal(source);
+    }
+}
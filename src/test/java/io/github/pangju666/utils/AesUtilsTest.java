@@ -0,0 +1,83 @@
+package io.github.pangju666.utils;
+
+import io.github.pangju666.utils.codec.AesUtils;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Random;
+
+public class AesUtilsTest {
+
+    @Test
+    public void encryptTest() {
+        byte[] secretKey = AesUtils.generateSecretKey();
+        byte[] source = "胖橘".getBytes();
+        for (int i = 0; i < 3; i++) {
+            byte[] encrypted = AesUtils.encrypt(source, secretKey);
+            Assertions.assertArrayEquals(source, AesUtils.decrypt(encrypted, secretKey));
+        }
+    }
+
+    @Test
+    public void streamEncryptTest() throws IOException {
+        byte[] secretKey = AesUtils.generateSecretKey();
+        int chunkSize = 1024;
+        for (int size : new int[]{0, 1, chunkSize, chunkSize * 3, chunkSize * 3 + 7}) {
+            byte[] source = new byte[size];
+            new Random(size).nextBytes(source);
+
+            ByteArrayOutputStream encrypted = new ByteArrayOutputStream();
+            AesUtils.encrypt(new ByteArrayInputStream(source), encrypted, secretKey, chunkSize);
+            ByteArrayOutputStream decrypted = new ByteArrayOutputStream();
+            AesUtils.decrypt(new ByteArrayInputStream(encrypted.toByteArray()), decrypted, secretKey);
+            Assertions.assertArrayEquals(source, decrypted.toByteArray());
+
+            // 截断末尾分块后必须解密失败
+            if (size > chunkSize) {
+                byte[] truncated = new byte[encrypted.size() - (size % chunkSize == 0 ? chunkSize + 16 : 1)];
+                System.arraycopy(encrypted.toByteArray(), 0, truncated, 0, truncated.length);
+                Assertions.assertThrows(RuntimeException.class, () -> AesUtils.decrypt(
+                        new ByteArrayInputStream(truncated), new ByteArrayOutputStream(), secretKey));
+            }
+        }
+    }
+
+    @Test
+    public void forgedChunkSizeTest() throws IOException {
+        byte[] secretKey = AesUtils.generateSecretKey();
+        ByteArrayOutputStream encrypted = new ByteArrayOutputStream();
+        AesUtils.encrypt(new ByteArrayInputStream(new byte[100]), encrypted, secretKey, 1024);
+        byte[] forged = encrypted.toByteArray();
+        // 头部声明64MiB的分块，实际数据只有100字节
+        forged[1] = 0x04;
+        forged[2] = forged[3] = forged[4] = 0;
+        Assertions.assertThrows(RuntimeException.class, () -> AesUtils.decrypt(
+                new ByteArrayInputStream(forged), new ByteArrayOutputStream(), secretKey));
+
+        byte[] source = encrypted.toByteArray();
+        Assertions.assertThrows(RuntimeException.class, () -> AesUtils.decrypt(
+                new ByteArrayInputStream(source), new ByteArrayOutputStream(), secretKey, 512));
+        ByteArrayOutputStream decrypted = new ByteArrayOutputStream();
+        AesUtils.decrypt(new ByteArrayInputStream(source), decrypted, secretKey, 1024);
+        Assertions.assertArrayEquals(new byte[100], decrypted.toByteArray());
+    }
+
+    @Test
+    public void streamKeyDerivationTest() throws IOException {
+        byte[] secretKey = AesUtils.generateSecretKey(256);
+        byte[] source = new byte[64];
+        ByteArrayOutputStream first = new ByteArrayOutputStream();
+        ByteArrayOutputStream second = new ByteArrayOutputStream();
+        AesUtils.encrypt(new ByteArrayInputStream(source), first, secretKey);
+        AesUtils.encrypt(new ByteArrayInputStream(source), second, secretKey);
+        Assertions.assertFalse(Arrays.equals(first.toByteArray(), second.toByteArray()));
+
+        ByteArrayOutputStream decrypted = new ByteArrayOutputStream();
+        AesUtils.decrypt(new ByteArrayInputStream(second.toByteArray()), decrypted, secretKey);
+        Assertions.assertArrayEquals(source, decrypted.toByteArray());
+    }
+}
@@ -0,0 +1,106 @@
+package io.github.pangju666.utils;
+
+import io.github.pangju666.utils.codec.Base64Channel;
+import io.github.pangju666.utils.codec.Base64Engine;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Random;
+
+public class Base64EngineTest {
+    private static final int[] SIZES = {0, 1, 2, 3, 4, 56, 57, 58, 100, 1000, 4099};
+
+    @Test
+    public void encodeTest() {
+        for (int size : SIZES) {
+            byte[] source = random(size);
+            assertEngine(Base64Engine.STANDARD, Base64.getEncoder(), Base64.getDecoder(), source);
+            assertEngine(Base64Engine.URL_SAFE, Base64.getUrlEncoder(), Base64.getUrlDecoder(), source);
+            assertEngine(Base64Engine.MIME, Base64.getMimeEncoder(), Base64.getMimeDecoder(), source);
+        }
+    }
+
+    @Test
+    public void byteBufferTest() {
+        byte[] source = random(1000);
+        byte[] expected = Base64.getEncoder().encode(source);
+        for (boolean direct : new boolean[]{false, true}) {
+            ByteBuffer input = direct ? ByteBuffer.allocateDirect(source.length) : ByteBuffer.allocate(source.length);
+            input.put(source).flip();
+            ByteBuffer encoded = direct ? ByteBuffer.allocateDirect(expected.length)
+                    : ByteBuffer.allocate(expected.length);
+            Base64Engine.STANDARD.encode(input, encoded);
+            encoded.flip();
+            byte[] actual = new byte[encoded.remaining()];
+            encoded.duplicate().get(actual);
+            Assertions.assertArrayEquals(expected, actual);
+
+            ByteBuffer decoded = ByteBuffer.allocate(source.length);
+            Base64Engine.STANDARD.decode(encoded, decoded);
+            Assertions.assertArrayEquals(source, Arrays.copyOf(decoded.array(), decoded.position()));
+        }
+    }
+
+    @Test
+    public void unpaddedDecodeTest() {
+        for (int size : SIZES) {
+            byte[] source = random(size);
+            byte[] unpadded = Base64.getEncoder().withoutPadding().encode(source);
+            Assertions.assertArrayEquals(source, Base64Engine.STANDARD.decode(unpadded));
+        }
+        Assertions.assertThrows(IllegalArgumentException.class, () -> Base64Engine.STANDARD.decode("ab$d".getBytes()));
+    }
+
+    @Test
+    public void channelTest() throws IOException {
+        byte[] source = random(10000);
+        for (Base64Engine engine : new Base64Engine[]{Base64Engine.STANDARD, Base64Engine.MIME}) {
+            byte[] expected = engine.encode(source);
+            // 按不规则长度分多次写入，结果与一次编码相同
+            ByteArrayOutputStream encoded = new ByteArrayOutputStream();
+            try (Base64Channel channel = Base64Channel.newEncoder(encoded, engine)) {
+                writeInPieces(channel, source);
+            }
+            Assertions.assertArrayEquals(expected, encoded.toByteArray());
+
+            ByteArrayOutputStream decoded = new ByteArrayOutputStream();
+            try (Base64Channel channel = Base64Channel.newDecoder(decoded, engine)) {
+                writeInPieces(channel, expected);
+            }
+            Assertions.assertArrayEquals(source, decoded.toByteArray());
+        }
+    }
+
+    private static void assertEngine(Base64Engine engine, Base64.Encoder encoder, Base64.Decoder decoder,
+                                     byte[] source) {
+        byte[] expected = encoder.encode(source);
+        Assertions.assertArrayEquals(expected, engine.encode(source), "length=" + source.length);
+        Assertions.assertEquals(expected.length, engine.encodedLength(source.length));
+        Assertions.assertArrayEquals(source, engine.decode(expected));
+        Assertions.assertArrayEquals(source, decoder.decode(engine.encode(source)));
+
+        byte[] target = new byte[expected.length + 3];
+        int written = engine.encode(source, 0, source.length, target, 3);
+        Assertions.assertArrayEquals(expected, Arrays.copyOfRange(target, 3, 3 + written));
+    }
+
+    private static void writeInPieces(Base64Channel channel, byte[] source) throws IOException {
+        for (int offset = 0, step = 1; offset < source.length; offset += step, step = step * 7 % 101 + 1) {
+            ByteBuffer piece = ByteBuffer.wrap(source, offset, Math.min(step, source.length - offset));
+            while (piece.hasRemaining()) {
+                channel.write(piece);
+            }
+        }
+    }
+
+    private static byte[] random(int size) {
+        byte[] source = new byte[size];
+        new Random(size).nextBytes(source);
+        return source;
+    }
+}
@@ -0,0 +1,73 @@
+package io.github.pangju666.utils;
+
+import io.github.pangju666.utils.common.CachedClock;
+import io.github.pangju666.utils.common.DateUtils;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.concurrent.TimeUnit;
+
+public class CachedClockTest {
+
+    @Test
+    public void millisTest() throws InterruptedException {
+        CachedClock clock = CachedClock.getDefault();
+        long before = System.currentTimeMillis();
+        Thread.sleep(clock.getResolutionMillis() * 2 + 20);
+        long cached = clock.millis();
+        // 缓存的时间不早于精度之前，不晚于当前时间
+        Assertions.assertTrue(cached >= before, cached + " < " + before);
+        Assertions.assertTrue(cached <= System.currentTimeMillis());
+        Assertions.assertEquals(cached, clock.instant().toEpochMilli(), clock.getResolutionMillis() + 20);
+    }
+
+    @Test
+    public void closeTest() throws InterruptedException {
+        // 关闭默认时钟不做任何操作
+        CachedClock.getDefault().close();
+        Assertions.assertEquals(CachedClock.DEFAULT_RESOLUTION_MILLIS, CachedClock.getDefault().getResolutionMillis());
+
+        CachedClock clock = new CachedClock(5, TimeUnit.MILLISECONDS);
+        Assertions.assertEquals(5, clock.getResolutionMillis());
+        clock.close();
+        Thread.sleep(10);
+        long stopped = clock.millis();
+        Thread.sleep(30);
+        Assertions.assertEquals(stopped, clock.millis());
+        // 默认时钟不受影响
+        long before = System.currentTimeMillis();
+        Thread.sleep(CachedClock.getDefault().getResolutionMillis() * 2 + 20);
+        Assertions.assertTrue(CachedClock.getDefault().millis() >= before);
+    }
+
+    @Test
+    public void zoneTest() {
+        CachedClock clock = CachedClock.getDefault();
+        Assertions.assertEquals(ZoneId.systemDefault(), clock.getZone());
+        Clock zoned = clock.withZone(ZoneId.of("Asia/Shanghai"));
+        Assertions.assertEquals(ZoneId.of("Asia/Shanghai"), zoned.getZone());
+        Assertions.assertEquals(clock.millis(), zoned.millis(), clock.getResolutionMillis() + 20);
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new CachedClock(500, TimeUnit.MICROSECONDS));
+    }
+
+    @Test
+    public void dateUtilsClockTest() throws InterruptedException {
+        // 默认不使用缓存时钟
+        Assertions.assertEquals(Clock.systemUTC(), DateUtils.getClock());
+        Assertions.assertThrows(NullPointerException.class, () -> DateUtils.setClock(null));
+        Clock fixed = Clock.fixed(Instant.ofEpochMilli(86400000L), ZoneId.of("UTC"));
+        try {
+            DateUtils.setClock(fixed);
+            Assertions.assertEquals(86400000L, DateUtils.currentTimeMillis());
+            DateUtils.setClock(CachedClock.getDefault());
+            long before = System.currentTimeMillis();
+            Thread.sleep(CachedClock.getDefault().getResolutionMillis() * 2 + 20);
+            Assertions.assertTrue(DateUtils.currentTimeMillis() >= before);
+        } finally {
+            DateUtils.setClock(Clock.systemUTC());
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package io.github.pangju666.utils;
+
+import io.github.pangju666.utils.codec.CipherProviderSelector;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import javax.crypto.Cipher;
+import java.util.Collections;
+import java.util.Map;
+
+public class CipherProviderSelectorTest {
+
+    @Test
+    public void selectTest() throws Exception {
+        CipherProviderSelector selector = new CipherProviderSelector();
+        String transformation = "AES/CTR/NoPadding";
+        CipherProviderSelector.Selection selection = selector.select(transformation);
+        // 首次选择不测量，选用与Cipher.getInstance相同的提供者
+        Assertions.assertFalse(selection.isMeasured());
+        Assertions.assertEquals(Cipher.getInstance(transformation).getProvider(), selection.getProvider());
+        Assertions.assertSame(selection, selector.select(transformation));
+        Assertions.assertEquals(selection.getProvider(), selector.getCipher(transformation).getProvider());
+
+        Assertions.assertNull(selector.select("AES/NONE/NoSuchPadding").getProvider());
+    }
+
+    @Test
+    public void benchmarkTest() {
+        CipherProviderSelector selector = new CipherProviderSelector();
+        String transformation = "AES/CTR/NoPadding";
+        CipherProviderSelector.Selection selection = selector.benchmark(transformation).get(transformation);
+        Assertions.assertTrue(selection.isMeasured());
+        Map<String, Double> throughputs = selection.getThroughputs();
+        Assertions.assertEquals(Collections.max(throughputs.values()),
+                throughputs.get(selection.getProvider().getName()));
+        Assertions.assertSame(selection, selector.select(transformation));
+    }
+}
@@ -0,0 +1,129 @@
+package io.github.pangju666.utils;
+
+import io.github.pangju666.utils.common.DateUtils;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.text.SimpleDateFormat;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.Date;
+import java.util.Random;
+import java.util.TimeZone;
+
+public class DateUtilsTest {
+    private static final String[] PATTERNS = {DateUtils.DATE_FORMAT, DateUtils.DATETIME_FORMAT, "u", "YYYY-ww",
+            "yyyy-MM-dd E a hh:mm:ss.SSS Z", "yy/M/d G"};
+    /** 1582-10-15T00:00:00Z，格里高利历启用时刻 */
+    private static final long GREGORIAN_CUTOVER = -12219292800000L;
+    /** 1900-01-01T00:00:00Z */
+    private static final long YEAR_1900 = -2208988800000L;
+    /** 10000-01-01T00:00:00Z */
+    private static final long YEAR_10000 = 253402300800000L;
+
+    @Test
+    public void formatDateTest() {
+        long[] milliseconds = samples();
+        for (String pattern : PATTERNS) {
+            SimpleDateFormat expected = new SimpleDateFormat(pattern);
+            for (long millisecond : milliseconds) {
+                Date date = new Date(millisecond);
+                Assertions.assertEquals(expected.format(date), DateUtils.formatDate(date, pattern),
+                        pattern + " " + millisecond);
+                Assertions.assertEquals(expected.format(date),
+                        DateUtils.formatTo(millisecond, pattern, new StringBuilder()).toString());
+            }
+        }
+    }
+
+    @Test
+    public void formatDatesTest() {
+        long[] milliseconds = samples();
+        for (String zone : new String[]{"Asia/Shanghai", "America/New_York", "Europe/London"}) {
+            for (String pattern : PATTERNS) {
+                SimpleDateFormat expected = new SimpleDateFormat(pattern);
+                expected.setTimeZone(TimeZone.getTimeZone(zone));
+                String[] actual = DateUtils.formatDates(milliseconds, pattern, ZoneId.of(zone));
+                for (int i = 0; i < milliseconds.length; i++) {
+                    Assertions.assertEquals(expected.format(new Date(milliseconds[i])), actual[i],
+                            zone + " " + pattern + " " + milliseconds[i]);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void formatterTest() {
+        ZoneId utc = ZoneId.of("UTC");
+        // 字母按SimpleDateFormat解释：u为星期序号，1582-10-15之前按儒略历计算
+        Assertions.assertEquals("1", DateUtils.getFormatter("u", utc).format(1704067200000L));
+        Assertions.assertEquals("1582-10-04", DateUtils.getFormatter("yyyy-MM-dd", utc)
+                .format(GREGORIAN_CUTOVER - 1));
+        // Y为基于星期的年份，规则随区域设置变化
+        SimpleDateFormat weekYear = new SimpleDateFormat("YYYY-'W'ww");
+        weekYear.setTimeZone(TimeZone.getTimeZone(utc));
+        Assertions.assertEquals(weekYear.format(new Date(1609459200000L)),
+                DateUtils.getFormatter("YYYY-'W'ww", utc).format(1609459200000L));
+
+        Assertions.assertSame(DateUtils.getFormatter("yyyy/MM", utc), DateUtils.getFormatter("yyyy/MM", utc));
+        Assertions.assertNotSame(DateUtils.getFormatter("yyyy/MM", utc),
+                DateUtils.getFormatter("yyyy/MM", ZoneId.of("Asia/Shanghai")));
+        // 缓存数量达到上限后新的组合不再缓存
+        for (int i = 0; i <= DateUtils.MAX_FORMATTER_CACHE_SIZE; i++) {
+            DateUtils.getFormatter("'p" + i + "'yyyy", utc);
+        }
+        Assertions.assertSame(DateUtils.getFormatter("yyyy/MM", utc), DateUtils.getFormatter("yyyy/MM", utc));
+        Assertions.assertNotSame(DateUtils.getFormatter("'q'yyyy", utc), DateUtils.getFormatter("'q'yyyy", utc));
+        Assertions.assertEquals("q2024", DateUtils.getFormatter("'q'yyyy", utc).format(1704067200000L));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> DateUtils.getFormatter("yyyy-MM-dd q", utc));
+    }
+
+    @Test
+    public void bulkTest() {
+        // 超出并行阈值，拆分后并行处理
+        Random random = new Random(1);
+        int length = DateUtils.PARALLEL_THRESHOLD * 3 + 7;
+        long[] startMillis = new long[length];
+        long[] endMillis = new long[length];
+        for (int i = 0; i < length; i++) {
+            startMillis[i] = 946684800000L + (long) (random.nextDouble() * 1577836800000L);
+            endMillis[i] = startMillis[i] + random.nextInt(1 << 30) - (1 << 28);
+        }
+        ZoneId zone = ZoneId.of("America/New_York");
+        String[] formatted = DateUtils.formatDates(startMillis, DateUtils.DATETIME_FORMAT, zone);
+        long[] days = DateUtils.truncate(startMillis, DateUtils.Base.DAY, zone);
+        long[] hours = DateUtils.truncate(startMillis, DateUtils.Base.HOUR, zone);
+        long[] minutes = DateUtils.subTime(startMillis, endMillis, DateUtils.Base.MINUTE);
+        DateTimeFormatter formatter = DateTimeFormatter.ofPattern(DateUtils.DATETIME_FORMAT);
+        for (int i = 0; i < length; i++) {
+            ZonedDateTime dateTime = Instant.ofEpochMilli(startMillis[i]).atZone(zone);
+            Assertions.assertEquals(formatter.format(dateTime), formatted[i]);
+            Assertions.assertEquals(dateTime.toLocalDate().atStartOfDay(zone).toInstant().toEpochMilli(), days[i]);
+            Assertions.assertEquals(dateTime.truncatedTo(ChronoUnit.HOURS).toInstant().toEpochMilli(), hours[i]);
+            Assertions.assertEquals(DateUtils.subTime(startMillis[i], endMillis[i], DateUtils.Base.MINUTE),
+                    minutes[i]);
+        }
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> DateUtils.subTime(new long[1], new long[2], DateUtils.Base.DAY));
+    }
+
+    private static long[] samples() {
+        Random random = new Random(0);
+        long[] milliseconds = new long[1000];
+        int index = 0;
+        // 格里高利历启用日、1900年和一万年前后
+        for (long base : new long[]{GREGORIAN_CUTOVER, YEAR_1900, YEAR_10000, 0L}) {
+            for (int hour = -48; hour <= 48; hour += 6) {
+                milliseconds[index++] = base + hour * 3600_000L;
+            }
+        }
+        // 1000年至3000年之间的随机时间
+        while (index < milliseconds.length) {
+            milliseconds[index++] = -30610224000000L + (long) (random.nextDouble() * 63113904000000L);
+        }
+        return milliseconds;
+    }
+}
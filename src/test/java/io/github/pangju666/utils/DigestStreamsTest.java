@@ -0,0 +1,60 @@
+package io.github.pangju666.utils;
+
+import io.github.pangju666.utils.codec.DigestStreams;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.util.Arrays;
+import java.util.Random;
+
+public class DigestStreamsTest {
+
+    @Test
+    public void digestTest() throws Exception {
+        byte[] source = new byte[100 * 1024 + 3];
+        new Random(0).nextBytes(source);
+        for (DigestStreams.Algorithm algorithm : DigestStreams.Algorithm.values()) {
+            byte[] expected = MessageDigest.getInstance(algorithm.getAlgorithm()).digest(source);
+            Assertions.assertArrayEquals(expected, DigestStreams.digest(algorithm, source));
+            Assertions.assertArrayEquals(expected, DigestStreams.digest(algorithm, ByteBuffer.wrap(source)));
+            Assertions.assertArrayEquals(expected,
+                    DigestStreams.digest(algorithm, new ByteArrayInputStream(source)));
+        }
+    }
+
+    @Test
+    public void knownAnswerTest() throws IOException {
+        byte[] source = "abc".getBytes();
+        Assertions.assertEquals("900150983cd24fb0d6963f7d28e17f72",
+                DigestStreams.digestHex(DigestStreams.Algorithm.MD5, new ByteArrayInputStream(source)));
+        Assertions.assertEquals("ba7816bf8f01cfea414140de5dae2223b00361a396177a9cb410ff61f20015ad",
+                DigestStreams.digestHex(DigestStreams.Algorithm.SHA_256, new ByteArrayInputStream(source)));
+    }
+
+    @Test
+    public void fileDigestTest() throws Exception {
+        byte[] source = new byte[300 * 1024];
+        new Random(1).nextBytes(source);
+        Path path = Files.createTempFile("digest", ".bin");
+        try {
+            Files.write(path, source);
+            MessageDigest expected = MessageDigest.getInstance("SHA-256");
+            Assertions.assertArrayEquals(expected.digest(source),
+                    DigestStreams.digest(DigestStreams.Algorithm.SHA_256, path));
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+                Assertions.assertArrayEquals(expected.digest(Arrays.copyOfRange(source, 1000, 201000)),
+                        DigestStreams.digest(DigestStreams.Algorithm.SHA_256, channel, 1000, 200000));
+            }
+        } finally {
+            Files.deleteIfExists(path);
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package io.github.pangju666.utils;
+
+import io.github.pangju666.utils.common.EnumUtils;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Method;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.function.Function;
+
+public class EnumUtilsTest {
+
+    public enum Level {
+        LOW(1),
+        QUINTILLION(1_000_000_000_000_000_000L),
+        MAX(Long.MAX_VALUE),
+        MIN(Long.MIN_VALUE),
+        HUGE(BigInteger.ONE.shiftLeft(63)),
+        HALF(new BigDecimal("0.50")),
+        NAME("胖橘"),
+        DUPLICATE(1),
+        NONE(null);
+
+        Level(Object value) {
+            this.value = value;
+        }
+
+        public Object getValue() {
+            return value;
+        }
+
+        private final Object value;
+    }
+
+    public enum Plain {
+        A
+    }
+
+    /** 非公开枚举，访问器使用MethodHandle */
+    private enum Hidden {
+        X("x");
+
+        Hidden(String value) {
+            this.value = value;
+        }
+
+        private String getValue() {
+            return value;
+        }
+
+        private final String value;
+    }
+
+    @Test
+    public void getEnumByValueTest() {
+        for (Object value : new Object[]{1, 1L, (short) 1, (byte) 1, 1.0, 1.0f, BigInteger.ONE, new BigDecimal("1.00")}) {
+            Assertions.assertSame(Level.LOW, EnumUtils.getEnumByValue(Level.class, value), String.valueOf(value));
+        }
+        Assertions.assertSame(Level.HALF, EnumUtils.getEnumByValue(Level.class, 0.5));
+        Assertions.assertSame(Level.NAME, EnumUtils.getEnumByValue(Level.class, "胖橘"));
+        Assertions.assertSame(Level.NONE, EnumUtils.getEnumByValue(Level.class, null));
+        Assertions.assertNull(EnumUtils.getEnumByValue(Level.class, 2));
+        Assertions.assertNull(EnumUtils.getEnumByValue(Plain.class, 1));
+    }
+
+    @Test
+    public void longBoundaryTest() {
+        // 19位整数仍在Long范围内，各类型按大小匹配
+        for (Object value : new Object[]{1_000_000_000_000_000_000L, BigInteger.TEN.pow(18),
+                new BigDecimal("1E+18"), new BigDecimal("1000000000000000000.000"), 1e18}) {
+            Assertions.assertSame(Level.QUINTILLION, EnumUtils.getEnumByValue(Level.class, value),
+                    String.valueOf(value));
+        }
+        Assertions.assertSame(Level.MAX, EnumUtils.getEnumByValue(Level.class, BigInteger.valueOf(Long.MAX_VALUE)));
+        Assertions.assertSame(Level.MAX, EnumUtils.getEnumByValue(Level.class, new BigDecimal(Long.MAX_VALUE)));
+        Assertions.assertSame(Level.MIN, EnumUtils.getEnumByValue(Level.class, BigInteger.valueOf(Long.MIN_VALUE)));
+        // 超出Long范围
+        Assertions.assertSame(Level.HUGE, EnumUtils.getEnumByValue(Level.class, new BigDecimal("9223372036854775808")));
+        Assertions.assertNull(EnumUtils.getEnumByValue(Level.class, BigInteger.ONE.shiftLeft(64)));
+    }
+
+    @Test
+    public void valueOfTest() throws NoSuchMethodException {
+        Assertions.assertSame(Level.LOW, EnumUtils.valueOf(Level.class, "LOW", Level.class.getMethod("name")));
+        Assertions.assertSame(Level.MAX, EnumUtils.valueOf(Level.class, 2, Level.class.getMethod("ordinal")));
+    }
+
+    @Test
+    public void accessorTest() throws NoSuchMethodException {
+        for (Level level : Level.values()) {
+            Assertions.assertEquals(level.getValue(), EnumUtils.getValue(level));
+            Assertions.assertEquals(level.getValue(), EnumUtils.getValueAccessor(Level.class).apply(level));
+        }
+        Assertions.assertSame(EnumUtils.getValueAccessor(Level.class), EnumUtils.getValueAccessor(Level.class));
+
+        Method method = Hidden.class.getDeclaredMethod("getValue");
+        Function<Object, Object> accessor = EnumUtils.getAccessor(method);
+        Assertions.assertEquals("x", accessor.apply(Hidden.X));
+        Assertions.assertSame(accessor, EnumUtils.getAccessor(method));
+        Assertions.assertSame(Hidden.X, EnumUtils.valueOf(Hidden.class, "x", method));
+        Assertions.assertEquals(1, EnumUtils.getAccessor(Level.class.getMethod("ordinal")).apply(Level.QUINTILLION));
+
+        Assertions.assertThrows(IllegalArgumentException.class, () -> EnumUtils.getValue(Plain.A));
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> EnumUtils.getAccessor(Level.class.getMethod("valueOf", String.class)));
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> EnumUtils.getAccessor(Object.class.getMethod("notify")));
+    }
+}
@@ -0,0 +1,91 @@
+package io.github.pangju666.utils;
+
+import io.github.pangju666.utils.error.ExceptionAggregator;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class ExceptionAggregatorTest {
+
+    @Test
+    public void traceLimitTest() {
+        List<String> messages = new ArrayList<>();
+        ExceptionAggregator aggregator = new ExceptionAggregator(3_600_000L, 5, 100, 2, messages::add);
+        // 5个不同来源的异常，本间隔只输出前2个堆栈
+        for (int i = 0; i < 5; i++) {
+            aggregator.record("来源" + i, new IllegalStateException("错误" + i));
+        }
+        Assertions.assertEquals(2, messages.size());
+        Assertions.assertTrue(messages.get(0).contains("[来源0]") && messages.get(0).contains("\tat "));
+        Assertions.assertEquals(5, aggregator.getFingerprintCount());
+
+        // 汇总列出未输出堆栈的异常，之后重置堆栈数量上限
+        aggregator.flush();
+        Assertions.assertEquals(3, messages.size());
+        String summary = messages.get(2);
+        Assertions.assertFalse(summary.contains("[来源0]") || summary.contains("[来源1]"), summary);
+        for (int i = 2; i < 5; i++) {
+            Assertions.assertTrue(summary.contains("1次(累计1次) [来源" + i + "]"), summary);
+        }
+        aggregator.record("来源5", new IllegalStateException());
+        Assertions.assertEquals(4, messages.size());
+        Assertions.assertTrue(messages.get(3).contains("[来源5]"));
+    }
+
+    @Test
+    public void countTest() {
+        List<String> messages = new ArrayList<>();
+        ExceptionAggregator aggregator = new ExceptionAggregator(3_600_000L, 5, 1, messages::add);
+        IllegalStateException exception = new IllegalStateException("错误");
+        for (int i = 0; i < 100; i++) {
+            aggregator.record("读取", exception);
+        }
+        Assertions.assertEquals(100, aggregator.getCount("读取", exception));
+        Assertions.assertEquals(1, messages.size());
+
+        // 超出指纹数量上限
+        aggregator.record("写入", new IllegalArgumentException());
+        Assertions.assertEquals(1, aggregator.getOverflowCount());
+        Assertions.assertEquals(0, aggregator.getCount("写入", new IllegalArgumentException()));
+
+        // 尾部的计数需要flush才会输出
+        aggregator.flush();
+        Assertions.assertEquals(2, messages.size());
+        Assertions.assertTrue(messages.get(1).contains("99次(累计100次) [读取]"), messages.get(1));
+        Assertions.assertTrue(messages.get(1).contains("1次(累计1次) 超出指纹数量上限的异常"), messages.get(1));
+        aggregator.flush();
+        Assertions.assertEquals(2, messages.size());
+    }
+
+    @Test
+    public void clearTest() {
+        List<String> messages = new ArrayList<>();
+        ExceptionAggregator aggregator = new ExceptionAggregator(3_600_000L, 5, 100, 1, messages::add);
+        aggregator.record("来源0", new IllegalStateException());
+        aggregator.record("来源1", new IllegalStateException());
+        Assertions.assertEquals(1, messages.size());
+
+        // 清空后恢复堆栈数量上限，新的异常立即输出堆栈
+        aggregator.clear();
+        Assertions.assertEquals(0, aggregator.getFingerprintCount());
+        aggregator.record("来源2", new IllegalStateException());
+        Assertions.assertEquals(2, messages.size());
+        Assertions.assertTrue(messages.get(1).contains("[来源2]") && messages.get(1).contains("\tat "));
+    }
+
+    @Test
+    public void reportIntervalTest() {
+        List<String> messages = new ArrayList<>();
+        ExceptionAggregator aggregator = new ExceptionAggregator(0L, 5, 100, 1, messages::add);
+        for (int i = 0; i < 2; i++) {
+            aggregator.record("读取", new IllegalStateException("错误"));
+        }
+        // 间隔为0时每次记录都会汇总
+        Assertions.assertEquals(2, messages.size());
+        Assertions.assertTrue(messages.get(1).startsWith("异常汇总："));
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> new ExceptionAggregator(0L, 5, 100, -1, messages::add));
+    }
+}
@@ -0,0 +1,57 @@
+package io.github.pangju666.utils;
+
+import io.github.pangju666.utils.error.ExceptionUtils;
+import io.github.pangju666.utils.error.LightweightException;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class ExceptionUtilsTest {
+
+    @Test
+    public void throwIfTest() {
+        AtomicInteger created = new AtomicInteger();
+        // 条件不成立时不创建异常
+        Assertions.assertDoesNotThrow(() -> ExceptionUtils.throwIf(false, () -> {
+            created.incrementAndGet();
+            return new IOException();
+        }));
+        Assertions.assertEquals(0, created.get());
+        Assertions.assertThrows(IOException.class, () -> ExceptionUtils.throwIf(true, IOException::new));
+        Assertions.assertEquals("胖橘", ExceptionUtils.throwIfNull("胖橘", IllegalStateException::new));
+        Assertions.assertThrows(IllegalStateException.class,
+                () -> ExceptionUtils.throwIfNull(null, IllegalStateException::new));
+        Assertions.assertThrows(Exception.class, () -> ExceptionUtils.throwException(true, "原因"));
+    }
+
+    @Test
+    public void lightweightExceptionTest() {
+        LightweightException exception = Assertions.assertThrows(LightweightException.class,
+                () -> ExceptionUtils.throwIf(true, "校验失败"));
+        Assertions.assertSame(exception, ExceptionUtils.lightweightException("校验失败"));
+        Assertions.assertEquals("校验失败", exception.getMessage());
+        // 不含堆栈且不可修改
+        Assertions.assertEquals(0, exception.getStackTrace().length);
+        exception.fillInStackTrace();
+        exception.setStackTrace(new Throwable().getStackTrace());
+        exception.addSuppressed(new RuntimeException());
+        Assertions.assertEquals(0, exception.getStackTrace().length);
+        Assertions.assertEquals(0, exception.getSuppressed().length);
+        Assertions.assertThrows(IllegalStateException.class, () -> exception.initCause(new RuntimeException()));
+        Assertions.assertNotSame(ExceptionUtils.lightweightException(null), ExceptionUtils.lightweightException(null));
+
+        IOException cause = new IOException();
+        Assertions.assertSame(cause, new LightweightException("原因", cause).getCause());
+
+        for (int i = 0; i <= ExceptionUtils.MAX_LIGHTWEIGHT_CACHE_SIZE; i++) {
+            ExceptionUtils.lightweightException("原因" + i);
+        }
+        // 缓存已满，新的原因不再缓存
+        String reason = "未缓存的原因";
+        LightweightException uncached = ExceptionUtils.lightweightException(reason);
+        Assertions.assertEquals(reason, uncached.getMessage());
+        Assertions.assertNotSame(uncached, ExceptionUtils.lightweightException(reason));
+    }
+}
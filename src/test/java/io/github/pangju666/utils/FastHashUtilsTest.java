@@ -0,0 +1,103 @@
+package io.github.pangju666.utils;
+
+import io.github.pangju666.utils.codec.FastHashUtils;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+public class FastHashUtilsTest {
+    private static final int[] LENGTHS = {0, 1, 31, 32, 33, 100};
+
+    /** xxHash64参考值，输入为0, 1, 2, ...，种子为0 */
+    private static final long[] XXHASH64 = {
+            0xEF46DB3751D8E999L, 0xE934A84ADB052768L, 0xC346D2B59B4D8EE1L,
+            0xCBF59C5116FF32B4L, 0x0C535D1ACAFB8EADL, 0x6AC1E58032166597L};
+    /** xxHash64参考值，种子为0x9E3779B97F4A7C15 */
+    private static final long[] XXHASH64_SEEDED = {
+            0xC4349FC93C010000L, 0x126BB57A12364AA5L, 0xF3DA6D05709C035DL,
+            0xA1C89217E9D50750L, 0xE6A3C00CD6E74075L, 0x3B97D91EBA03E785L};
+    /** MurmurHash3_x64_128参考值(h1, h2)，种子为0 */
+    private static final long[][] MURMUR3 = {
+            {0x0000000000000000L, 0x0000000000000000L}, {0x4610ABE56EFF5CB5L, 0x51622DAA78F83583L},
+            {0x053DD3E1A32CD094L, 0x9EE59AEFB4005490L}, {0xC66D9022B62F500FL, 0x1C050A6E34C31151L},
+            {0x7D41281BFABA4612L, 0x55AC8073A7D6A30BL}, {0xB06F9999C14051CAL, 0x0FBD6D93C8340799L}};
+    /** MurmurHash3_x64_128参考值(h1, h2)，种子为-1(即0xFFFFFFFF) */
+    private static final long[][] MURMUR3_SEEDED = {
+            {0x6AF1DF4D9D3BC9ECL, 0x857421121EE6446BL}, {0x97FA8C007C7250E6L, 0x6956901461600097L},
+            {0x872F4D7D5FD9858BL, 0xCC1CECE8A493C79BL}, {0xB1F644A172CEA581L, 0x544889A140CC1C38L},
+            {0x81AD0194E6FB8DE4L, 0x57B4E3C32AD0F6F9L}, {0xDF49F51E487EC744L, 0xD51A015E504BC899L}};
+
+    @Test
+    public void xxHash64Test() throws IOException {
+        Assertions.assertEquals(0x44BC2CF5AD770999L, FastHashUtils.xxHash64("abc".getBytes()));
+        for (int i = 0; i < LENGTHS.length; i++) {
+            byte[] source = sequence(LENGTHS[i]);
+            Assertions.assertEquals(XXHASH64[i], FastHashUtils.xxHash64(source), "length=" + LENGTHS[i]);
+            long seed = 0x9E3779B97F4A7C15L;
+            Assertions.assertEquals(XXHASH64_SEEDED[i], FastHashUtils.xxHash64(source, 0, source.length, seed));
+            Assertions.assertEquals(XXHASH64_SEEDED[i], FastHashUtils.xxHash64(ByteBuffer.wrap(source), seed));
+            Assertions.assertEquals(XXHASH64_SEEDED[i],
+                    FastHashUtils.xxHash64(new ByteArrayInputStream(source), seed));
+        }
+    }
+
+    @Test
+    public void murmur3HashTest() throws IOException {
+        for (int i = 0; i < LENGTHS.length; i++) {
+            byte[] source = sequence(LENGTHS[i]);
+            Assertions.assertArrayEquals(MURMUR3[i], FastHashUtils.murmur3Hash128(source), "length=" + LENGTHS[i]);
+            Assertions.assertEquals(MURMUR3[i][0], FastHashUtils.murmur3Hash64(source));
+            Assertions.assertArrayEquals(MURMUR3_SEEDED[i],
+                    FastHashUtils.murmur3Hash128(source, 0, source.length, -1));
+            Assertions.assertArrayEquals(MURMUR3_SEEDED[i],
+                    FastHashUtils.murmur3Hash128(ByteBuffer.wrap(source), -1));
+            Assertions.assertArrayEquals(MURMUR3_SEEDED[i],
+                    FastHashUtils.murmur3Hash128(new ByteArrayInputStream(source), -1));
+        }
+    }
+
+    @Test
+    public void incrementalTest() {
+        byte[] source = new byte[1000];
+        new Random(0).nextBytes(source);
+        FastHashUtils.XxHash64 xxHash64 = new FastHashUtils.XxHash64(7);
+        FastHashUtils.Murmur3Hash128 murmur3Hash128 = new FastHashUtils.Murmur3Hash128(7);
+        // 按不规则长度分多次追加
+        for (int offset = 0, step = 1; offset < source.length; offset += step, step = step * 3 % 37 + 1) {
+            int length = Math.min(step, source.length - offset);
+            xxHash64.update(source, offset, length);
+            murmur3Hash128.update(ByteBuffer.wrap(source, offset, length));
+        }
+        Assertions.assertEquals(FastHashUtils.xxHash64(source, 0, source.length, 7), xxHash64.getValue());
+        Assertions.assertArrayEquals(FastHashUtils.murmur3Hash128(source, 0, source.length, 7),
+                murmur3Hash128.getValue());
+    }
+
+    @Test
+    public void charSequenceTest() {
+        for (String source : new String[]{"", "a", "胖橘", "abcdefghijklmnopqrstuvwxyz0123456789", "\uD83D\uDE00x"}) {
+            byte[] bytes = source.getBytes(StandardCharsets.UTF_16LE);
+            Assertions.assertEquals(FastHashUtils.xxHash64(bytes, 0, bytes.length, 3),
+                    FastHashUtils.xxHash64(source, 3));
+            Assertions.assertArrayEquals(FastHashUtils.murmur3Hash128(bytes, 0, bytes.length, 3),
+                    FastHashUtils.murmur3Hash128(source, 3));
+        }
+        // 未配对代理项按原始char计算
+        String unpaired = "a\uD800b";
+        byte[] bytes = {'a', 0, 0x00, (byte) 0xD8, 'b', 0};
+        Assertions.assertEquals(FastHashUtils.xxHash64(bytes, 0, bytes.length, 0), FastHashUtils.xxHash64(unpaired));
+    }
+
+    private static byte[] sequence(int length) {
+        byte[] source = new byte[length];
+        for (int i = 0; i < length; i++) {
+            source[i] = (byte) i;
+        }
+        return source;
+    }
+}
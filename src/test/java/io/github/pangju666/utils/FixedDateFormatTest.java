@@ -0,0 +1,79 @@
+package io.github.pangju666.utils;
+
+import io.github.pangju666.utils.common.FixedDateFormat;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.Random;
+import java.util.TimeZone;
+
+public class FixedDateFormatTest {
+    private static final String[] ZONES = {"UTC", "Asia/Shanghai", "America/New_York", "Europe/London",
+            "Australia/Lord_Howe", "America/St_Johns"};
+    private static final DateTimeFormatter DATE = DateTimeFormatter.ofPattern("yyyy-MM-dd");
+    private static final DateTimeFormatter DATETIME = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    @Test
+    public void formatTest() {
+        Random random = new Random(0);
+        for (String id : ZONES) {
+            ZoneId zone = ZoneId.of(id);
+            FixedDateFormat format = new FixedDateFormat(zone);
+            for (int i = 0; i < 10000; i++) {
+                // 1900年至2100年之间的随机时间
+                long milliseconds = -2208988800000L + (long) (random.nextDouble() * 6311433600000L);
+                Instant instant = Instant.ofEpochMilli(milliseconds);
+                String expected = DATETIME.format(instant.atZone(zone));
+                Assertions.assertEquals(expected, format.formatDateTime(milliseconds), id + " " + milliseconds);
+                Assertions.assertEquals(DATE.format(instant.atZone(zone)), format.formatDate(milliseconds));
+                Assertions.assertEquals(expected, format.formatDateTime(milliseconds, new StringBuilder()).toString());
+                char[] buffer = new char[FixedDateFormat.DATETIME_LENGTH + 2];
+                Assertions.assertTrue(format.formatDateTime(milliseconds, buffer, 2));
+                Assertions.assertEquals(expected, new String(buffer, 2, FixedDateFormat.DATETIME_LENGTH));
+            }
+        }
+    }
+
+    @Test
+    public void parseTest() {
+        ZoneId zone = ZoneId.of("America/New_York");
+        FixedDateFormat format = new FixedDateFormat(zone);
+        // 夏令时开始(不存在的时间)、结束(重复的时间)和普通时间
+        for (String text : new String[]{"2024-03-10 02:30:00", "2024-11-03 01:30:00", "2024-07-01 12:00:00",
+                "2000-02-29 23:59:59"}) {
+            long expected = LocalDateTime.parse(text, DATETIME).atZone(zone).toInstant().toEpochMilli();
+            Assertions.assertEquals(expected, format.parseDateTime(text), text);
+        }
+        Assertions.assertEquals(LocalDateTime.parse("2024-03-10 00:00:00", DATETIME).atZone(zone).toInstant()
+                .toEpochMilli(), format.parseDate("2024-03-10"));
+        for (String text : new String[]{"2023-02-29", "2024-13-01", "2024-1-01", "2024/01/01"}) {
+            Assertions.assertThrows(IllegalArgumentException.class, () -> format.parseDate(text), text);
+        }
+        Assertions.assertThrows(IllegalArgumentException.class, () -> format.parseDateTime("2024-01-01 24:00:00"));
+    }
+
+    @Test
+    public void systemDefaultTest() throws InterruptedException {
+        TimeZone original = TimeZone.getDefault();
+        try {
+            TimeZone.setDefault(TimeZone.getTimeZone("Asia/Shanghai"));
+            Thread.sleep(1100);
+            FixedDateFormat format = FixedDateFormat.systemDefault();
+            Assertions.assertEquals(ZoneId.of("Asia/Shanghai"), format.getZone());
+            Assertions.assertSame(format, FixedDateFormat.systemDefault());
+
+            TimeZone.setDefault(TimeZone.getTimeZone("America/New_York"));
+            Thread.sleep(1100);
+            Assertions.assertEquals(ZoneId.of("America/New_York"), FixedDateFormat.systemDefault().getZone());
+        } finally {
+            TimeZone.setDefault(original);
+            // 等待缓存的默认时区恢复，避免影响其他测试
+            Thread.sleep(1100);
+            FixedDateFormat.systemDefault();
+        }
+    }
+}
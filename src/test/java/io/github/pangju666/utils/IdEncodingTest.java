@@ -0,0 +1,103 @@
+package io.github.pangju666.utils;
+
+import io.github.pangju666.utils.common.IdEncoding;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.UUID;
+
+public class IdEncodingTest {
+    private static final String[] ALPHABETS = {"0123456789abcdef", "0123456789ABCDEFGHJKMNPQRSTVWXYZ",
+            "0123456789ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz"};
+
+    @Test
+    public void encodeTest() {
+        Random random = new Random(0);
+        long[] values = new long[1000];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = i < 4 ? new long[]{0L, 1L, -1L, Long.MIN_VALUE}[i] : random.nextLong() >>> random.nextInt(64);
+        }
+        for (IdEncoding encoding : IdEncoding.values()) {
+            String alphabet = ALPHABETS[encoding.ordinal()];
+            for (long value : values) {
+                String encoded = encoding.encode(value);
+                Assertions.assertEquals(reference(unsigned(0L, value), alphabet, encoding.getLongLength()), encoded);
+                Assertions.assertEquals(value, encoding.decodeLong(encoded));
+
+                long high = random.nextLong();
+                String uuid = encoding.encode(high, value);
+                Assertions.assertEquals(reference(unsigned(high, value), alphabet, encoding.getUUIDLength()), uuid);
+                Assertions.assertEquals(new UUID(high, value), encoding.decodeUUID(uuid));
+            }
+        }
+    }
+
+    @Test
+    public void sortOrderTest() {
+        Random random = new Random(1);
+        long[] values = new long[2000];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = random.nextLong();
+        }
+        for (IdEncoding encoding : IdEncoding.values()) {
+            // 编码后的字典序与无符号数的顺序一致
+            String[] encoded = new String[values.length];
+            for (int i = 0; i < values.length; i++) {
+                encoded[i] = encoding.encode(values[i]);
+            }
+            Arrays.sort(encoded);
+            BigInteger[] expected = new BigInteger[values.length];
+            for (int i = 0; i < values.length; i++) {
+                expected[i] = unsigned(0L, values[i]);
+            }
+            Arrays.sort(expected);
+            for (int i = 0; i < values.length; i++) {
+                Assertions.assertEquals(expected[i].longValue(), encoding.decodeLong(encoded[i]));
+            }
+        }
+    }
+
+    @Test
+    public void decodeTest() {
+        long value = 0x0123456789ABCDEFL;
+        String encoded = IdEncoding.CROCKFORD_BASE32.encode(value);
+        Assertions.assertEquals(value, IdEncoding.CROCKFORD_BASE32.decodeLong(encoded.toLowerCase()));
+        Assertions.assertEquals(IdEncoding.CROCKFORD_BASE32.decodeLong("01"),
+                IdEncoding.CROCKFORD_BASE32.decodeLong("OI"));
+        Assertions.assertEquals(IdEncoding.CROCKFORD_BASE32.decodeLong("01"),
+                IdEncoding.CROCKFORD_BASE32.decodeLong("ol"));
+        Assertions.assertNotEquals(IdEncoding.BASE62.decodeLong("a"), IdEncoding.BASE62.decodeLong("A"));
+
+        Assertions.assertThrows(IllegalArgumentException.class, () -> IdEncoding.HEX.decodeLong("12g4"));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> IdEncoding.BASE62.decodeLong("胖橘"));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> IdEncoding.HEX.decodeLong("10000000000000000"));
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> IdEncoding.HEX.decodeUUID("100000000000000000000000000000000"));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> IdEncoding.BASE62.decodeLong("LygHa16AHYG"));
+        Assertions.assertEquals(-1L, IdEncoding.BASE62.decodeLong("LygHa16AHYF"));
+    }
+
+    private static BigInteger unsigned(long high, long low) {
+        byte[] bytes = new byte[17];
+        for (int i = 0; i < 8; i++) {
+            bytes[1 + i] = (byte) (high >>> (56 - i * 8));
+            bytes[9 + i] = (byte) (low >>> (56 - i * 8));
+        }
+        return new BigInteger(bytes);
+    }
+
+    private static String reference(BigInteger value, String alphabet, int length) {
+        BigInteger radix = BigInteger.valueOf(alphabet.length());
+        char[] result = new char[length];
+        for (int i = length - 1; i >= 0; i--) {
+            BigInteger[] division = value.divideAndRemainder(radix);
+            result[i] = alphabet.charAt(division[1].intValue());
+            value = division[0];
+        }
+        Assertions.assertEquals(BigInteger.ZERO, value);
+        return new String(result);
+    }
+}
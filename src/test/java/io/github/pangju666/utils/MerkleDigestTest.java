@@ -0,0 +1,103 @@
+package io.github.pangju666.utils;
+
+import io.github.pangju666.utils.codec.DigestStreams;
+import io.github.pangju666.utils.codec.MerkleDigest;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+public class MerkleDigestTest {
+    private static final int BLOCK_SIZE = 1024;
+
+    @Test
+    public void digestTest() throws Exception {
+        MerkleDigest merkleDigest = new MerkleDigest(DigestStreams.Algorithm.SHA_256, BLOCK_SIZE,
+                ForkJoinPool.commonPool());
+        Path path = Files.createTempFile("merkle", ".bin");
+        try {
+            for (int size : new int[]{0, 1, BLOCK_SIZE, BLOCK_SIZE + 1, BLOCK_SIZE * 3, BLOCK_SIZE * 4 + 1,
+                    BLOCK_SIZE * 7 - 1}) {
+                byte[] source = new byte[size];
+                new Random(size).nextBytes(source);
+                Files.write(path, source);
+                MerkleDigest.MerkleTree tree = merkleDigest.digest(path);
+                Assertions.assertArrayEquals(referenceRoot(source), tree.getRoot(), "size=" + size);
+                Assertions.assertEquals(Math.max(1, (size + BLOCK_SIZE - 1) / BLOCK_SIZE), tree.getBlockCount());
+                Assertions.assertTrue(merkleDigest.verify(path, tree));
+            }
+        } finally {
+            Files.deleteIfExists(path);
+        }
+    }
+
+    @Test
+    public void updateTest() throws Exception {
+        MerkleDigest merkleDigest = new MerkleDigest(DigestStreams.Algorithm.SHA_256, BLOCK_SIZE,
+                ForkJoinPool.commonPool());
+        Path path = Files.createTempFile("merkle", ".bin");
+        try {
+            byte[] source = new byte[BLOCK_SIZE * 5 + 10];
+            new Random(0).nextBytes(source);
+            Files.write(path, source);
+            MerkleDigest.MerkleTree tree = merkleDigest.digest(path);
+
+            source[BLOCK_SIZE * 2 + 5] ^= 1;
+            Files.write(path, source);
+            BitSet expected = new BitSet();
+            expected.set(2);
+            Assertions.assertEquals(expected, merkleDigest.diff(path, tree));
+            Assertions.assertFalse(merkleDigest.verify(path, tree));
+            MerkleDigest.MerkleTree updated = merkleDigest.update(path, tree, expected);
+            Assertions.assertArrayEquals(referenceRoot(source), updated.getRoot());
+
+            // 文件变长后末尾分块和新增分块自动重新计算
+            byte[] longer = Arrays.copyOf(source, BLOCK_SIZE * 8);
+            Files.write(path, longer);
+            Assertions.assertArrayEquals(referenceRoot(longer),
+                    merkleDigest.update(path, updated, new BitSet()).getRoot());
+            // 文件变短
+            byte[] shorter = Arrays.copyOf(source, BLOCK_SIZE + 3);
+            Files.write(path, shorter);
+            Assertions.assertArrayEquals(referenceRoot(shorter),
+                    merkleDigest.update(path, updated, new BitSet()).getRoot());
+        } finally {
+            Files.deleteIfExists(path);
+        }
+    }
+
+    /**
+     * 按定义串行计算根摘要
+     */
+    private static byte[] referenceRoot(byte[] source) throws Exception {
+        MessageDigest digest = MessageDigest.getInstance("SHA-256");
+        List<byte[]> level = new ArrayList<>();
+        for (int offset = 0; offset < source.length || level.isEmpty(); offset += BLOCK_SIZE) {
+            digest.update((byte) 0x00);
+            digest.update(source, offset, Math.min(BLOCK_SIZE, source.length - offset));
+            level.add(digest.digest());
+        }
+        while (level.size() > 1) {
+            List<byte[]> parent = new ArrayList<>();
+            for (int i = 0; i + 1 < level.size(); i += 2) {
+                digest.update((byte) 0x01);
+                digest.update(level.get(i));
+                digest.update(level.get(i + 1));
+                parent.add(digest.digest());
+            }
+            if (level.size() % 2 != 0) {
+                parent.add(level.get(level.size() - 1));
+            }
+            level = parent;
+        }
+        return level.get(0);
+    }
+}
@@ -0,0 +1,34 @@
+package io.github.pangju666.utils;
+
+import io.github.pangju666.utils.security.PasswordHasher;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.mindrot.jbcrypt.BCrypt;
+
+import java.util.concurrent.TimeUnit;
+
+public class PasswordHasherTest {
+
+    @Test
+    public void hashTest() throws Exception {
+        for (PasswordHasher.Algorithm algorithm : PasswordHasher.Algorithm.values()) {
+            try (PasswordHasher hasher = new PasswordHasher(algorithm, algorithm.getMinCost(), 2, 4)) {
+                String hashed = hasher.hash("胖橘").get(1, TimeUnit.MINUTES);
+                Assertions.assertTrue(hasher.verify("胖橘", hashed).get(1, TimeUnit.MINUTES));
+                Assertions.assertFalse(hasher.verify("胖", hashed).get(1, TimeUnit.MINUTES));
+            }
+        }
+    }
+
+    @Test
+    public void bcryptMaxCostTest() {
+        PasswordHasher.Algorithm algorithm = PasswordHasher.Algorithm.BCRYPT;
+        int maxCost = algorithm.getMaxCost();
+        // 最大强度需要2^30轮计算，无法在测试中执行，这里只校验jbcrypt接受该强度而拒绝更大的值
+        Assertions.assertTrue(BCrypt.gensalt(maxCost).startsWith("$2a$" + maxCost + "$"));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> BCrypt.hashpw("胖橘", BCrypt.gensalt(maxCost + 1)));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new PasswordHasher(algorithm, maxCost + 1, 1, 1));
+        new PasswordHasher(algorithm, maxCost, 1, 1).close();
+        Assertions.assertEquals(maxCost, PasswordHasher.calibrate(algorithm, TimeUnit.DAYS.toMillis(365 * 1000)));
+    }
+}
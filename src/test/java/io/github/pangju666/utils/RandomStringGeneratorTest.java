@@ -0,0 +1,90 @@
+package io.github.pangju666.utils;
+
+import io.github.pangju666.utils.common.RandomStringGenerator;
+import io.github.pangju666.utils.common.RandomUtils;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class RandomStringGeneratorTest {
+
+    @Test
+    public void alphabetTest() {
+        assertAlphabet(RandomStringGenerator.DIGITS, "0123456789");
+        assertAlphabet(RandomStringGenerator.ALPHANUMERIC,
+                "0123456789ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz");
+        assertAlphabet(RandomStringGenerator.of("ab"), "ab");
+        Assertions.assertEquals(0x9fa5 - 0x4e00 + 1, RandomStringGenerator.CHINESE.getAlphabetSize());
+        for (char character : RandomStringGenerator.CHINESE.generate(1000).toCharArray()) {
+            Assertions.assertTrue(character >= '一' && character <= '龥');
+        }
+    }
+
+    @Test
+    public void uniformityTest() {
+        // 10个字符使用4位随机数，超出的取值丢弃后各字符出现次数接近
+        int[] counts = new int[10];
+        for (char character : RandomStringGenerator.DIGITS.generate(200000).toCharArray()) {
+            counts[character - '0']++;
+        }
+        for (int count : counts) {
+            Assertions.assertTrue(Math.abs(count - 20000) < 1000, String.valueOf(count));
+        }
+    }
+
+    @Test
+    public void batchTest() {
+        String[] vouchers = RandomStringGenerator.ALPHANUMERIC.generate(1000, 16);
+        Assertions.assertEquals(1000, vouchers.length);
+        for (String voucher : vouchers) {
+            Assertions.assertEquals(16, voucher.length());
+        }
+        Assertions.assertEquals(0, RandomStringGenerator.DIGITS.generate(0, 5).length);
+
+        StringBuilder builder = new StringBuilder("id-");
+        RandomStringGenerator.LOWERCASE_LETTERS.appendTo(builder, 5);
+        Assertions.assertTrue(builder.toString().matches("id-[a-z]{5}"));
+        char[] buffer = new char[10];
+        RandomStringGenerator.UPPERCASE_LETTERS.fill(buffer, 3, 4);
+        Assertions.assertTrue(new String(buffer, 3, 4).matches("[A-Z]{4}"));
+        Assertions.assertEquals(0, buffer[2]);
+        Assertions.assertEquals(0, buffer[7]);
+    }
+
+    @Test
+    public void modeTest() {
+        Assertions.assertNull(RandomStringGenerator.DIGITS.getMode());
+        RandomStringGenerator secure = RandomStringGenerator.DIGITS.withMode(RandomUtils.Mode.SECURE);
+        Assertions.assertEquals(RandomUtils.Mode.SECURE, secure.getMode());
+        Assertions.assertSame(secure, secure.withMode(RandomUtils.Mode.SECURE));
+        Assertions.assertEquals(10, secure.getAlphabetSize());
+        // 全局生成模式为FAST时仍使用安全随机数
+        RandomUtils.setMode(RandomUtils.Mode.FAST);
+        Assertions.assertTrue(secure.generate(6).matches("[0-9]{6}"));
+        assertAlphabet(secure, "0123456789");
+        Assertions.assertThrows(IllegalArgumentException.class, () -> RandomStringGenerator.DIGITS.withMode(null));
+    }
+
+    @Test
+    public void invalidTest() {
+        Assertions.assertThrows(IllegalArgumentException.class, () -> RandomStringGenerator.of("a"));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> RandomStringGenerator.of("aba"));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> RandomStringGenerator.ofRange('z', 'a'));
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> RandomStringGenerator.DIGITS.generate(-1, 4));
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> RandomStringGenerator.DIGITS.generate(Integer.MAX_VALUE, 2));
+    }
+
+    private static void assertAlphabet(RandomStringGenerator generator, String alphabet) {
+        Assertions.assertEquals(alphabet.length(), generator.getAlphabetSize());
+        boolean[] seen = new boolean[alphabet.length()];
+        for (char character : generator.generate(10000).toCharArray()) {
+            int index = alphabet.indexOf(character);
+            Assertions.assertTrue(index >= 0, String.valueOf(character));
+            seen[index] = true;
+        }
+        for (boolean value : seen) {
+            Assertions.assertTrue(value);
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package io.github.pangju666.utils;
+
+import io.github.pangju666.utils.common.RandomUtils;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.security.SecureRandom;
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicReference;
+
+public class RandomUtilsTest {
+
+    @Test
+    public void secureRandomTest() throws InterruptedException {
+        SecureRandom secureRandom = RandomUtils.secureRandom();
+        Assertions.assertEquals("SHA1PRNG", secureRandom.getAlgorithm());
+        Assertions.assertSame(secureRandom, RandomUtils.secureRandom());
+
+        AtomicReference<SecureRandom> other = new AtomicReference<>();
+        AtomicReference<byte[]> otherBytes = new AtomicReference<>();
+        Thread thread = new Thread(() -> {
+            other.set(RandomUtils.secureRandom());
+            otherBytes.set(nextBytes(other.get()));
+        });
+        thread.start();
+        thread.join();
+        // 每个线程使用各自的实例和种子
+        Assertions.assertNotSame(secureRandom, other.get());
+        Assertions.assertFalse(Arrays.equals(nextBytes(secureRandom), otherBytes.get()));
+    }
+
+    @Test
+    public void modeTest() {
+        Assertions.assertSame(ThreadLocalRandom.current(), RandomUtils.random());
+        RandomUtils.setMode(RandomUtils.Mode.SECURE);
+        try {
+            Assertions.assertSame(RandomUtils.secureRandom(), RandomUtils.random());
+            Assertions.assertEquals(16, RandomUtils.nextBytes(16).length);
+        } finally {
+            RandomUtils.setMode(RandomUtils.Mode.FAST);
+        }
+        Assertions.assertThrows(NullPointerException.class, () -> RandomUtils.setMode(null));
+    }
+
+    @Test
+    public void callSiteModeTest() {
+        // 调用处指定的模式不受全局生成模式影响
+        RandomUtils.setMode(RandomUtils.Mode.FAST);
+        Assertions.assertSame(RandomUtils.secureRandom(), RandomUtils.random(RandomUtils.Mode.SECURE));
+        RandomUtils.setMode(RandomUtils.Mode.SECURE);
+        try {
+            Assertions.assertSame(ThreadLocalRandom.current(), RandomUtils.random(RandomUtils.Mode.FAST));
+        } finally {
+            RandomUtils.setMode(RandomUtils.Mode.FAST);
+        }
+        Assertions.assertThrows(NullPointerException.class, () -> RandomUtils.random(null));
+    }
+
+    @Test
+    public void rangeTest() {
+        int[] counts = new int[6];
+        for (int i = 0; i < 60000; i++) {
+            long value = RandomUtils.nextLong(10, 16);
+            Assertions.assertTrue(value >= 10 && value < 16);
+            counts[(int) (value - 10)]++;
+            int intValue = RandomUtils.nextInt(3, 5);
+            Assertions.assertTrue(intValue >= 3 && intValue < 5);
+            double doubleValue = RandomUtils.nextDouble(1.5, 2.5);
+            Assertions.assertTrue(doubleValue >= 1.5 && doubleValue < 2.5);
+        }
+        // 拒绝采样后各值出现次数接近
+        for (int count : counts) {
+            Assertions.assertTrue(Math.abs(count - 10000) < 600, Arrays.toString(counts));
+        }
+        Assertions.assertEquals(7, RandomUtils.nextLong(7, 7));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> RandomUtils.nextLong(5, 4));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> RandomUtils.nextInt(-1, 4));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> RandomUtils.nextBytes(-1));
+    }
+
+    private static byte[] nextBytes(SecureRandom secureRandom) {
+        byte[] bytes = new byte[32];
+        secureRandom.nextBytes(bytes);
+        return bytes;
+    }
+}
@@ -0,0 +1,81 @@
+package io.github.pangju666.utils;
+
+import io.github.pangju666.utils.codec.RsaKeyCache;
+import io.github.pangju666.utils.codec.RsaUtil;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import javax.crypto.Cipher;
+import java.security.KeyFactory;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+public class RsaKeyCacheTest {
+
+    @Test
+    public void cacheTest() throws Exception {
+        RsaKeyCache cache = new RsaKeyCache(2, 2);
+        RsaUtil.RsaKeyPair first = RsaUtil.generateSecretKey(1024);
+        RsaUtil.RsaKeyPair second = RsaUtil.generateSecretKey(1024);
+
+        Assertions.assertSame(cache.getPublicKey(first.getPublicKey()),
+                cache.getPublicKey(first.getPublicKey().clone()));
+        Assertions.assertEquals(1, cache.getMissCount());
+        Assertions.assertEquals(1, cache.getHitCount());
+
+        // 超出上限时淘汰最近最少使用的密钥
+        cache.getPublicKey(second.getPublicKey());
+        cache.getPrivateKey(first.getPrivateKey());
+        Assertions.assertEquals(2, cache.size());
+        Assertions.assertEquals(1, cache.getEvictionCount());
+        cache.getPublicKey(first.getPublicKey());
+        Assertions.assertEquals(4, cache.getMissCount());
+    }
+
+    @Test
+    public void encryptTest() throws Exception {
+        RsaKeyCache cache = new RsaKeyCache(4, 2);
+        RsaUtil.RsaKeyPair keyPair = RsaUtil.generateSecretKey(1024);
+        Cipher cipher = Cipher.getInstance("RSA");
+        cipher.init(Cipher.DECRYPT_MODE, KeyFactory.getInstance("RSA").generatePrivate(
+                new PKCS8EncodedKeySpec(keyPair.getPrivateKey())));
+        for (int i = 0; i < 5; i++) {
+            byte[] source = ("胖橘" + i).getBytes();
+            byte[] encrypted = cache.encrypt(source, keyPair.getPublicKey());
+            Assertions.assertArrayEquals(source, cipher.doFinal(encrypted));
+            Assertions.assertArrayEquals(source, cache.decrypt(encrypted, keyPair.getPrivateKey()));
+        }
+    }
+
+    @Test
+    public void concurrentTest() throws Exception {
+        RsaKeyCache cache = new RsaKeyCache(3, 2);
+        byte[][] keys = new byte[5][];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = RsaUtil.generateSecretKey(1024).getPublicKey();
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            int offset = i;
+            futures.add(executor.submit(() -> {
+                for (int j = 0; j < 2000; j++) {
+                    byte[] key = keys[(j + offset) % keys.length];
+                    Assertions.assertNotNull(cache.getPublicKey(key));
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+        // 不超过上限，命中与未命中次数之和等于访问次数
+        Assertions.assertTrue(cache.size() <= 3);
+        Assertions.assertEquals(8000, cache.getHitCount() + cache.getMissCount());
+        Assertions.assertTrue(cache.getEvictionCount() > 0);
+    }
+}
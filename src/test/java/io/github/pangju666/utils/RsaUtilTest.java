@@ -0,0 +1,70 @@
+package io.github.pangju666.utils;
+
+import io.github.pangju666.utils.codec.RsaUtil;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.security.KeyFactory;
+import java.security.Signature;
+import java.security.spec.X509EncodedKeySpec;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Random;
+
+public class RsaUtilTest {
+    private static final RsaUtil.RsaKeyPair KEY_PAIR = RsaUtil.generateSecretKey(2048);
+
+    @Test
+    public void signTest() throws Exception {
+        byte[] source = "胖橘".getBytes();
+        byte[] sign = RsaUtil.sign(source, KEY_PAIR.getPrivateKey());
+
+        Signature signature = Signature.getInstance("SHA256withRSA");
+        signature.initVerify(KeyFactory.getInstance("RSA").generatePublic(
+                new X509EncodedKeySpec(KEY_PAIR.getPublicKey())));
+        signature.update(source);
+        Assertions.assertTrue(signature.verify(sign));
+        Assertions.assertTrue(RsaUtil.verify(source, sign, KEY_PAIR.getPublicKey()));
+        Assertions.assertFalse(RsaUtil.verify("胖".getBytes(), sign, KEY_PAIR.getPublicKey()));
+    }
+
+    @Test
+    public void verifyAllTest() {
+        byte[] garbledKey = KEY_PAIR.getPublicKey().clone();
+        garbledKey[garbledKey.length / 2] ^= 0x5A;
+        byte[] invalidKey = new byte[]{1, 2, 3};
+
+        List<RsaUtil.SignedItem> items = new ArrayList<>();
+        BitSet expected = new BitSet();
+        Random random = new Random(0);
+        for (int i = 0; i < 64; i++) {
+            byte[] source = new byte[i];
+            random.nextBytes(source);
+            byte[] sign = RsaUtil.sign(source, KEY_PAIR.getPrivateKey());
+            byte[] publicKey = KEY_PAIR.getPublicKey();
+            switch (i % 4) {
+                case 1:
+                    sign[0] ^= 1;
+                    break;
+                case 2:
+                    publicKey = i % 8 == 2 ? garbledKey : invalidKey;
+                    break;
+                default:
+                    expected.set(i);
+            }
+            items.add(new RsaUtil.SignedItem(source, sign, publicKey));
+        }
+        Assertions.assertEquals(expected, RsaUtil.verifyAll(items));
+    }
+
+    @Test
+    public void sealTest() {
+        for (int size : new int[]{0, 1, 100 * 1024}) {
+            byte[] source = new byte[size];
+            new Random(size).nextBytes(source);
+            byte[] sealed = RsaUtil.seal(source, KEY_PAIR.getPublicKey());
+            Assertions.assertArrayEquals(source, RsaUtil.open(sealed, KEY_PAIR.getPrivateKey()));
+        }
+    }
+}
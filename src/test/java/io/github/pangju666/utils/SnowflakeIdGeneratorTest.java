@@ -0,0 +1,129 @@
+package io.github.pangju666.utils;
+
+import io.github.pangju666.utils.common.IdEncoding;
+import io.github.pangju666.utils.common.SnowflakeIdGenerator;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class SnowflakeIdGeneratorTest {
+
+    @Test
+    public void nextIdTest() {
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(5);
+        long before = System.currentTimeMillis();
+        long[] ids = generator.nextIds(100000);
+        for (int i = 0; i < ids.length; i++) {
+            Assertions.assertEquals(5, generator.getNodeId(ids[i]));
+            Assertions.assertTrue(generator.getTimeMillis(ids[i]) >= before);
+            if (i > 0) {
+                Assertions.assertTrue(ids[i] > ids[i - 1]);
+            }
+        }
+        String previous = generator.nextIdString(IdEncoding.BASE62);
+        for (int i = 0; i < 1000; i++) {
+            String current = generator.nextIdString(IdEncoding.BASE62);
+            Assertions.assertTrue(current.compareTo(previous) > 0);
+            previous = current;
+        }
+    }
+
+    @Test
+    public void clockBackwardTest() {
+        ManualClockGenerator generator = new ManualClockGenerator(1000L);
+        generator.now = 10000L;
+        long first = generator.nextId();
+        Assertions.assertEquals(10000L, generator.getTimeMillis(first));
+
+        // 回拨不超过允许值时继续在上次的时间戳上递增
+        generator.now = 9500L;
+        long second = generator.nextId();
+        Assertions.assertTrue(second > first);
+        Assertions.assertEquals(10000L, generator.getTimeMillis(second));
+        Assertions.assertEquals(1, generator.getSequence(second));
+
+        // 回拨超过允许值时抛出异常
+        generator.now = 8000L;
+        Assertions.assertThrows(IllegalStateException.class, generator::nextId);
+
+        // 时钟恢复后继续生成
+        generator.now = 10001L;
+        long third = generator.nextId();
+        Assertions.assertTrue(third > second);
+        Assertions.assertEquals(10001L, generator.getTimeMillis(third));
+    }
+
+    @Test
+    public void sequenceExhaustedTest() {
+        ManualClockGenerator generator = new ManualClockGenerator(1000L);
+        generator.now = 10000L;
+        // 序列号只有1位，每毫秒2个，用尽后借用下一毫秒
+        long[] ids = generator.nextIds(10);
+        for (int i = 0; i < ids.length; i++) {
+            Assertions.assertEquals(10000L + i / 2, generator.getTimeMillis(ids[i]));
+            Assertions.assertEquals(i % 2, generator.getSequence(ids[i]));
+        }
+    }
+
+    @Test
+    public void concurrentTest() throws InterruptedException {
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(1);
+        Set<Long> ids = ConcurrentHashMap.newKeySet();
+        AtomicInteger unordered = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        for (int i = 0; i < 4; i++) {
+            executor.execute(() -> {
+                long previous = -1L;
+                for (int j = 0; j < 50000; j++) {
+                    long id = generator.nextId();
+                    if (id <= previous) {
+                        unordered.incrementAndGet();
+                    }
+                    previous = id;
+                    ids.add(id);
+                }
+            });
+        }
+        executor.shutdown();
+        Assertions.assertTrue(executor.awaitTermination(1, TimeUnit.MINUTES));
+        Assertions.assertEquals(200000, ids.size());
+        Assertions.assertEquals(0, unordered.get());
+    }
+
+    @Test
+    public void invalidTest() {
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new SnowflakeIdGenerator(1024));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new SnowflakeIdGenerator(-1));
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> new SnowflakeIdGenerator(0, 20, 9, 0L, 0L));
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> new SnowflakeIdGenerator(0, 10, 0, 0L, 0L));
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> new SnowflakeIdGenerator(0, 10, 12, 0L, -1L));
+        ManualClockGenerator generator = new ManualClockGenerator(0L);
+        generator.now = -1L;
+        Assertions.assertThrows(IllegalStateException.class, generator::nextId);
+    }
+
+    /**
+     * 使用手动设置的时间，起始时间为0，节点号3位，序列号1位
+     */
+    private static final class ManualClockGenerator extends SnowflakeIdGenerator {
+        private volatile long now;
+
+        ManualClockGenerator(long maxBackwardMillis) {
+            super(3, 3, 1, 0L, maxBackwardMillis);
+        }
+
+        @Override
+        protected long currentTimeMillis() {
+            return now;
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package io.github.pangju666.utils;
+
+import io.github.pangju666.utils.common.UUIDUtils;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+public class UUIDUtilsTest {
+
+    @Test
+    public void randomUUIDTest() {
+        Set<String> values = new HashSet<>();
+        for (int i = 0; i < 1000; i++) {
+            UUID uuid = UUIDUtils.randomUUID();
+            Assertions.assertEquals(4, uuid.version());
+            Assertions.assertEquals(2, uuid.variant());
+            Assertions.assertEquals(uuid.toString().replace("-", ""), UUIDUtils.toCompactString(uuid));
+            String compact = UUIDUtils.randomUUIDStr();
+            Assertions.assertEquals(4, UUID.fromString(withHyphens(compact)).version());
+            Assertions.assertTrue(values.add(compact));
+        }
+        for (String compact : UUIDUtils.randomUUIDStrs(1000)) {
+            Assertions.assertTrue(compact.matches("[0-9a-f]{12}4[0-9a-f]{3}[89ab][0-9a-f]{15}"), compact);
+            Assertions.assertTrue(values.add(compact));
+        }
+        UUID fast = UUIDUtils.randomUUID(ThreadLocalRandom.current());
+        Assertions.assertEquals(4, fast.version());
+        Assertions.assertEquals(2, fast.variant());
+        Assertions.assertThrows(NullPointerException.class, () -> UUIDUtils.randomUUID(null));
+    }
+
+    @Test
+    public void formatToTest() {
+        UUID uuid = new UUID(0x0123456789ABCDEFL, 0xFEDCBA9876543210L);
+        char[] buffer = new char[UUIDUtils.COMPACT_LENGTH + 1];
+        UUIDUtils.formatTo(uuid.getMostSignificantBits(), uuid.getLeastSignificantBits(), buffer, 1);
+        Assertions.assertEquals("0123456789abcdeffedcba9876543210", new String(buffer, 1, UUIDUtils.COMPACT_LENGTH));
+    }
+
+    @Test
+    public void timeOrderedUUIDTest() {
+        long before = System.currentTimeMillis();
+        UUID previous = UUIDUtils.timeOrderedUUID();
+        Assertions.assertEquals(7, previous.version());
+        Assertions.assertEquals(2, previous.variant());
+        long timestamp = previous.getMostSignificantBits() >>> 16;
+        Assertions.assertTrue(timestamp >= before && timestamp <= System.currentTimeMillis());
+
+        String previousStr = UUIDUtils.toCompactString(previous);
+        for (int i = 0; i < 100000; i++) {
+            // 同一毫秒内大量生成时计数器递增，字典序与生成顺序一致
+            String current = UUIDUtils.timeOrderedUUIDStr();
+            Assertions.assertTrue(current.compareTo(previousStr) > 0, previousStr + " " + current);
+            previousStr = current;
+        }
+    }
+
+    @Test
+    public void concurrentTest() throws InterruptedException {
+        Set<UUID> values = ConcurrentHashMap.newKeySet();
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        for (int i = 0; i < 4; i++) {
+            executor.execute(() -> {
+                for (int j = 0; j < 20000; j++) {
+                    values.add(UUIDUtils.timeOrderedUUID());
+                }
+            });
+        }
+        executor.shutdown();
+        Assertions.assertTrue(executor.awaitTermination(1, TimeUnit.MINUTES));
+        Assertions.assertEquals(80000, values.size());
+    }
+
+    private static String withHyphens(String compact) {
+        return compact.substring(0, 8) + "-" + compact.substring(8, 12) + "-" + compact.substring(12, 16) + "-"
+                + compact.substring(16, 20) + "-" + compact.substring(20);
+    }
+}
@@ -0,0 +1,97 @@
+package io.github.pangju666.utils;
+
+import io.github.pangju666.utils.common.DateUtils;
+import io.github.pangju666.utils.common.ZoneOffsetTable;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.zone.ZoneRules;
+import java.util.Random;
+
+public class ZoneOffsetTableTest {
+    private static final String[] ZONES = {"UTC", "Asia/Shanghai", "America/New_York", "Europe/London",
+            "Australia/Lord_Howe", "America/St_Johns", "Pacific/Apia", "Asia/Kolkata"};
+    /** 1800-01-01T00:00:00Z */
+    private static final long START = -5364662400000L;
+    /** 1800年至2300年的毫秒数 */
+    private static final long RANGE = 15778454400000L;
+
+    @Test
+    public void offsetTest() {
+        Random random = new Random(0);
+        for (String id : ZoneId.getAvailableZoneIds()) {
+            ZoneRules rules = ZoneId.of(id).getRules();
+            ZoneOffsetTable table = ZoneOffsetTable.of(ZoneId.of(id));
+            for (int i = 0; i < 200; i++) {
+                long milliseconds = START + (long) (random.nextDouble() * RANGE);
+                long expected = rules.getOffset(Instant.ofEpochMilli(milliseconds)).getTotalSeconds() * 1000L;
+                Assertions.assertEquals(expected, table.getOffset(milliseconds), id + " " + milliseconds);
+            }
+        }
+    }
+
+    @Test
+    public void toEpochMillisTest() {
+        Random random = new Random(1);
+        for (String id : ZONES) {
+            ZoneId zone = ZoneId.of(id);
+            ZoneOffsetTable table = ZoneOffsetTable.of(zone);
+            for (int i = 0; i < 20000; i++) {
+                // 包含夏令时开始时不存在的时间和结束时重复的时间
+                long local = (START + (long) (random.nextDouble() * RANGE)) / 60000 * 60000;
+                LocalDateTime dateTime = LocalDateTime.ofEpochSecond(local / 1000, 0, ZoneOffset.UTC);
+                long expected = ZonedDateTime.of(dateTime, zone).toInstant().toEpochMilli();
+                Assertions.assertEquals(expected, table.toEpochMillis(local), id + " " + dateTime);
+            }
+        }
+    }
+
+    @Test
+    public void dayTest() {
+        Random random = new Random(2);
+        for (String id : ZONES) {
+            ZoneId zone = ZoneId.of(id);
+            ZoneOffsetTable table = ZoneOffsetTable.of(zone);
+            for (int i = 0; i < 20000; i++) {
+                long milliseconds = START + (long) (random.nextDouble() * RANGE);
+                LocalDate date = Instant.ofEpochMilli(milliseconds).atZone(zone).toLocalDate();
+                long start = date.atStartOfDay(zone).toInstant().toEpochMilli();
+                long end = date.plusDays(1).atStartOfDay(zone).toInstant().toEpochMilli() - 1;
+                Assertions.assertEquals(date.toEpochDay(), table.toEpochDay(milliseconds));
+                Assertions.assertEquals(start, table.startOfDay(milliseconds), id + " " + date);
+                Assertions.assertEquals(end, table.endOfDay(milliseconds), id + " " + date);
+                Assertions.assertEquals(start, DateUtils.getInitialDateTheDay(milliseconds, zone));
+                Assertions.assertEquals(end, DateUtils.getEndDateTheDay(milliseconds, zone));
+                Assertions.assertEquals(date.isLeapYear(), DateUtils.isLeapYear(milliseconds, zone));
+            }
+        }
+    }
+
+    @Test
+    public void bulkTest() {
+        // 数组足够大时并行处理，各任务的游标互不影响
+        ZoneId zone = ZoneId.of("America/New_York");
+        ZoneOffsetTable table = ZoneOffsetTable.of(zone);
+        long[] milliseconds = new long[100000];
+        long step = RANGE / milliseconds.length;
+        for (int i = 0; i < milliseconds.length; i++) {
+            milliseconds[i] = START + i * step + (i % 7) * 3600000L;
+        }
+        long[] days = DateUtils.truncate(milliseconds, DateUtils.Base.DAY, zone);
+        long[] hours = DateUtils.truncate(milliseconds, DateUtils.Base.HOUR, zone);
+        for (int i = 0; i < milliseconds.length; i++) {
+            long expected = Instant.ofEpochMilli(milliseconds[i]).atZone(zone).toLocalDate()
+                    .atStartOfDay(zone).toInstant().toEpochMilli();
+            Assertions.assertEquals(expected, days[i]);
+            Assertions.assertEquals(table.startOfDay(milliseconds[i]), days[i]);
+            long local = table.toLocalMillis(milliseconds[i]);
+            Assertions.assertEquals(Math.floorMod(local, 3600000L), milliseconds[i] - hours[i]);
+        }
+    }
+}